@@ -0,0 +1,132 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.CommandInput;
+import fileio.OutputSink;
+import model.entities.Animal;
+import model.entities.Plant;
+import model.entities.Water;
+import model.environment.Section;
+import model.environment.Territory;
+import model.environment.TerritoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import simulation.CommandCompiler;
+import simulation.Simulation;
+import simulation.SimulationFactory;
+import simulation.TickMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advances a freshly built simulation through its first ticks, with every entity of
+ * the territory active. Each tick is triggered by a getEnergyStatus command one
+ * timestamp after the previous one, whose own cost is negligible. Entities die out as
+ * the simulation runs, so every iteration starts again from a new simulation and the
+ * score is the time of its first {@value #TICKS} ticks.
+ *
+ * <p>Only predators are kept among the animals: an animal that cannot enter an
+ * occupied section stops the engine once other animals surround it.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 30, batchSize = ActiveEntitiesBenchmark.TICKS)
+@Measurement(iterations = 20, batchSize = ActiveEntitiesBenchmark.TICKS)
+@Fork(1)
+public class ActiveEntitiesBenchmark {
+
+    static final int TICKS = 10;
+
+    @Param({"10", "50", "200"})
+    private int size;
+
+    /**
+     * Probability of a section holding each kind of entity
+     */
+    @Param({"0.1", "0.5"})
+    private double density;
+
+    /**
+     * Active animals make the engine replay every tick; without them it fast-forwards
+     */
+    @Param({"true", "false"})
+    private boolean animals;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CommandInput command = new CommandInput();
+    private final CommandCompiler compiler = new CommandCompiler();
+    private Simulation simulation;
+
+    /**
+     * Builds a new simulation and activates all of its entities
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        SimulationFactory factory = new SimulationFactory(TerritoryBackend.GRID,
+                TickMode.SEQUENTIAL);
+        simulation = factory.build(SyntheticTerritory.create(size, density, density,
+                animals ? density : 0, 1));
+        activateAll(simulation);
+
+        command.setCommand("getEnergyStatus");
+        command.setTimestamp(0);
+    }
+
+    /**
+     * Marks every plant, water and predator as scanned at timestamp 0, removing the
+     * other animals
+     *
+     * @param target the simulation whose entities are activated
+     */
+    static void activateAll(final Simulation target) {
+        Territory territory = target.getTerritory();
+        for (int x = 0; x < territory.getHeight(); x++) {
+            for (int y = 0; y < territory.getWidth(); y++) {
+                Section section = territory.getSection(x, y);
+                Plant plant = section.getPlant();
+                Water water = section.getWater();
+                Animal animal = section.getAnimal();
+                if (plant != null) {
+                    plant.setActive(true);
+                }
+                if (water != null) {
+                    water.setActive(true);
+                }
+                if (animal != null && !animal.isPredator()) {
+                    section.setAnimal(null);
+                    animal = null;
+                }
+                if (animal != null) {
+                    animal.setActive(true);
+                }
+                if (plant != null || water != null || animal != null) {
+                    target.getScheduler().schedule(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a single tick
+     *
+     * @param blackhole consumes the command result
+     */
+    @Benchmark
+    public void tick(final Blackhole blackhole) {
+        OutputSink sink = blackhole::consume;
+        command.setTimestamp(command.getTimestamp() + 1);
+        simulation.executeCommand(compiler.compile(command), sink, mapper);
+    }
+}
@@ -0,0 +1,147 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.CommandInput;
+import fileio.OutputSink;
+import model.environment.TerritoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import simulation.CommandCompiler;
+import simulation.CompiledCommand;
+import simulation.MetricsRegistry;
+import simulation.Simulation;
+import simulation.SimulationFactory;
+import simulation.TickMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-command cost of executing a mix of commands that all share one
+ * timestamp, so that no entity updates run and the cost is the dispatch and the
+ * command handlers themselves. The territory has no water, so scans and improvements
+ * fail and the state of the robot stays the same between invocations.
+ *
+ * <p>{@code interpreted} compiles every command from its parsed input right before
+ * running it, with a compiler shared by all the invocations, while {@code compiled}
+ * runs the commands compiled once up front.</p>
+ *
+ * <p>With {@code metrics} set, the simulation records the latency of every command.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandDispatchBenchmark {
+
+    private static final int SIZE = 10;
+    private static final int COMMANDS = 6;
+
+    /**
+     * Whether the latency of every command is recorded
+     */
+    @Param({"false", "true"})
+    private boolean metrics;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Simulation simulation;
+    private CommandInput[] commands;
+    private CommandCompiler compiler;
+    private CompiledCommand[] compiledCommands;
+
+    /**
+     * Builds the simulation and the commands
+     */
+    @Setup
+    public void setUp() {
+        MetricsRegistry registry = metrics ? new MetricsRegistry() : MetricsRegistry.DISABLED;
+        SimulationFactory factory = new SimulationFactory(TerritoryBackend.GRID,
+                TickMode.SEQUENTIAL, registry);
+        simulation = factory.build(SyntheticTerritory.create(SIZE, 0.3, 0, 1));
+        simulation.getTerraBot().setEnergyPoints(Integer.MAX_VALUE);
+
+        commands = new CommandInput[] {
+            command("getEnergyStatus"),
+            command("moveRobot"),
+            scan(),
+            improvement(),
+            weather(),
+            command("printEnvConditions"),
+        };
+
+        compiler = new CommandCompiler();
+        compiledCommands = new CompiledCommand[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            compiledCommands[i] = compiler.compile(commands[i]);
+        }
+    }
+
+    private static CommandInput command(final String name) {
+        CommandInput command = new CommandInput();
+        command.setCommand(name);
+        command.setTimestamp(1);
+        return command;
+    }
+
+    private static CommandInput scan() {
+        CommandInput command = command("scanObject");
+        command.setColor("none");
+        command.setSmell("none");
+        command.setSound("none");
+        return command;
+    }
+
+    private static CommandInput improvement() {
+        CommandInput command = command("improveEnvironment");
+        command.setImprovementType("plantVegetation");
+        command.setName("Ferns");
+        return command;
+    }
+
+    private static CommandInput weather() {
+        CommandInput command = command("changeWeatherConditions");
+        command.setType("newSeason");
+        command.setSeason("Spring");
+        return command;
+    }
+
+    /**
+     * Compiles and executes every command from its parsed input
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void interpreted(final Blackhole blackhole) {
+        OutputSink sink = blackhole::consume;
+        for (CommandInput command : commands) {
+            simulation.executeCommand(compiler.compile(command), sink, mapper);
+        }
+    }
+
+    /**
+     * Executes every command from its compiled form
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public void compiled(final Blackhole blackhole) {
+        OutputSink sink = blackhole::consume;
+        for (CompiledCommand command : compiledCommands) {
+            simulation.executeCommand(command, sink, mapper);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.CommandInput;
+import fileio.OutputSink;
+import model.environment.TerritoryBackend;
+import model.robot.TerraBot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import simulation.CommandCompiler;
+import simulation.CompiledCommand;
+import simulation.Simulation;
+import simulation.SimulationFactory;
+import simulation.TickMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single command type at a time. Every command shares one timestamp, so no
+ * entity updates run. Every section holds water and the robot has scanned and learned
+ * about it, so scans, facts and improvements take their successful path. The simulation
+ * is rebuilt before every iteration, since learned facts accumulate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecuteCommandBenchmark {
+
+    private static final String WATER = "lake";
+    private static final int SCANS = 1_000_000_000;
+
+    @Param({"getEnergyStatus", "moveRobot", "scanObject", "learnFact", "improveEnvironment",
+            "changeWeatherConditions", "printEnvConditions", "printMap", "printKnowledgeBase",
+            "rechargeBattery"})
+    private String command;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Simulation simulation;
+    private CompiledCommand compiled;
+
+    /**
+     * Compiles the measured command
+     */
+    @Setup
+    public void compile() {
+        CommandInput input = new CommandInput();
+        input.setCommand(command);
+        input.setTimestamp(1);
+        switch (command) {
+            case "scanObject" -> {
+                input.setColor("none");
+                input.setSmell("none");
+                input.setSound("none");
+            }
+            case "learnFact" -> {
+                input.setComponents(WATER);
+                input.setSubject("Method to purify water");
+            }
+            case "improveEnvironment" -> {
+                input.setImprovementType("increaseHumidity");
+                input.setName(WATER);
+            }
+            case "changeWeatherConditions" -> {
+                input.setType("newSeason");
+                input.setSeason("Spring");
+            }
+            default -> {
+            }
+        }
+        compiled = new CommandCompiler().compile(input);
+    }
+
+    /**
+     * Builds the simulation and the state of the robot
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        SimulationFactory factory = new SimulationFactory(TerritoryBackend.GRID,
+                TickMode.SEQUENTIAL);
+        simulation = factory.build(SyntheticTerritory.create(size, 0.3, 1, 1));
+
+        TerraBot terraBot = simulation.getTerraBot();
+        terraBot.setEnergyPoints(Integer.MAX_VALUE);
+        terraBot.getScannedObjects().add(WATER, SCANS);
+        terraBot.getKnowledgeBase().addFact(WATER, "Method to purify water");
+    }
+
+    /**
+     * Executes the command once
+     *
+     * @param blackhole consumes the result
+     */
+    @Benchmark
+    public void execute(final Blackhole blackhole) {
+        OutputSink sink = blackhole::consume;
+        simulation.executeCommand(compiled, sink, mapper);
+    }
+}
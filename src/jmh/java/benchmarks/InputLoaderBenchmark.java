@@ -0,0 +1,101 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fileio.CommandInput;
+import fileio.InputLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses an input file holding one simulation of the given size followed by the given
+ * number of commands, the way the simulation manager reads it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputLoaderBenchmark {
+
+    private static final String[] COMMANDS = {"moveRobot", "scanObject", "getEnergyStatus",
+            "printEnvConditions", "learnFact", "printMap"};
+
+    @Param({"10", "100"})
+    private int size;
+
+    @Param({"1000", "100000"})
+    private int commands;
+
+    private Path file;
+
+    /**
+     * Writes the input file
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        root.putArray("simulationParams")
+                .addPOJO(SyntheticTerritory.create(size, 0.3, 0.3, 0.3, 1));
+
+        ArrayNode array = root.putArray("commands");
+        for (int i = 0; i < commands; i++) {
+            ObjectNode command = array.addObject();
+            command.put("command", COMMANDS[i % COMMANDS.length]);
+            command.put("timestamp", i + 1);
+            command.put("color", "none");
+            command.put("smell", "none");
+            command.put("sound", "none");
+        }
+
+        file = Files.createTempFile("terrabot-input", ".json");
+        mapper.writeValue(file.toFile(), root);
+    }
+
+    /**
+     * Deletes the input file
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Parses the simulation and every command of the file
+     *
+     * @param blackhole consumes the parsed values
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public void load(final Blackhole blackhole) throws IOException {
+        try (InputLoader loader = new InputLoader(file.toString())) {
+            blackhole.consume(loader.getSimulations().get(0));
+            for (CommandInput command : loader.getCommands()) {
+                blackhole.consume(command);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import main.Main;
+import model.environment.TerritoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.MapResult;
+import simulation.SimulationFactory;
+import simulation.TickMode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the printMap result of a territory to a discarding pretty-printing generator.
+ * Run with {@code -prof gc}: gc.alloc.rate.norm stays the same for every size, since
+ * writing a section allocates nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapResultBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int size;
+
+    @Param({"GRID", "COLUMNAR"})
+    private TerritoryBackend backend;
+
+    private MapResult result;
+    private JsonGenerator generator;
+    private SerializerProvider provider;
+
+    /**
+     * Builds the territory and opens the generator
+     *
+     * @throws IOException if the generator cannot be created
+     */
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        SimulationFactory factory = new SimulationFactory(backend, TickMode.SEQUENTIAL);
+
+        ObjectNode header = mapper.createObjectNode();
+        header.put("command", "printMap");
+        header.put("timestamp", 1);
+
+        result = new MapResult(factory.build(SyntheticTerritory.create(size, 0.3, 0.3, 1))
+                .getTerritory(), header);
+        generator = Main.WRITER.createGenerator(OutputStream.nullOutputStream());
+        provider = mapper.getSerializerProviderInstance();
+    }
+
+    /**
+     * Closes the generator
+     *
+     * @throws IOException if the generator cannot be closed
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        generator.close();
+    }
+
+    /**
+     * Writes the whole map once
+     *
+     * @throws IOException if writing fails
+     */
+    @Benchmark
+    public void printMap() throws IOException {
+        result.serialize(generator, provider);
+        generator.flush();
+    }
+}
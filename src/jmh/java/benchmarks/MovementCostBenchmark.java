@@ -0,0 +1,85 @@
+package benchmarks;
+
+import model.environment.Section;
+import model.environment.Territory;
+import model.environment.TerritoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.SimulationFactory;
+import simulation.TickMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the movement cost of every section of a territory. {@code computed} evaluates
+ * the blocking probabilities of each section, while {@code cached} reads the costs kept
+ * by the territory, which are only recomputed after a section changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementCostBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    @Param({"GRID", "COLUMNAR"})
+    private TerritoryBackend backend;
+
+    private Territory territory;
+
+    /**
+     * Builds the territory
+     */
+    @Setup
+    public void setUp() {
+        SimulationFactory factory = new SimulationFactory(backend, TickMode.SEQUENTIAL);
+        territory = factory.build(SyntheticTerritory.create(size, 0.3, 0.3, 0.3, 1))
+                .getTerritory();
+    }
+
+    /**
+     * Evaluates the movement cost of every section
+     *
+     * @return the sum of the costs
+     */
+    @Benchmark
+    public long computed() {
+        long sum = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                Section section = territory.getSection(x, y);
+                sum += section.movementCost();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Reads the cached movement cost of every section
+     *
+     * @return the sum of the costs
+     */
+    @Benchmark
+    public long cached() {
+        long sum = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                sum += territory.movementCost(x, y);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import fileio.SimulationInput;
+import model.environment.TerritoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.Simulation;
+import simulation.SimulationFactory;
+import simulation.TickMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a simulation from parsed parameters, as done once for every simulation of an
+ * input file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationFactoryBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int size;
+
+    @Param({"GRID", "COLUMNAR"})
+    private TerritoryBackend backend;
+
+    private SimulationFactory factory;
+    private SimulationInput input;
+
+    /**
+     * Creates the factory and the simulation parameters
+     */
+    @Setup
+    public void setUp() {
+        factory = new SimulationFactory(backend, TickMode.SEQUENTIAL);
+        input = SyntheticTerritory.create(size, 0.3, 0.3, 0.3, 1);
+    }
+
+    /**
+     * Builds the simulation
+     *
+     * @return the simulation
+     */
+    @Benchmark
+    public Simulation build() {
+        return factory.build(input);
+    }
+}
@@ -0,0 +1,168 @@
+package benchmarks;
+
+import fileio.AirInput;
+import fileio.AnimalInput;
+import fileio.PairInput;
+import fileio.PlantInput;
+import fileio.SimulationInput;
+import fileio.SoilInput;
+import fileio.TerritorySectionParamsInput;
+import fileio.WaterInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds seeded simulation parameters for square territories of any size. Every
+ * section gets a soil and an air of a random type; plants, water and animals are placed
+ * with the given densities.
+ */
+public final class SyntheticTerritory {
+
+    private static final String[] SOIL_TYPES =
+            {"ForestSoil", "SwampSoil", "DesertSoil", "GrasslandSoil", "TundraSoil"};
+    private static final String[] AIR_TYPES =
+            {"TropicalAir", "PolarAir", "TemperateAir", "DesertAir", "MountainAir"};
+    private static final String[] PLANT_TYPES =
+            {"FloweringPlants", "GymnospermsPlants", "Ferns", "Mosses", "Algae"};
+    private static final String[] ANIMAL_TYPES =
+            {"Herbivores", "Carnivores", "Omnivores", "Detritivores", "Parasites"};
+    private static final int ENERGY_POINTS = 1000;
+
+    private SyntheticTerritory() {
+    }
+
+    /**
+     * Creates the parameters of a size x size territory
+     *
+     * @param size         number of rows and columns
+     * @param plantDensity probability of a section holding a plant
+     * @param waterDensity probability of a section holding water
+     * @param seed         seed of the random placement and values
+     * @return the simulation parameters
+     */
+    public static SimulationInput create(final int size, final double plantDensity,
+                                         final double waterDensity, final long seed) {
+        return create(size, plantDensity, waterDensity, 0, seed);
+    }
+
+    /**
+     * Creates the parameters of a size x size territory holding animals
+     *
+     * @param size          number of rows and columns
+     * @param plantDensity  probability of a section holding a plant
+     * @param waterDensity  probability of a section holding water
+     * @param animalDensity probability of a section holding an animal
+     * @param seed          seed of the random placement and values
+     * @return the simulation parameters
+     */
+    public static SimulationInput create(final int size, final double plantDensity,
+                                         final double waterDensity,
+                                         final double animalDensity, final long seed) {
+        Random random = new Random(seed);
+
+        List<SoilInput> soils = new ArrayList<>();
+        for (String type : SOIL_TYPES) {
+            SoilInput soil = new SoilInput();
+            soil.setType(type);
+            soil.setName(type);
+            soil.setMass(random.nextDouble(1, 50));
+            soil.setNitrogen(random.nextDouble(0, 10));
+            soil.setWaterRetention(random.nextDouble(0, 60));
+            soil.setSoilpH(random.nextDouble(4, 8));
+            soil.setOrganicMatter(random.nextDouble(0, 10));
+            soil.setLeafLitter(random.nextDouble(0, 20));
+            soil.setWaterLogging(random.nextDouble(0, 10));
+            soil.setPermafrostDepth(random.nextDouble(0, 60));
+            soil.setRootDensity(random.nextDouble(0, 60));
+            soil.setSalinity(random.nextDouble(0, 20));
+            soil.setSections(new ArrayList<>());
+            soils.add(soil);
+        }
+
+        List<AirInput> airs = new ArrayList<>();
+        for (String type : AIR_TYPES) {
+            AirInput air = new AirInput();
+            air.setType(type);
+            air.setName(type);
+            air.setMass(random.nextDouble(1, 50));
+            air.setHumidity(random.nextDouble(0, 80));
+            air.setTemperature(random.nextDouble(-30, 40));
+            air.setOxygenLevel(random.nextDouble(10, 30));
+            air.setAltitude(random.nextDouble(0, 3000));
+            air.setPollenLevel(random.nextDouble(0, 50));
+            air.setCo2Level(random.nextDouble(0, 500));
+            air.setIceCrystalConcentration(random.nextDouble(0, 50));
+            air.setDustParticles(random.nextDouble(0, 50));
+            air.setSections(new ArrayList<>());
+            airs.add(air);
+        }
+
+        List<PlantInput> plants = new ArrayList<>();
+        for (String type : PLANT_TYPES) {
+            PlantInput plant = new PlantInput();
+            plant.setType(type);
+            plant.setName(type);
+            plant.setMass(random.nextDouble(1, 50));
+            plant.setSections(new ArrayList<>());
+            plants.add(plant);
+        }
+
+        // Territories without animals draw the same values as before animals existed
+        List<AnimalInput> animals = new ArrayList<>();
+        if (animalDensity > 0) {
+            for (String type : ANIMAL_TYPES) {
+                AnimalInput animal = new AnimalInput();
+                animal.setType(type);
+                animal.setName(type);
+                animal.setMass(random.nextDouble(1, 50));
+                animal.setSections(new ArrayList<>());
+                animals.add(animal);
+            }
+        }
+
+        WaterInput water = new WaterInput();
+        water.setType("lake");
+        water.setName("lake");
+        water.setMass(random.nextDouble(1, 50));
+        water.setPurity(random.nextDouble(0, 100));
+        water.setSalinity(random.nextDouble(0, 300));
+        water.setTurbidity(random.nextDouble(0, 100));
+        water.setContaminantIndex(random.nextDouble(0, 100));
+        water.setPH(random.nextDouble(5, 9));
+        water.setSections(new ArrayList<>());
+
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                PairInput position = new PairInput();
+                position.setX(x);
+                position.setY(y);
+                soils.get(random.nextInt(soils.size())).getSections().add(position);
+                airs.get(random.nextInt(airs.size())).getSections().add(position);
+                if (random.nextDouble() < plantDensity) {
+                    plants.get(random.nextInt(plants.size())).getSections().add(position);
+                }
+                if (random.nextDouble() < waterDensity) {
+                    water.getSections().add(position);
+                }
+                if (animalDensity > 0 && random.nextDouble() < animalDensity) {
+                    animals.get(random.nextInt(animals.size())).getSections().add(position);
+                }
+            }
+        }
+
+        TerritorySectionParamsInput params = new TerritorySectionParamsInput();
+        params.setSoil(soils);
+        params.setAir(airs);
+        params.setPlants(plants);
+        params.setWater(List.of(water));
+        params.setAnimals(animals);
+
+        SimulationInput input = new SimulationInput();
+        input.setTerritoryDim(size + "x" + size);
+        input.setEnergyPoints(ENERGY_POINTS);
+        input.setTerritorySectionParams(params);
+        return input;
+    }
+}
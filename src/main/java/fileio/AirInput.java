@@ -9,7 +9,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-public final class AirInput {
+public final class AirInput implements PlacedInput {
     private String type;
     private String name;
     private double mass;
@@ -22,5 +22,7 @@ public final class AirInput {
     private double iceCrystalConcentration;
     private double dustParticles;
     private List<PairInput> sections;
+    private List<SectionRangeInput> sectionRanges;
+    private List<SectionRunInput> sectionRuns;
 }
 
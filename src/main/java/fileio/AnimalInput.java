@@ -9,10 +9,12 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-public final class AnimalInput {
+public final class AnimalInput implements PlacedInput {
     private String type;
     private String name;
     private double mass;
     private List<PairInput> sections;
+    private List<SectionRangeInput> sectionRanges;
+    private List<SectionRunInput> sectionRuns;
 }
 
@@ -1,38 +1,210 @@
 package fileio;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.Data;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
 /**
- * Basic skeleton for loading input JSON file as a Map.
- * Students should implement deeper parsing themselves.
+ * Streaming loader for the input JSON file. A first pass only records where every
+ * simulationParams entry and the commands array start; the simulation parameters are
+ * then parsed when requested and the commands are parsed one at a time while they
+ * are iterated, so the input never has to fit in memory.
  */
 @Getter
-public final class InputLoader {
-    private final ArrayList<SimulationInput> simulations;
-    private final ArrayList<CommandInput> commands;
+public final class InputLoader implements Closeable {
+    /**
+     * Simulation parameters, each one parsed when it is requested
+     */
+    private final List<SimulationInput> simulations;
 
+    /**
+     * Commands, parsed one at a time while iterating
+     */
+    private final Iterable<CommandInput> commands;
+
+    @Getter(AccessLevel.NONE)
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Getter(AccessLevel.NONE)
+    private final File file;
+
+    /**
+     * Byte offset of every simulationParams entry
+     */
+    @Getter(AccessLevel.NONE)
+    private final List<Long> simulationOffsets = new ArrayList<>();
+
+    /**
+     * Byte offset of the commands array, -1 if the input has none
+     */
+    @Getter(AccessLevel.NONE)
+    private long commandsOffset = -1;
+
+    /**
+     * Parsers opened by command iterations that have not finished yet
+     */
+    @Getter(AccessLevel.NONE)
+    private final List<JsonParser> openParsers = new ArrayList<>();
+
+    /**
+     * Indexes the given input file.
+     *
+     * @param filePath path of the input file
+     * @throws IOException if the file cannot be read or is not a JSON object
+     */
     public InputLoader(final String filePath) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        InputRoot root = mapper.readValue(new File(filePath), InputRoot.class);
-        this.simulations = new ArrayList<>(root.simulationParams);
-        this.commands = new ArrayList<>(root.commands);
+        this.file = new File(filePath);
+        index();
+        this.simulations = new SimulationList();
+        this.commands = CommandIterator::new;
     }
 
-    // Helper class for root deserialization
-    @Data
-    @NoArgsConstructor
-    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-    public static final class InputRoot {
-        private List<SimulationInput> simulationParams;
-        private List<CommandInput> commands;
+    private void index() throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object in " + file);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                if (field.equals("simulationParams") && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        simulationOffsets.add(parser.currentTokenLocation().getByteOffset());
+                        parser.skipChildren();
+                    }
+                } else if (field.equals("commands") && token == JsonToken.START_ARRAY) {
+                    commandsOffset = parser.currentTokenLocation().getByteOffset();
+                    if (!simulationOffsets.isEmpty()) {
+                        // The simulations precede the commands, nothing is left to index
+                        return;
+                    }
+                    parser.skipChildren();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a parser positioned right before the value found at the given offset
+     */
+    private JsonParser parserAt(final long offset) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            in.getChannel().position(offset);
+            return mapper.getFactory().createParser(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the parsers of the command iterations that were left unfinished
+     *
+     * @throws IOException if a parser cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (openParsers) {
+            for (JsonParser parser : openParsers) {
+                parser.close();
+            }
+            openParsers.clear();
+        }
+    }
+
+    /**
+     * Read-only list parsing every simulationParams entry on access
+     */
+    private final class SimulationList extends AbstractList<SimulationInput>
+            implements RandomAccess {
+        @Override
+        public SimulationInput get(final int index) {
+            try (JsonParser parser = parserAt(simulationOffsets.get(index))) {
+                parser.nextToken();
+                return mapper.readValue(parser, SimulationInput.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public int size() {
+            return simulationOffsets.size();
+        }
+    }
+
+    /**
+     * Reads the elements of the commands array one at a time
+     */
+    private final class CommandIterator implements Iterator<CommandInput> {
+        private JsonParser parser;
+
+        CommandIterator() {
+            if (commandsOffset < 0) {
+                return;
+            }
+            try {
+                parser = parserAt(commandsOffset);
+                parser.nextToken();
+                synchronized (openParsers) {
+                    openParsers.add(parser);
+                }
+                advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Moves to the next element, closing the parser after the last one
+         */
+        private void advance() throws IOException {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                return;
+            }
+            parser.close();
+            synchronized (openParsers) {
+                openParsers.remove(parser);
+            }
+            parser = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return parser != null;
+        }
+
+        @Override
+        public CommandInput next() {
+            if (parser == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                CommandInput command = mapper.readValue(parser, CommandInput.class);
+                advance();
+                return command;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
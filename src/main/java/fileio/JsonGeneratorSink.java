@@ -0,0 +1,37 @@
+package fileio;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Output sink writing every result straight to a {@link JsonGenerator}
+ */
+public final class JsonGeneratorSink implements OutputSink {
+    private final JsonGenerator generator;
+    private final SerializerProvider provider;
+
+    /**
+     * Creates a sink writing to the given generator
+     *
+     * @param generator the generator receiving the results
+     * @param mapper    the mapper providing the serializers
+     */
+    public JsonGeneratorSink(final JsonGenerator generator, final ObjectMapper mapper) {
+        this.generator = generator;
+        this.provider = mapper.getSerializerProviderInstance();
+    }
+
+    @Override
+    public void add(final JsonSerializable result) {
+        try {
+            result.serialize(generator, provider);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package fileio;
+
+import com.fasterxml.jackson.databind.JsonSerializable;
+
+/**
+ * Destination of the results produced by the commands. Results are written out as
+ * soon as they are added, so they can be produced on the fly instead of being built
+ * as node trees first.
+ */
+public interface OutputSink {
+    /**
+     * Writes the result of a command
+     *
+     * @param result a JSON node, or any value able to serialize itself
+     */
+    void add(JsonSerializable result);
+}
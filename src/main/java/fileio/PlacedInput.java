@@ -0,0 +1,113 @@
+package fileio;
+
+import java.util.List;
+
+/**
+ * Input entity placed on a set of sections. The sections can be listed one by one,
+ * as rectangles or as runs; every form may be used, or left out, independently.
+ */
+public interface PlacedInput {
+
+    /**
+     * Receives the coordinates of a section
+     */
+    @FunctionalInterface
+    interface SectionVisitor {
+        /**
+         * Visits the section at the given coordinates
+         *
+         * @param x first grid coordinate
+         * @param y second grid coordinate
+         */
+        void visit(int x, int y);
+    }
+
+    /**
+     * Returns the sections listed one by one
+     *
+     * @return the listed sections, or null
+     */
+    List<PairInput> getSections();
+
+    /**
+     * Returns the rectangles of sections
+     *
+     * @return the rectangles, or null
+     */
+    List<SectionRangeInput> getSectionRanges();
+
+    /**
+     * Returns the runs of sections
+     *
+     * @return the runs, or null
+     */
+    List<SectionRunInput> getSectionRuns();
+
+    /**
+     * Counts the sections the entity is placed on, including repeated ones
+     *
+     * @return number of sections
+     */
+    default long countSections() {
+        long count = 0;
+        if (getSections() != null) {
+            count += getSections().size();
+        }
+        if (getSectionRanges() != null) {
+            for (SectionRangeInput range : getSectionRanges()) {
+                count += range.size();
+            }
+        }
+        if (getSectionRuns() != null) {
+            for (SectionRunInput run : getSectionRuns()) {
+                count += Math.max(run.getLength(), 0);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visits every section the entity is placed on: first the listed sections, then
+     * the rectangles and then the runs, each in input order
+     *
+     * @param width   number of columns of the territory, used to wrap the runs
+     * @param height  number of rows of the territory
+     * @param visitor receives the coordinates of each section
+     * @throws IllegalArgumentException if a placement does not fit in the territory
+     */
+    default void forEachSection(final int width, final int height,
+                                final SectionVisitor visitor) {
+        if (getSections() != null) {
+            for (PairInput section : getSections()) {
+                checkSection(section.getX(), section.getY(), width, height);
+                visitor.visit(section.getX(), section.getY());
+            }
+        }
+        if (getSectionRanges() != null) {
+            for (SectionRangeInput range : getSectionRanges()) {
+                range.forEach(width, height, visitor);
+            }
+        }
+        if (getSectionRuns() != null) {
+            for (SectionRunInput run : getSectionRuns()) {
+                run.forEach(width, height, visitor);
+            }
+        }
+    }
+
+    /**
+     * Checks that a section lies in the territory
+     *
+     * @param x      first grid coordinate, below the number of rows
+     * @param y      second grid coordinate, below the number of columns
+     * @param width  number of columns of the territory
+     * @param height number of rows of the territory
+     * @throws IllegalArgumentException if the section lies outside the territory
+     */
+    static void checkSection(final int x, final int y, final int width, final int height) {
+        if (x < 0 || x >= height || y < 0 || y >= width) {
+            throw new IllegalArgumentException("Section (" + x + ", " + y
+                    + ") is outside the " + width + "x" + height + " territory");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fileio;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rectangle of sections given by two opposite corners, both included
+ */
+@Data
+@NoArgsConstructor
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public final class SectionRangeInput {
+    private PairInput from;
+    private PairInput to;
+
+    /**
+     * Counts the sections covered by the rectangle
+     *
+     * @return number of sections
+     */
+    public long size() {
+        return (Math.abs((long) to.getX() - from.getX()) + 1)
+                * (Math.abs((long) to.getY() - from.getY()) + 1);
+    }
+
+    /**
+     * Visits every section of the rectangle, row by row
+     *
+     * @param width   number of columns of the territory
+     * @param height  number of rows of the territory
+     * @param visitor receives the coordinates of each section
+     * @throws IllegalArgumentException if a corner lies outside the territory
+     */
+    public void forEach(final int width, final int height,
+                        final PlacedInput.SectionVisitor visitor) {
+        PlacedInput.checkSection(from.getX(), from.getY(), width, height);
+        PlacedInput.checkSection(to.getX(), to.getY(), width, height);
+
+        int minX = Math.min(from.getX(), to.getX());
+        int maxX = Math.max(from.getX(), to.getX());
+        int minY = Math.min(from.getY(), to.getY());
+        int maxY = Math.max(from.getY(), to.getY());
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                visitor.visit(x, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package fileio;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Run of consecutive sections starting at the given coordinates. The run advances
+ * along the second coordinate and wraps around to the next value of the first one,
+ * so it follows the order in which the territory stores its sections.
+ */
+@Data
+@NoArgsConstructor
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+public final class SectionRunInput {
+    private int x;
+    private int y;
+    private int length;
+
+    /**
+     * Visits every section of the run, in order
+     *
+     * @param width   number of columns of the territory
+     * @param height  number of rows of the territory
+     * @param visitor receives the coordinates of each section
+     * @throws IllegalArgumentException if the run does not fit in the territory
+     */
+    public void forEach(final int width, final int height,
+                        final PlacedInput.SectionVisitor visitor) {
+        PlacedInput.checkSection(x, y, width, height);
+        // Checked on longs, so that no run wraps around an int
+        long start = (long) x * width + y;
+        if (length < 0 || start + length > (long) width * height) {
+            throw new IllegalArgumentException("Run of " + length + " sections from ("
+                    + x + ", " + y + ") does not fit in the " + width + "x" + height
+                    + " territory");
+        }
+
+        int end = (int) start + length;
+        for (int index = (int) start; index < end; index++) {
+            visitor.visit(index / width, index % width);
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-public final class SoilInput {
+public final class SoilInput implements PlacedInput {
     private String type;
     private String name;
     private double mass;
@@ -23,5 +23,7 @@ public final class SoilInput {
     private double rootDensity;
     private double salinity;
     private List<PairInput> sections;
+    private List<SectionRangeInput> sectionRanges;
+    private List<SectionRunInput> sectionRuns;
 }
 
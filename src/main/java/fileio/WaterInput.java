@@ -9,7 +9,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-public class WaterInput {
+public class WaterInput implements PlacedInput {
     private String type;
     private String name;
     private double mass;
@@ -20,5 +20,7 @@ public class WaterInput {
     private double pH;
     private boolean isFrozen;
     private List<PairInput> sections;
+    private List<SectionRangeInput> sectionRanges;
+    private List<SectionRunInput> sectionRuns;
 }
 
@@ -0,0 +1,104 @@
+package fileio;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Rough size of the work described by an input file, read in a single streaming pass
+ * that only looks at the territory dimensions and at the command timestamps. The
+ * entities, the remaining command fields and every other value are skipped without
+ * being bound to objects.
+ */
+@Getter
+public final class WorkloadEstimate {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * Number of sections of all the simulations together
+     */
+    private long area;
+    private long commandCount;
+    private int firstTimestamp = Integer.MAX_VALUE;
+    private int lastTimestamp = Integer.MIN_VALUE;
+
+    /**
+     * Reads the estimate of the given input file
+     *
+     * @param file the input file
+     * @throws IOException if the file cannot be read or is not a JSON object
+     */
+    public WorkloadEstimate(final File file) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object in " + file);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                if (field.equals("simulationParams") && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readSimulation(parser);
+                    }
+                } else if (field.equals("commands") && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readCommand(parser);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated cost, the territory area times the timestamp span times
+     * the number of commands. Only the order of the costs of different files matters.
+     *
+     * @return the estimated cost, 0 for a file without commands
+     */
+    public double getCost() {
+        if (commandCount == 0) {
+            return 0;
+        }
+        // Commands without an integer timestamp count as a single timestamp
+        long span = lastTimestamp >= firstTimestamp
+                ? (long) lastTimestamp - firstTimestamp + 1 : 1;
+        return (double) Math.max(area, 1) * span * commandCount;
+    }
+
+    private void readSimulation(final JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (field.equals("territoryDim") && token == JsonToken.VALUE_STRING) {
+                String[] dimTokens = parser.getText().split("x");
+                area += (long) Integer.parseInt(dimTokens[0].trim())
+                        * Integer.parseInt(dimTokens[1].trim());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readCommand(final JsonParser parser) throws IOException {
+        commandCount++;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (field.equals("timestamp") && token == JsonToken.VALUE_NUMBER_INT) {
+                int timestamp = parser.getIntValue();
+                firstTimestamp = Math.min(firstTimestamp, timestamp);
+                lastTimestamp = Math.max(lastTimestamp, timestamp);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package fileio;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Writes seeded input files of any size, for benchmarks and soak tests. The file is
+ * streamed to a {@link JsonGenerator} and nothing proportional to the territory or to
+ * the command count is kept in memory.
+ *
+ * <p>The entities are placed as runs of sections. The content of a section is derived
+ * from a hash of the seed and its position, so the runs of each entity are found by a
+ * pass over the territory that needs no state from the previous passes.</p>
+ */
+public final class WorkloadGenerator {
+
+    private static final int SOIL_LAYER = 1;
+    private static final int AIR_LAYER = 2;
+    private static final int PLANT_LAYER = 3;
+    private static final int ANIMAL_LAYER = 4;
+    private static final int WATER_LAYER = 5;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long MIX_1 = 0xBF58476D1CE4E5B9L;
+    private static final long MIX_2 = 0x94D049BB133111EBL;
+    private static final int SHIFT_1 = 30;
+    private static final int SHIFT_2 = 27;
+    private static final int SHIFT_3 = 31;
+    private static final int MANTISSA_SHIFT = 11;
+    private static final double UNIT = 0x1.0p-53;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double MAX_MASS = 50;
+    private static final double FROZEN_PROBABILITY = 0.2;
+
+    private static final Range[] SOIL_RANGES = {
+        new Range("nitrogen", 0, 10),
+        new Range("waterRetention", 0, 60),
+        new Range("soilpH", 4, 8),
+        new Range("organicMatter", 0, 10),
+        new Range("leafLitter", 0, 20),
+        new Range("waterLogging", 0, 10),
+        new Range("permafrostDepth", 0, 60),
+        new Range("rootDensity", 0, 60),
+        new Range("salinity", 0, 20),
+    };
+    private static final Range[] AIR_RANGES = {
+        new Range("humidity", 0, 80),
+        new Range("temperature", -30, 40),
+        new Range("oxygenLevel", 10, 30),
+        new Range("altitude", 0, 3000),
+        new Range("pollenLevel", 0, 50),
+        new Range("co2Level", 0, 500),
+        new Range("iceCrystalConcentration", 0, 50),
+        new Range("dustParticles", 0, 50),
+    };
+    private static final Range[] WATER_RANGES = {
+        new Range("purity", 0, 100),
+        new Range("salinity", 0, 300),
+        new Range("turbidity", 0, 100),
+        new Range("contaminantIndex", 0, 100),
+        new Range("pH", 5, 9),
+    };
+    private static final Range RAINFALL = new Range("rainfall", 0, 50);
+    private static final Range WIND_SPEED = new Range("windSpeed", 0, 80);
+    private static final int MAX_HIKERS = 100;
+    private static final double CENTS = 100;
+
+    private static final String[] WEATHER_TYPES =
+            {"rainfall", "polarStorm", "newSeason", "desertStorm", "peopleHiking"};
+    private static final String[] SCAN_FLAVORS = {"water", "plant", "animal"};
+    private static final String[] SUBJECTS =
+            {"Method to preserve it", "Method to improve its habitat", "Natural habitat"};
+    private static final String[] IMPROVEMENTS =
+            {"plantVegetation", "fertilizeSoil", "increaseHumidity", "increaseMoisture"};
+    private static final String[] SEASONS = {"Spring", "Autumn"};
+
+    /**
+     * Relative frequency of every generated command
+     */
+    private static final Map<String, Integer> COMMAND_WEIGHTS = Map.of(
+            "moveRobot", 6,
+            "scanObject", 6,
+            "learnFact", 3,
+            "improveEnvironment", 3,
+            "changeWeatherConditions", 2,
+            "rechargeBattery", 1,
+            "getEnergyStatus", 1);
+
+    private final WorkloadSpec spec;
+    private final String[] commandPool;
+
+    /**
+     * Creates a generator for the given parameters
+     *
+     * @param spec the workload parameters
+     * @throws IllegalArgumentException if the parameters cannot describe a valid input
+     */
+    public WorkloadGenerator(final WorkloadSpec spec) {
+        if (spec.getWidth() <= 0 || spec.getHeight() <= 0
+                || (long) spec.getWidth() * spec.getHeight() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported territory: "
+                    + spec.getWidth() + "x" + spec.getHeight());
+        }
+        if (spec.getPatch() <= 0 || spec.getMaxGap() <= 0 || spec.getMaxJump() <= 0) {
+            throw new IllegalArgumentException("Patch and timestamp gaps must be positive");
+        }
+        // Timestamps keep growing across simulations, by at most the largest step each
+        long commands = (long) spec.getSimulations() * (spec.getCommandsPerSimulation() + 2);
+        if (commands * Math.max(spec.getMaxGap(), spec.getMaxJump()) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The timestamps of " + commands
+                    + " commands may overflow; lower the commands or the timestamp gaps");
+        }
+        if (total(spec.getSoilWeights()) <= 0 || total(spec.getAirWeights()) <= 0) {
+            throw new IllegalArgumentException("Every section needs a soil and an air");
+        }
+        if (total(spec.getPlantDensities()) > 1 || total(spec.getAnimalDensities()) > 1
+                || total(spec.getWaterDensities()) > 1) {
+            throw new IllegalArgumentException(
+                    "The densities of the entities of one kind add up to more than 1");
+        }
+        this.spec = spec;
+
+        List<String> pool = new ArrayList<>();
+        COMMAND_WEIGHTS.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    for (int i = 0; i < entry.getValue(); i++) {
+                        pool.add(entry.getKey());
+                    }
+                });
+        this.commandPool = pool.toArray(new String[0]);
+    }
+
+    /**
+     * Writes the input file to the given path
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(final Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path),
+                BUFFER_SIZE)) {
+            write(out);
+        }
+    }
+
+    /**
+     * Writes the input file to the given stream, leaving it open
+     *
+     * @param out the stream receiving the file
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(final OutputStream out) throws IOException {
+        JsonFactory factory = new JsonFactory();
+        factory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+
+            generator.writeArrayFieldStart("simulationParams");
+            for (int simulation = 0; simulation < spec.getSimulations(); simulation++) {
+                writeSimulation(generator, spec.getSeed() + simulation);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("commands");
+            SplittableRandom random = new SplittableRandom(spec.getSeed());
+            int timestamp = 0;
+            for (int simulation = 0; simulation < spec.getSimulations(); simulation++) {
+                timestamp = writeCommands(generator, random, timestamp);
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeSimulation(final JsonGenerator generator, final long seed)
+            throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        generator.writeStartObject();
+        generator.writeStringField("territoryDim", spec.getWidth() + "x" + spec.getHeight());
+        generator.writeNumberField("energyPoints", spec.getEnergyPoints());
+        generator.writeObjectFieldStart("territorySectionParams");
+
+        generator.writeArrayFieldStart("soil");
+        for (String type : spec.getSoilWeights().keySet()) {
+            if (spec.getSoilWeights().get(type) > 0) {
+                writeHeader(generator, random, type);
+                writeFields(generator, random, SOIL_RANGES);
+                writeRuns(generator, seed, SOIL_LAYER, spec.getSoilWeights(), type);
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("air");
+        for (String type : spec.getAirWeights().keySet()) {
+            if (spec.getAirWeights().get(type) > 0) {
+                writeHeader(generator, random, type);
+                writeFields(generator, random, AIR_RANGES);
+                writeRuns(generator, seed, AIR_LAYER, spec.getAirWeights(), type);
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("plants");
+        for (String type : spec.getPlantDensities().keySet()) {
+            if (spec.getPlantDensities().get(type) > 0) {
+                writeHeader(generator, random, type);
+                writeRuns(generator, seed, PLANT_LAYER, spec.getPlantDensities(), type);
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("animals");
+        for (String type : spec.getAnimalDensities().keySet()) {
+            if (spec.getAnimalDensities().get(type) > 0) {
+                writeHeader(generator, random, type);
+                writeRuns(generator, seed, ANIMAL_LAYER, spec.getAnimalDensities(), type);
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("water");
+        for (String type : spec.getWaterDensities().keySet()) {
+            if (spec.getWaterDensities().get(type) > 0) {
+                writeHeader(generator, random, type);
+                writeFields(generator, random, WATER_RANGES);
+                generator.writeBooleanField("isFrozen",
+                        random.nextDouble() < FROZEN_PROBABILITY);
+                writeRuns(generator, seed, WATER_LAYER, spec.getWaterDensities(), type);
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Opens the object of an entity and writes the fields shared by every kind
+     */
+    private static void writeHeader(final JsonGenerator generator,
+                                    final SplittableRandom random,
+                                    final String type) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeStringField("name", type);
+        generator.writeNumberField("mass", round(random.nextDouble(1, MAX_MASS)));
+    }
+
+    /**
+     * Writes a number field for every range, drawn uniformly from the range
+     */
+    private static void writeFields(final JsonGenerator generator,
+                                    final SplittableRandom random,
+                                    final Range[] ranges) throws IOException {
+        for (Range range : ranges) {
+            generator.writeNumberField(range.field,
+                    round(random.nextDouble(range.min, range.max)));
+        }
+    }
+
+    /**
+     * Writes the runs of sections holding the given type, in storage order, and closes
+     * the object of the entity
+     */
+    private void writeRuns(final JsonGenerator generator, final long seed, final int layer,
+                           final Map<String, Double> densities, final String type)
+            throws IOException {
+        int width = spec.getWidth();
+        int height = spec.getHeight();
+        boolean everySection = layer == SOIL_LAYER || layer == AIR_LAYER;
+        int patch = everySection ? spec.getPatch() : 1;
+        double[] bounds = bounds(densities, type, everySection);
+
+        generator.writeArrayFieldStart("sectionRuns");
+        int runStart = -1;
+        int index = 0;
+        for (int x = 0; x < height; x++) {
+            for (int y = 0; y < width; y++, index++) {
+                long cell = (long) (x / patch) * width + y / patch;
+                double u = unit(seed, layer, cell);
+                boolean holds = u >= bounds[0] && u < bounds[1];
+                if (holds && runStart < 0) {
+                    runStart = index;
+                } else if (!holds && runStart >= 0) {
+                    writeRun(generator, runStart, index - runStart);
+                    runStart = -1;
+                }
+            }
+        }
+        if (runStart >= 0) {
+            writeRun(generator, runStart, index - runStart);
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    private void writeRun(final JsonGenerator generator, final int start, final int length)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("x", start / spec.getWidth());
+        generator.writeNumberField("y", start % spec.getWidth());
+        generator.writeNumberField("length", length);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Returns the interval of hash values selecting the given type. Weights are scaled
+     * so that they cover every section; densities are used as they are.
+     */
+    private static double[] bounds(final Map<String, Double> densities, final String type,
+                                   final boolean weights) {
+        double scale = weights ? 1 / total(densities) : 1;
+        double lower = 0;
+        for (Map.Entry<String, Double> entry : densities.entrySet()) {
+            double upper = lower + Math.max(entry.getValue(), 0);
+            if (entry.getKey().equals(type)) {
+                return new double[] {lower * scale, upper * scale};
+            }
+            lower = upper;
+        }
+        throw new IllegalArgumentException("Unknown type: " + type);
+    }
+
+    private static double total(final Map<String, Double> densities) {
+        double total = 0;
+        for (double density : densities.values()) {
+            total += Math.max(density, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Hashes a cell of a layer to a value uniformly distributed in [0, 1)
+     */
+    private static double unit(final long seed, final int layer, final long cell) {
+        long z = seed * GOLDEN_GAMMA + layer * MIX_2 + cell * MIX_1;
+        z = (z ^ (z >>> SHIFT_1)) * MIX_1;
+        z = (z ^ (z >>> SHIFT_2)) * MIX_2;
+        z ^= z >>> SHIFT_3;
+        return (z >>> MANTISSA_SHIFT) * UNIT;
+    }
+
+    /**
+     * Rounds a value to two decimals, as written by hand in the sample inputs
+     */
+    private static double round(final double value) {
+        return Math.round(value * CENTS) / CENTS;
+    }
+
+    /**
+     * Writes the commands of one simulation, from its start to its end
+     *
+     * @return the timestamp of the last command
+     */
+    private int writeCommands(final JsonGenerator generator, final SplittableRandom random,
+                              final int lastTimestamp) throws IOException {
+        List<String> names = new ArrayList<>();
+        addPresent(names, spec.getPlantDensities());
+        addPresent(names, spec.getAnimalDensities());
+        addPresent(names, spec.getWaterDensities());
+
+        int timestamp = nextTimestamp(random, lastTimestamp);
+        writeCommand(generator, "startSimulation", timestamp);
+        generator.writeEndObject();
+
+        for (int i = 0; i < spec.getCommandsPerSimulation(); i++) {
+            timestamp = nextTimestamp(random, timestamp);
+            String command = commandPool[random.nextInt(commandPool.length)];
+            writeCommand(generator, command, timestamp);
+            switch (command) {
+                case "scanObject" -> writeScan(generator, random);
+                case "learnFact" -> {
+                    generator.writeStringField("components", pick(random, names));
+                    generator.writeStringField("subject",
+                            SUBJECTS[random.nextInt(SUBJECTS.length)]);
+                }
+                case "improveEnvironment" -> {
+                    generator.writeStringField("improvementType",
+                            IMPROVEMENTS[random.nextInt(IMPROVEMENTS.length)]);
+                    generator.writeStringField("name", pick(random, names));
+                }
+                case "changeWeatherConditions" -> writeWeather(generator, random);
+                case "rechargeBattery" -> generator.writeNumberField("timeToCharge",
+                        1 + random.nextInt(spec.getMaxGap()));
+                default -> {
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        timestamp = nextTimestamp(random, timestamp);
+        writeCommand(generator, "endSimulation", timestamp);
+        generator.writeEndObject();
+        return timestamp;
+    }
+
+    private static void addPresent(final List<String> names,
+                                   final Map<String, Double> densities) {
+        densities.forEach((type, density) -> {
+            if (density > 0) {
+                names.add(type);
+            }
+        });
+    }
+
+    private static String pick(final SplittableRandom random, final List<String> names) {
+        return names.isEmpty() ? "none" : names.get(random.nextInt(names.size()));
+    }
+
+    /**
+     * Moves past the last timestamp, usually by a few steps and sometimes by a jump
+     */
+    private int nextTimestamp(final SplittableRandom random, final int timestamp) {
+        if (random.nextDouble() < spec.getJumpProbability()) {
+            return timestamp + 1 + random.nextInt(spec.getMaxJump());
+        }
+        return timestamp + 1 + random.nextInt(spec.getMaxGap());
+    }
+
+    /**
+     * Opens the object of a command
+     */
+    private static void writeCommand(final JsonGenerator generator, final String command,
+                                     final int timestamp) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("command", command);
+        generator.writeNumberField("timestamp", timestamp);
+    }
+
+    /**
+     * Writes the clues of a scan aimed at water, a plant or an animal
+     */
+    private static void writeScan(final JsonGenerator generator, final SplittableRandom random)
+            throws IOException {
+        String flavor = SCAN_FLAVORS[random.nextInt(SCAN_FLAVORS.length)];
+        generator.writeStringField("color", flavor.equals("water") ? "none" : "green");
+        generator.writeStringField("smell", flavor.equals("water") ? "none" : "earthy");
+        generator.writeStringField("sound", flavor.equals("animal") ? "growl" : "none");
+    }
+
+    private static void writeWeather(final JsonGenerator generator,
+                                     final SplittableRandom random) throws IOException {
+        String type = WEATHER_TYPES[random.nextInt(WEATHER_TYPES.length)];
+        generator.writeStringField("type", type);
+        switch (type) {
+            case "rainfall" -> writeFields(generator, random, new Range[] {RAINFALL});
+            case "polarStorm" -> writeFields(generator, random, new Range[] {WIND_SPEED});
+            case "newSeason" -> generator.writeStringField("season",
+                    SEASONS[random.nextInt(SEASONS.length)]);
+            case "desertStorm" -> generator.writeBooleanField("desertStorm",
+                    random.nextBoolean());
+            default -> generator.writeNumberField("numberOfHikers",
+                    random.nextInt(MAX_HIKERS));
+        }
+    }
+
+    /**
+     * Writes an input file described by {@code key=value} arguments, see
+     * {@link WorkloadSpec#apply(String)}
+     *
+     * @param args the output path followed by the parameters
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: WorkloadGenerator OUTPUT [key=value ...]");
+            return;
+        }
+        WorkloadSpec spec = new WorkloadSpec();
+        for (int i = 1; i < args.length; i++) {
+            spec.apply(args[i]);
+        }
+        new WorkloadGenerator(spec).write(Path.of(args[0]));
+    }
+
+    /**
+     * Interval from which the value of a numeric field is drawn
+     */
+    private static final class Range {
+        private final String field;
+        private final double min;
+        private final double max;
+
+        Range(final String field, final double min, final double max) {
+            this.field = field;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package fileio;
+
+import lombok.Data;
+import model.entities.AnimalType;
+import model.entities.PlantType;
+import model.entities.air.AirType;
+import model.entities.soil.SoilType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parameters of a synthetic workload written by {@link WorkloadGenerator}. Every
+ * section gets a soil and an air, picked with the given weights; each plant, animal
+ * and water type is placed on a section with its own probability.
+ */
+@Data
+public final class WorkloadSpec {
+    private static final double DEFAULT_PLANT_DENSITY = 0.06;
+    private static final double DEFAULT_ANIMAL_DENSITY = 0.02;
+    private static final double DEFAULT_WATER_DENSITY = 0.1;
+    private static final int DEFAULT_SIZE = 100;
+    private static final int DEFAULT_ENERGY_POINTS = 1000;
+    private static final int DEFAULT_COMMANDS = 10000;
+    private static final int DEFAULT_MAX_GAP = 3;
+    private static final double DEFAULT_JUMP_PROBABILITY = 0.01;
+    private static final int DEFAULT_MAX_JUMP = 1000;
+
+    private long seed = 1;
+    private int width = DEFAULT_SIZE;
+    private int height = DEFAULT_SIZE;
+    private int energyPoints = DEFAULT_ENERGY_POINTS;
+
+    /**
+     * Side of the square patches sharing one soil and one air
+     */
+    private int patch = 1;
+
+    private Map<String, Double> soilWeights = new LinkedHashMap<>();
+    private Map<String, Double> airWeights = new LinkedHashMap<>();
+    private Map<String, Double> plantDensities = new LinkedHashMap<>();
+    private Map<String, Double> animalDensities = new LinkedHashMap<>();
+    private Map<String, Double> waterDensities = new LinkedHashMap<>();
+
+    private int simulations = 1;
+    private int commandsPerSimulation = DEFAULT_COMMANDS;
+
+    /**
+     * Largest gap between consecutive timestamps, outside of jumps
+     */
+    private int maxGap = DEFAULT_MAX_GAP;
+
+    /**
+     * Probability of a command being separated from the previous one by a jump
+     */
+    private double jumpProbability = DEFAULT_JUMP_PROBABILITY;
+    private int maxJump = DEFAULT_MAX_JUMP;
+
+    /**
+     * Creates a specification in which every type is used
+     */
+    public WorkloadSpec() {
+        for (SoilType type : SoilType.values()) {
+            soilWeights.put(type.getTypeName(), 1.0);
+        }
+        for (AirType type : AirType.values()) {
+            airWeights.put(type.getTypeName(), 1.0);
+        }
+        for (PlantType type : PlantType.values()) {
+            if (type != PlantType.UNKNOWN) {
+                plantDensities.put(type.getTypeName(), DEFAULT_PLANT_DENSITY);
+            }
+        }
+        for (AnimalType type : AnimalType.values()) {
+            if (type != AnimalType.UNKNOWN) {
+                animalDensities.put(type.getTypeName(), DEFAULT_ANIMAL_DENSITY);
+            }
+        }
+        for (String type : new String[] {"lake", "river", "pond"}) {
+            waterDensities.put(type, DEFAULT_WATER_DENSITY);
+        }
+    }
+
+    /**
+     * Sets a parameter from a {@code key=value} argument. The territory is given as
+     * {@code territoryDim=WIDTHxHEIGHT}; the weight or density of a single type as
+     * {@code soil.TYPE}, {@code air.TYPE}, {@code plant.TYPE}, {@code animal.TYPE} or
+     * {@code water.TYPE}, where a weight or density of 0 leaves the type out.
+     *
+     * @param argument the argument to apply
+     * @throws IllegalArgumentException if the argument is malformed or unknown
+     */
+    public void apply(final String argument) {
+        int separator = argument.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Expected key=value: " + argument);
+        }
+        String key = argument.substring(0, separator);
+        String value = argument.substring(separator + 1);
+
+        int dot = key.indexOf('.');
+        if (dot >= 0) {
+            String type = key.substring(dot + 1);
+            double density = Double.parseDouble(value);
+            switch (key.substring(0, dot)) {
+                case "soil" -> putType(soilWeights, type, density);
+                case "air" -> putType(airWeights, type, density);
+                case "plant" -> putType(plantDensities, type, density);
+                case "animal" -> putType(animalDensities, type, density);
+                case "water" -> waterDensities.put(type, density);
+                default -> throw new IllegalArgumentException("Unknown parameter: " + key);
+            }
+            return;
+        }
+
+        switch (key) {
+            case "seed" -> seed = Long.parseLong(value);
+            case "territoryDim" -> {
+                String[] dimTokens = value.split("x");
+                width = Integer.parseInt(dimTokens[0]);
+                height = Integer.parseInt(dimTokens[1]);
+            }
+            case "energyPoints" -> energyPoints = Integer.parseInt(value);
+            case "patch" -> patch = Integer.parseInt(value);
+            case "simulations" -> simulations = Integer.parseInt(value);
+            case "commands" -> commandsPerSimulation = Integer.parseInt(value);
+            case "maxGap" -> maxGap = Integer.parseInt(value);
+            case "jumpProbability" -> jumpProbability = Double.parseDouble(value);
+            case "maxJump" -> maxJump = Integer.parseInt(value);
+            default -> throw new IllegalArgumentException("Unknown parameter: " + key);
+        }
+    }
+
+    /**
+     * Replaces the weight or density of a known type
+     */
+    private static void putType(final Map<String, Double> densities, final String type,
+                                final double density) {
+        if (!densities.containsKey(type)) {
+            throw new IllegalArgumentException("Unknown type: " + type);
+        }
+        densities.put(type, density);
+    }
+}
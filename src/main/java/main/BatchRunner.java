@@ -0,0 +1,298 @@
+package main;
+
+import fileio.WorkloadEstimate;
+import simulation.MetricsRegistry;
+import simulation.SimulationManager;
+import simulation.TraceRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Entry point running many input files in a single JVM, so that startup and warmup
+ * are paid once. The files run concurrently on a work-stealing pool, the most
+ * expensive ones first, as estimated by {@link WorkloadEstimate}, so that no large
+ * file is left to run alone at the end. Since the files already keep every processor
+ * busy, each file runs its simulations one at a time, unless
+ * {@link SimulationManager#PARALLELISM_PROPERTY} is set, in which case every file runs
+ * that many simulations on its own pool.
+ *
+ * <p>Usage: {@code BatchRunner INPUT_DIR OUTPUT_DIR}, running every JSON file of the
+ * input directory into a file of the same name in the output directory, or
+ * {@code BatchRunner MANIFEST}, where every line of the manifest holds an input and an
+ * output path, relative to the manifest. Blank lines and lines starting with
+ * {@code #} are ignored.
+ */
+public final class BatchRunner {
+
+    /**
+     * System property overriding the number of files run at the same time, which
+     * defaults to the number of available processors
+     */
+    public static final String PARALLELISM_PROPERTY = "terrabot.batch.parallelism";
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final List<Job> jobs;
+    private final int parallelism;
+
+    /**
+     * Number of simulations every file runs at the same time
+     */
+    private final int simulationParallelism;
+    private final MetricsRegistry metrics;
+    private final TraceRecorder trace;
+
+    /**
+     * Total time of the last {@link #run()}, from the first file started
+     */
+    private long wallNanos;
+
+    /**
+     * Creates a runner for the given pairs of input and output files
+     *
+     * @param pairs       the input and output path of every file
+     * @param parallelism the number of files run at the same time
+     * @param simulationParallelism the number of simulations every file runs at the
+     *                              same time
+     * @param metrics     the registry shared by the runs of all the files
+     * @param trace       the recorder shared by the runs of all the files
+     */
+    public BatchRunner(final List<Path[]> pairs, final int parallelism,
+                       final int simulationParallelism,
+                       final MetricsRegistry metrics, final TraceRecorder trace) {
+        this.jobs = new ArrayList<>(pairs.size());
+        for (Path[] pair : pairs) {
+            jobs.add(new Job(pair[0], pair[1]));
+        }
+        this.parallelism = parallelism;
+        this.simulationParallelism = simulationParallelism;
+        this.metrics = metrics;
+        this.trace = trace;
+    }
+
+    /**
+     * Runs a batch, prints the timings of every file and writes the metrics and trace
+     * reports if they were requested
+     *
+     * @param args an input and an output directory, or a manifest
+     * @throws IOException if the files cannot be listed or a report cannot be written
+     * @throws InterruptedException if interrupted while waiting for the files
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        List<Path[]> pairs;
+        if (args.length == 2) {
+            pairs = fromDirectory(Path.of(args[0]), Path.of(args[1]));
+        } else if (args.length == 1) {
+            pairs = fromManifest(Path.of(args[0]));
+        } else {
+            System.err.println("Usage: BatchRunner INPUT_DIR OUTPUT_DIR | BatchRunner MANIFEST");
+            return;
+        }
+
+        // One pool per file on top of the pool running the files would oversubscribe
+        int simulationParallelism =
+                Integer.getInteger(SimulationManager.PARALLELISM_PROPERTY, 1);
+
+        MetricsRegistry metrics = MetricsRegistry.fromSystemProperty();
+        TraceRecorder trace = TraceRecorder.fromSystemProperty();
+        BatchRunner runner = new BatchRunner(pairs, Integer.getInteger(PARALLELISM_PROPERTY,
+                Runtime.getRuntime().availableProcessors()), simulationParallelism,
+                metrics, trace);
+
+        runner.run();
+        runner.printReport(System.out);
+
+        if (metrics.isEnabled()) {
+            metrics.writeReport(new File(System.getProperty(MetricsRegistry.PROPERTY)));
+        }
+        if (trace.isEnabled()) {
+            trace.writeTrace(new File(System.getProperty(TraceRecorder.PROPERTY)));
+        }
+        if (runner.getFailures() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Pairs every JSON file of a directory with a file of the same name in another one
+     *
+     * @param inputDir  the directory holding the input files
+     * @param outputDir the directory receiving the output files
+     * @return the pairs, sorted by input name
+     * @throws IOException if the input directory cannot be listed
+     */
+    public static List<Path[]> fromDirectory(final Path inputDir, final Path outputDir)
+            throws IOException {
+        List<Path[]> pairs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(inputDir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .forEach(file -> pairs.add(new Path[] {file,
+                            outputDir.resolve(file.getFileName())}));
+        }
+        return pairs;
+    }
+
+    /**
+     * Reads the pairs of a manifest
+     *
+     * @param manifest the manifest, holding an input and an output path on every line
+     * @return the pairs, in the order of the manifest
+     * @throws IOException if the manifest cannot be read or a line is malformed
+     */
+    public static List<Path[]> fromManifest(final Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<Path[]> pairs = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(manifest)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] paths = trimmed.split("\\s+");
+            if (paths.length != 2) {
+                throw new IOException(manifest + ":" + lineNumber
+                        + ": expected an input and an output path");
+            }
+            pairs.add(new Path[] {base.resolve(paths[0]), base.resolve(paths[1])});
+        }
+        return pairs;
+    }
+
+    /**
+     * Estimates the cost of every file, then runs them from the most to the least
+     * expensive. A file that fails does not stop the others.
+     *
+     * @throws InterruptedException if interrupted while waiting for the files
+     */
+    public void run() throws InterruptedException {
+        ExecutorService executor = Executors.newWorkStealingPool(parallelism);
+        try {
+            List<Future<?>> estimates = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                estimates.add(executor.submit(job::estimate));
+            }
+            awaitAll(estimates);
+
+            List<Job> byCost = new ArrayList<>(jobs);
+            byCost.sort(Comparator.comparingDouble((Job job) -> job.cost).reversed());
+
+            long batchStart = System.nanoTime();
+            List<Future<?>> runs = new ArrayList<>(byCost.size());
+            for (Job job : byCost) {
+                runs.add(executor.submit(() -> job.run(batchStart)));
+            }
+            awaitAll(runs);
+            wallNanos = System.nanoTime() - batchStart;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of files whose run failed
+     *
+     * @return the number of failed files
+     */
+    public int getFailures() {
+        int failures = 0;
+        for (Job job : jobs) {
+            if (job.error != null) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Prints the estimated cost, the time spent waiting for a thread and the run time
+     * of every file, in the order they were given, followed by the totals
+     *
+     * @param out the stream receiving the report
+     */
+    public void printReport(final PrintStream out) {
+        out.printf("%-6s %12s %10s %10s  %s%n", "status", "cost", "waitMs", "runMs", "input");
+        long runNanos = 0;
+        for (Job job : jobs) {
+            out.printf("%-6s %12.3g %10.1f %10.1f  %s%n", job.error == null ? "ok" : "failed",
+                    job.cost, job.waitNanos / NANOS_PER_MILLI, job.runNanos / NANOS_PER_MILLI,
+                    job.input);
+            if (job.error != null) {
+                out.println("       " + job.error);
+            }
+            runNanos += job.runNanos;
+        }
+        out.printf("%d files, %d failed, %d threads, wall %.1f ms, run %.1f ms%n",
+                jobs.size(), getFailures(), parallelism, wallNanos / NANOS_PER_MILLI,
+                runNanos / NANOS_PER_MILLI);
+    }
+
+    private static void awaitAll(final List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // Jobs catch their own failures, anything else is a bug
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * A single input file, with its estimated cost and its timings
+     */
+    private final class Job {
+        private final Path input;
+        private final Path output;
+        private double cost;
+        private long waitNanos;
+        private long runNanos;
+
+        /**
+         * Message of the failure of the run, null if it succeeded
+         */
+        private String error;
+
+        Job(final Path input, final Path output) {
+            this.input = input;
+            this.output = output;
+        }
+
+        void estimate() {
+            try {
+                cost = new WorkloadEstimate(input.toFile()).getCost();
+            } catch (IOException | RuntimeException e) {
+                // Unreadable files are cheap, their run only reports the failure
+                cost = 0;
+            }
+        }
+
+        void run(final long batchStart) {
+            long start = System.nanoTime();
+            long traceStart = trace.start();
+            waitNanos = start - batchStart;
+            try {
+                Main.action(input.toString(), output.toString(), metrics, trace,
+                        simulationParallelism);
+            } catch (IOException | RuntimeException e) {
+                error = e.toString();
+            }
+            runNanos = System.nanoTime() - start;
+            trace.record("file", "batch", traceStart);
+        }
+    }
+}
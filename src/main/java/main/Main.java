@@ -1,13 +1,19 @@
 package main;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import fileio.InputLoader;
+import simulation.MetricsRegistry;
+import simulation.TraceRecorder;
 import simulation.SimulationManager;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * The entry point to this homework. It runs the checker that tests your implementation.
@@ -27,21 +33,81 @@ public final class Main {
      */
     public static void action(final String inputPath,
                               final String outputPath) throws IOException {
+        MetricsRegistry metrics = MetricsRegistry.fromSystemProperty();
+        TraceRecorder trace = TraceRecorder.fromSystemProperty();
 
-        InputLoader inputLoader = new InputLoader(inputPath);
-        ArrayNode output;
+        action(inputPath, outputPath, metrics, trace);
 
-        SimulationManager simulationManager =
-                new SimulationManager(
-                        inputLoader.getSimulations(),
-                        inputLoader.getCommands(),
-                        MAPPER
-                );
+        if (metrics.isEnabled()) {
+            metrics.writeReport(new File(System.getProperty(MetricsRegistry.PROPERTY)));
+        }
+        if (trace.isEnabled()) {
+            trace.writeTrace(new File(System.getProperty(TraceRecorder.PROPERTY)));
+        }
+    }
+
+    /**
+     * Runs a single input file, recording into the given registry and recorder without
+     * writing their reports, so that several runs can share them
+     *
+     * @param inputPath input file path
+     * @param outputPath output file path
+     * @param metrics the registry receiving the metrics of the run
+     * @param trace the recorder receiving the spans of the run
+     * @throws IOException when files cannot be loaded.
+     */
+    public static void action(final String inputPath, final String outputPath,
+                              final MetricsRegistry metrics,
+                              final TraceRecorder trace) throws IOException {
+        action(inputPath, outputPath, metrics, trace, SimulationManager.defaultParallelism());
+    }
 
-        output = simulationManager.runAll();
+    /**
+     * Runs a single input file with the given number of simulations running at the
+     * same time, recording into the given registry and recorder without writing their
+     * reports, so that several runs can share them
+     *
+     * @param inputPath input file path
+     * @param outputPath output file path
+     * @param metrics the registry receiving the metrics of the run
+     * @param trace the recorder receiving the spans of the run
+     * @param parallelism the number of simulations run at the same time
+     * @throws IOException when files cannot be loaded.
+     */
+    public static void action(final String inputPath, final String outputPath,
+                              final MetricsRegistry metrics, final TraceRecorder trace,
+                              final int parallelism) throws IOException {
 
         File outputFile = new File(outputPath);
         outputFile.getParentFile().mkdirs();
-        WRITER.writeValue(outputFile, output);
+        long indexStart = trace.start();
+
+        // Write to a temporary file first, so that a failed run leaves no partial output
+        Path partFile = Files.createTempFile(outputFile.getParentFile().toPath(),
+                outputFile.getName(), ".part");
+        try {
+            try (InputLoader inputLoader = new InputLoader(inputPath);
+                 JsonGenerator generator = WRITER.createGenerator(partFile.toFile(),
+                         JsonEncoding.UTF8)) {
+                trace.record("indexInput", "input", indexStart);
+                SimulationManager simulationManager =
+                        new SimulationManager(
+                                inputLoader.getSimulations(),
+                                inputLoader.getCommands(),
+                                MAPPER,
+                                metrics,
+                                trace,
+                                parallelism
+                        );
+
+                simulationManager.runAll(generator);
+            }
+            Files.move(partFile, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partFile);
+        }
+
+        metrics.recordOutput(outputFile.length());
     }
 }
@@ -2,25 +2,17 @@ package model.entities;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Represents an animal in a territory section
  */
 @Data
-public class Animal implements EnvironmentEntity {
-
-    // Constants for attack possibility percentages
-    private static final int HERBIVORES_ATT_POSSIBILITY = 85;
-    private static final int CARNIVORES_ATT_POSSIBILITY = 30;
-    private static final int OMNIVORES_ATT_POSSIBILITY = 60;
-    private static final int DETRITIVORES_ATT_POSSIBILITY = 90;
-    private static final int PARASITES_ATT_POSSIBILITY = 10;
-    private static final int DEFAULT_ATT_POSSIBILITY = 0;
-
-    // Constants for damage calculation
-    private static final int MAX_POSSIBILITY = 100;
-    private static final double DMG_DIV = 10;
+public class Animal implements EnvironmentEntity, Cloneable {
 
     // Constants for mass rounding
     private static final double ROUNDING_FACTOR = 100;
@@ -29,6 +21,14 @@ public class Animal implements EnvironmentEntity {
     private String name;
     private double mass;
 
+    /**
+     * Type table entry, resolved from the type name when it is set
+     */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private AnimalType animalType = AnimalType.UNKNOWN;
+
     private boolean isActive = false;
     private int lastMoveTimestamp;
 
@@ -63,14 +63,39 @@ public class Animal implements EnvironmentEntity {
      */
     @Override
     public double calculateBlockingProbability() {
-        int possibilityAttack = switch (type) {
-            case "Herbivores" -> HERBIVORES_ATT_POSSIBILITY;
-            case "Carnivores" -> CARNIVORES_ATT_POSSIBILITY;
-            case "Omnivores" -> OMNIVORES_ATT_POSSIBILITY;
-            case "Detritivores" -> DETRITIVORES_ATT_POSSIBILITY;
-            case "Parasites" -> PARASITES_ATT_POSSIBILITY;
-            default -> DEFAULT_ATT_POSSIBILITY;
-        };
-        return (MAX_POSSIBILITY - possibilityAttack) / DMG_DIV;
+        return animalType.getBlockingProbability();
+    }
+
+    /**
+     * Sets the type name and resolves the matching type table entry
+     *
+     * @param type name of the animal type
+     */
+    public void setType(final String type) {
+        this.type = type;
+        this.animalType = AnimalType.fromName(type);
+    }
+
+    /**
+     * Indicates whether the animal eats the animals it runs into
+     *
+     * @return true for carnivores and parasites
+     */
+    public boolean isPredator() {
+        return animalType.isPredator();
+    }
+
+    /**
+     * Creates a copy of this animal, changed by a double-buffered tick while the
+     * original is still read
+     *
+     * @return a copy holding the same state
+     */
+    public Animal copy() {
+        try {
+            return (Animal) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,66 @@
+package model.entities;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Animal types, with the constants used by the animals of each type
+ */
+@Getter
+public enum AnimalType {
+    HERBIVORES("Herbivores", 85, false),
+    CARNIVORES("Carnivores", 30, true),
+    OMNIVORES("Omnivores", 60, false),
+    DETRITIVORES("Detritivores", 90, false),
+    PARASITES("Parasites", 10, true),
+
+    /**
+     * Any type not listed above
+     */
+    UNKNOWN(null, 0, false);
+
+    private static final int MAX_POSSIBILITY = 100;
+    private static final double DMG_DIV = 10;
+    private static final Map<String, AnimalType> BY_NAME = new HashMap<>();
+
+    static {
+        for (AnimalType type : values()) {
+            if (type.typeName != null) {
+                BY_NAME.put(type.typeName, type);
+            }
+        }
+    }
+
+    /**
+     * Name of the type in the input
+     */
+    private final String typeName;
+
+    /**
+     * Probability of the robot being blocked by an attack of the animal
+     */
+    private final double blockingProbability;
+
+    /**
+     * Whether the animal eats the animals it runs into
+     */
+    private final boolean predator;
+
+    AnimalType(final String typeName, final int attackPossibility, final boolean predator) {
+        this.typeName = typeName;
+        this.blockingProbability = (MAX_POSSIBILITY - attackPossibility) / DMG_DIV;
+        this.predator = predator;
+    }
+
+    /**
+     * Returns the animal type with the given name
+     *
+     * @param name name of the type in the input
+     * @return the matching type, {@link #UNKNOWN} if there is none
+     */
+    public static AnimalType fromName(final String name) {
+        return BY_NAME.getOrDefault(name, UNKNOWN);
+    }
+}
@@ -2,26 +2,17 @@ package model.entities;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Represents a plant in a territory section
  */
 @Data
-public class Plant implements EnvironmentEntity {
-
-    // Constants for attack possibility percentages
-    private static final int FLOWERING_PLANTS_STUCK_POSSIBILITY = 90;
-    private static final int GYMNOSPERMS_STUCK_POSSIBILITY = 60;
-    private static final int FERNS_STUCK_POSSIBILITY = 30;
-    private static final int MOSSES_STUCK_POSSIBILITY = 40;
-    private static final int ALGAE_STUCK_POSSIBILITY = 20;
-    private static final double POSSIBILITY_DIV = 100;
-
-    // Constants for oxygen production
-    private static final double FLOWERING_PLANTS_BASE_OXYGEN = 6.0;
-    private static final double MOSSES_BASE_OXYGEN = 0.8;
-    private static final double ALGAE_BASE_OXYGEN = 0.5;
+public class Plant implements EnvironmentEntity, Cloneable {
 
     // Constants for growth and age
     private static final double INITIAL_AGE_SURPLUS = 0.2;
@@ -36,6 +27,14 @@ public class Plant implements EnvironmentEntity {
     private String name;
     private double mass;
 
+    /**
+     * Type table entry, resolved from the type name when it is set
+     */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private PlantType plantType = PlantType.UNKNOWN;
+
     private double growth = GROWTH_RESET;
     private double ageSurplus = INITIAL_AGE_SURPLUS;
     private boolean isActive = false;
@@ -58,6 +57,16 @@ public class Plant implements EnvironmentEntity {
         return entities;
     }
 
+    /**
+     * Sets the type name and resolves the matching type table entry
+     *
+     * @param type name of the plant type
+     */
+    public void setType(final String type) {
+        this.type = type;
+        this.plantType = PlantType.fromName(type);
+    }
+
     /**
      * Returns the chance that TerraBot gets stuck by the plant
      *
@@ -65,15 +74,7 @@ public class Plant implements EnvironmentEntity {
      */
     @Override
     public double calculateBlockingProbability() {
-        int possibilityStuck = switch (type) {
-            case "FloweringPlants" -> FLOWERING_PLANTS_STUCK_POSSIBILITY;
-            case "GymnospermsPlants" -> GYMNOSPERMS_STUCK_POSSIBILITY;
-            case "Ferns" -> FERNS_STUCK_POSSIBILITY;
-            case "Mosses" -> MOSSES_STUCK_POSSIBILITY;
-            case "Algae" -> ALGAE_STUCK_POSSIBILITY;
-            default -> 0;
-        };
-        return possibilityStuck / POSSIBILITY_DIV;
+        return plantType.getStuckProbability();
     }
 
     /**
@@ -82,13 +83,7 @@ public class Plant implements EnvironmentEntity {
      * @return produced oxygen
      */
     public double oxygenProduced() {
-        return switch (type) {
-            case "FloweringPlants" -> FLOWERING_PLANTS_BASE_OXYGEN + ageSurplus;
-            case "GymnospermsPlants", "Ferns" -> ageSurplus;
-            case "Mosses" -> MOSSES_BASE_OXYGEN + ageSurplus;
-            case "Algae" -> ALGAE_BASE_OXYGEN + ageSurplus;
-            default -> 0;
-        };
+        return plantType.isProducesOxygen() ? plantType.getBaseOxygen() + ageSurplus : 0;
     }
 
     /**
@@ -107,4 +102,18 @@ public class Plant implements EnvironmentEntity {
             growth = GROWTH_RESET;
         }
     }
+
+    /**
+     * Creates a copy of this plant, changed by a double-buffered tick while the
+     * original is still read
+     *
+     * @return a copy holding the same state
+     */
+    public Plant copy() {
+        try {
+            return (Plant) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package model.entities;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plant types, with the constants used by the plants of each type
+ */
+@Getter
+public enum PlantType {
+    FLOWERING_PLANTS("FloweringPlants", 90, 6.0, true),
+    GYMNOSPERMS_PLANTS("GymnospermsPlants", 60, 0, true),
+    FERNS("Ferns", 30, 0, true),
+    MOSSES("Mosses", 40, 0.8, true),
+    ALGAE("Algae", 20, 0.5, true),
+
+    /**
+     * Any type not listed above: never blocks the robot and produces no oxygen
+     */
+    UNKNOWN(null, 0, 0, false);
+
+    private static final double POSSIBILITY_DIV = 100;
+    private static final Map<String, PlantType> BY_NAME = new HashMap<>();
+
+    static {
+        for (PlantType type : values()) {
+            if (type.typeName != null) {
+                BY_NAME.put(type.typeName, type);
+            }
+        }
+    }
+
+    /**
+     * Name of the type in the input
+     */
+    private final String typeName;
+
+    /**
+     * Probability of the robot getting stuck in the plant
+     */
+    private final double stuckProbability;
+
+    /**
+     * Oxygen produced on top of the age surplus
+     */
+    private final double baseOxygen;
+
+    /**
+     * Whether the plant produces oxygen at all
+     */
+    private final boolean producesOxygen;
+
+    PlantType(final String typeName, final int stuckPossibility, final double baseOxygen,
+              final boolean producesOxygen) {
+        this.typeName = typeName;
+        this.stuckProbability = stuckPossibility / POSSIBILITY_DIV;
+        this.baseOxygen = baseOxygen;
+        this.producesOxygen = producesOxygen;
+    }
+
+    /**
+     * Returns the plant type with the given name
+     *
+     * @param name name of the type in the input
+     * @return the matching type, {@link #UNKNOWN} if there is none
+     */
+    public static PlantType fromName(final String name) {
+        return BY_NAME.getOrDefault(name, UNKNOWN);
+    }
+}
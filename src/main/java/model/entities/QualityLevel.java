@@ -0,0 +1,22 @@
+package model.entities;
+
+import lombok.Getter;
+
+/**
+ * Quality levels reported for the air and the soil of a section
+ */
+@Getter
+public enum QualityLevel {
+    GOOD("good"),
+    MODERATE("moderate"),
+    POOR("poor");
+
+    /**
+     * The message printed for the level
+     */
+    private final String message;
+
+    QualityLevel(final String message) {
+        this.message = message;
+    }
+}
@@ -8,7 +8,7 @@ import lombok.Data;
  * Represents water in a territory section
  */
 @Data
-public class Water implements EnvironmentEntity {
+public class Water implements EnvironmentEntity, Cloneable {
 
     // Constant for rounding
     private static final double ROUNDING_FACTOR = 100;
@@ -84,4 +84,18 @@ public class Water implements EnvironmentEntity {
                 + TURBIDITY_WEIGHT * turbidityScore + CONTAMINANT_WEIGHT * contaminantScore
                 + FROZEN_WEIGHT * frozenScore) * MAX_PERCENTAGE;
     }
+
+    /**
+     * Creates a copy of this water, changed by a double-buffered tick while the
+     * original is still read
+     *
+     * @return a copy holding the same state
+     */
+    public Water copy() {
+        try {
+            return (Water) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -2,15 +2,20 @@ package model.entities.air;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.CommandInput;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import model.entities.EnvironmentEntity;
+import model.entities.QualityLevel;
 
 /**
  * Abstract base class representing air conditions in a territory section.
  */
 @Data
-public abstract class Air implements EnvironmentEntity {
+public abstract class Air implements EnvironmentEntity, Cloneable {
 
     // Constants for clamping and rounding
     protected static final int MIN_VALUE = 0;
@@ -51,6 +56,171 @@ public abstract class Air implements EnvironmentEntity {
     protected double airQuality;
     protected double changedAirQuality;
 
+    /**
+     * Mutation version, bumped by every setter of a field the air quality depends on
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long version;
+
+    // Memoized air quality and toxicity, valid while their version matches the current one
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private double cachedQuality;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long qualityVersion = -1;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private double cachedToxicity;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long toxicityVersion = -1;
+
+    /**
+     * Whether this air is a template shared by several sections, which must not be
+     * modified; a section copies it before changing it
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean shared;
+
+    /**
+     * Turns this air into a template shared by several sections. Its derived scores
+     * are computed up front, so that reading them never writes to the template.
+     */
+    public void share() {
+        calculateQuality();
+        toxicityAQ();
+        shared = true;
+    }
+
+    /**
+     * Tells whether this air is a shared template, which sections copy before
+     * changing it
+     *
+     * @return true if this air must not be modified in place
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Creates a private copy of this air, given to a section that stops sharing it
+     *
+     * @return a copy that is not shared
+     */
+    public Air copy() {
+        try {
+            Air copy = (Air) super.clone();
+            copy.shared = false;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sets the humidity and invalidates the memoized quality
+     *
+     * @param humidity new humidity
+     */
+    public void setHumidity(final double humidity) {
+        this.humidity = humidity;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the temperature and invalidates the memoized quality
+     *
+     * @param temperature new temperature
+     */
+    public void setTemperature(final double temperature) {
+        this.temperature = temperature;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the oxygen level and invalidates the memoized quality
+     *
+     * @param oxygenLevel new oxygen level
+     */
+    public void setOxygenLevel(final double oxygenLevel) {
+        this.oxygenLevel = oxygenLevel;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the altitude and invalidates the memoized quality
+     *
+     * @param altitude new altitude
+     */
+    public void setAltitude(final double altitude) {
+        this.altitude = altitude;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the pollen level and invalidates the memoized quality
+     *
+     * @param pollenLevel new pollen level
+     */
+    public void setPollenLevel(final double pollenLevel) {
+        this.pollenLevel = pollenLevel;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the CO2 level and invalidates the memoized quality
+     *
+     * @param co2Level new CO2 level
+     */
+    public void setCo2Level(final double co2Level) {
+        this.co2Level = co2Level;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the ice crystal concentration and invalidates the memoized quality
+     *
+     * @param iceCrystalConcentration new ice crystal concentration
+     */
+    public void setIceCrystalConcentration(final double iceCrystalConcentration) {
+        this.iceCrystalConcentration = iceCrystalConcentration;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the dust particles level and invalidates the memoized quality
+     *
+     * @param dustParticles new dust particles level
+     */
+    public void setDustParticles(final double dustParticles) {
+        this.dustParticles = dustParticles;
+        fieldChanged();
+    }
+
+    /**
+     * Invalidates the memoized quality and toxicity. This is the only place that bumps
+     * the version: the fields they depend on are only written by the setters above,
+     * which all call it, while the subclasses only read them.
+     */
+    private void fieldChanged() {
+        version++;
+    }
+
     /**
      * Clamps a numeric value within {@link #MIN_VALUE} and {@link #MAX_VALUE} and rounds it
      *
@@ -64,11 +234,18 @@ public abstract class Air implements EnvironmentEntity {
 
     /**
      * Computes the current air quality score based on the air type and its properties.
-     * This method delegates to the type-specific implementation.
+     * This method delegates to the type-specific implementation, which only runs again
+     * after one of the underlying fields has changed.
      */
     public void calculateQuality() {
-        airQuality = calculateQualityInternal();
-        airQuality = clampAndRound(airQuality);
+        if (qualityVersion != version) {
+            cachedQuality = clampAndRound(calculateQualityInternal());
+            qualityVersion = version;
+        }
+        // Shared templates are only read, so the field is only written when it changes
+        if (airQuality != cachedQuality) {
+            airQuality = cachedQuality;
+        }
     }
 
     /**
@@ -95,21 +272,40 @@ public abstract class Air implements EnvironmentEntity {
     protected abstract void addTypeSpecificFields(ObjectNode entities, ObjectMapper mapper);
 
     /**
-     * Translates the numerical air quality into a message
+     * Translates the numerical air quality into a quality level
      *
-     * @return "good", "moderate" or "poor"
+     * @return the level the air quality falls in
      */
-    public String airQualityMessage() {
+    public QualityLevel airQualityLevel() {
         calculateQuality();
-        if (airQuality > GOOD_AIR_QUALITY) {
-            return "good";
-        } else if (airQuality > MODERATE_AIR_QUALITY) {
-            return "moderate";
+        return levelOf(airQuality);
+    }
+
+    /**
+     * Translates a numerical air quality into a quality level
+     *
+     * @param quality the air quality
+     * @return the level the air quality falls in
+     */
+    public static QualityLevel levelOf(final double quality) {
+        if (quality > GOOD_AIR_QUALITY) {
+            return QualityLevel.GOOD;
+        } else if (quality > MODERATE_AIR_QUALITY) {
+            return QualityLevel.MODERATE;
         } else {
-            return "poor";
+            return QualityLevel.POOR;
         }
     }
 
+    /**
+     * Translates the numerical air quality into a message
+     *
+     * @return "good", "moderate" or "poor"
+     */
+    public String airQualityMessage() {
+        return airQualityLevel().getMessage();
+    }
+
     /**
      * Serializes the air entity to JSON for printing purposes
      *
@@ -151,11 +347,14 @@ public abstract class Air implements EnvironmentEntity {
      */
     public double toxicityAQ() {
         calculateQuality();
-        int maxScore = getMaxScore();
-        double toxicity = TOXICITY_MUL * (1 - (airQuality / maxScore));
-        toxicity = clampAndRound(toxicity);
+        if (toxicityVersion != version) {
+            int maxScore = getMaxScore();
+            double toxicity = TOXICITY_MUL * (1 - (airQuality / maxScore));
+            cachedToxicity = clampAndRound(toxicity);
+            toxicityVersion = version;
+        }
 
-        return toxicity;
+        return cachedToxicity;
     }
 
     /**
@@ -171,22 +370,35 @@ public abstract class Air implements EnvironmentEntity {
     /**
      * Applies the effect of a weather-changing command to the current air
      *
-     * @param cmd command describing the requested change
+     * @param change the requested change
      * @return true if the air quality changed, false otherwise
      */
-    public boolean changeWeather(final CommandInput cmd) {
+    public boolean changeWeather(final WeatherChange change) {
         calculateQuality();
         double oldQuality = airQuality;
-        applyWeatherChange(cmd);
+        applyWeatherChange(change);
 
         // false -> if airQuality doesn't change; true -> if it changes
         return oldQuality != airQuality;
     }
 
     /**
-     * Applies a type-specific weather change and updates the air quality
+     * Applies a weather change and updates the air quality
+     *
+     * @param change the requested change
+     */
+    protected void applyWeatherChange(final WeatherChange change) {
+        airQuality = changedQuality(airQuality, change);
+    }
+
+    /**
+     * Computes the air quality that a type-specific weather change leaves behind. The
+     * result only depends on the given quality and the change, so it can be applied to
+     * qualities kept outside of an air object.
      *
-     * @param cmd weather-changing command
+     * @param quality the air quality before the change
+     * @param change the requested change
+     * @return the air quality after the change
      */
-    protected abstract void applyWeatherChange(CommandInput cmd);
+    public abstract double changedQuality(double quality, WeatherChange change);
 }
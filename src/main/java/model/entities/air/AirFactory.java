@@ -26,14 +26,7 @@ public final class AirFactory {
             throw new IllegalArgumentException("Air type cannot be null");
         }
 
-        return switch (type) {
-            case "TropicalAir" -> new TropicalAir();
-            case "PolarAir" -> new PolarAir();
-            case "TemperateAir" -> new TemperateAir();
-            case "DesertAir" -> new DesertAir();
-            case "MountainAir" -> new MountainAir();
-            default -> throw new IllegalArgumentException("Unknown air type: " + type);
-        };
+        return AirType.fromName(type).create();
     }
 
     /**
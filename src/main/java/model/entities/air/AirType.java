@@ -0,0 +1,63 @@
+package model.entities.air;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Air types, each one mapped to the class implementing it
+ */
+public enum AirType {
+    TROPICAL("TropicalAir", TropicalAir::new),
+    POLAR("PolarAir", PolarAir::new),
+    TEMPERATE("TemperateAir", TemperateAir::new),
+    DESERT("DesertAir", DesertAir::new),
+    MOUNTAIN("MountainAir", MountainAir::new);
+
+    private static final Map<String, AirType> BY_NAME = new HashMap<>();
+
+    static {
+        for (AirType type : values()) {
+            BY_NAME.put(type.typeName, type);
+        }
+    }
+
+    /**
+     * Name of the type in the input
+     */
+    @Getter
+    private final String typeName;
+
+    private final Supplier<Air> constructor;
+
+    AirType(final String typeName, final Supplier<Air> constructor) {
+        this.typeName = typeName;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Returns the air type with the given name
+     *
+     * @param name name of the type in the input
+     * @return the matching type
+     * @throws IllegalArgumentException if the type is not recognized
+     */
+    public static AirType fromName(final String name) {
+        AirType type = BY_NAME.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown air type: " + name);
+        }
+        return type;
+    }
+
+    /**
+     * Creates an empty air of this type
+     *
+     * @return a new instance of the class implementing the type
+     */
+    public Air create() {
+        return constructor.get();
+    }
+}
@@ -2,7 +2,6 @@ package model.entities.air;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.CommandInput;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -48,13 +47,25 @@ public class DesertAir extends Air {
     }
 
     /**
-     * Applies desert-specific weather change and updates the air quality
+     * Applies desert-specific weather change to the given air quality
      *
-     * @param command weather-changing command
+     * @param quality the air quality before the change
+     * @param change the requested change
+     * @return the air quality after the change
      */
     @Override
-    protected void applyWeatherChange(final CommandInput command) {
-        desertStorm = command.isDesertStorm();
-        airQuality -=  desertStorm ? DESERT_STORM_PENALTY : 0;
+    public double changedQuality(final double quality, final WeatherChange change) {
+        return quality - (change.isDesertStorm() ? DESERT_STORM_PENALTY : 0);
+    }
+
+    /**
+     * Records the desert storm, then updates the air quality
+     *
+     * @param change the requested change
+     */
+    @Override
+    protected void applyWeatherChange(final WeatherChange change) {
+        desertStorm = change.isDesertStorm();
+        super.applyWeatherChange(change);
     }
 }
@@ -2,7 +2,6 @@ package model.entities.air;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.CommandInput;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -47,12 +46,14 @@ public class PolarAir extends Air {
     }
 
     /**
-     * Applies polar-specific weather change and updates the air quality
+     * Applies polar-specific weather change to the given air quality
      *
-     * @param command weather-changing command
+     * @param quality the air quality before the change
+     * @param change the requested change
+     * @return the air quality after the change
      */
     @Override
-    protected void applyWeatherChange(final CommandInput command) {
-        airQuality -= command.getWindSpeed() * POLAR_STORM_WIND_MUL;
+    public double changedQuality(final double quality, final WeatherChange change) {
+        return quality - change.getWindSpeed() * POLAR_STORM_WIND_MUL;
     }
 }
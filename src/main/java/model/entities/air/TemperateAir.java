@@ -2,7 +2,6 @@ package model.entities.air;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.CommandInput;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -48,15 +47,14 @@ public class TemperateAir extends Air {
     }
 
     /**
-     * Applies temperate-specific weather change and updates the air quality
+     * Applies temperate-specific weather change to the given air quality
      *
-     * @param command weather-changing command
+     * @param quality the air quality before the change
+     * @param change the requested change
+     * @return the air quality after the change
      */
     @Override
-    protected void applyWeatherChange(final CommandInput command) {
-        if (command.getSeason() == null) {
-            return;
-        }
-        airQuality -= command.getSeason().equalsIgnoreCase("Spring") ? SPRING_SEASON_PENALTY : 0;
+    public double changedQuality(final double quality, final WeatherChange change) {
+        return quality - (change.isSpringSeason() ? SPRING_SEASON_PENALTY : 0);
     }
 }
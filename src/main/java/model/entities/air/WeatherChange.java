@@ -0,0 +1,22 @@
+package model.entities.air;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Parameters of a weather-changing command, decoded once before the change is applied
+ * to every air of the territory
+ */
+@Getter
+@AllArgsConstructor
+public final class WeatherChange {
+    private final double rainfall;
+    private final double windSpeed;
+    private final boolean desertStorm;
+    private final int numberOfHikers;
+
+    /**
+     * Whether the new season is spring
+     */
+    private final boolean springSeason;
+}
@@ -2,14 +2,20 @@ package model.entities.soil;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import model.entities.EnvironmentEntity;
+import model.entities.QualityLevel;
 
 /**
  * Abstract base class representing soil in a territory section.
  */
 @Data
-public abstract class Soil implements EnvironmentEntity {
+public abstract class Soil implements EnvironmentEntity, Cloneable {
 
     // Constants for clamping and rounding
     protected static final int MIN_VALUE = 0;
@@ -35,6 +41,171 @@ public abstract class Soil implements EnvironmentEntity {
 
     protected double soilQuality;
 
+    /**
+     * Mutation version, bumped by every setter of a field the derived scores depend on
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long version;
+
+    // Memoized soil quality and blocking probability, valid while their version matches
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private double cachedQuality;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long qualityVersion = -1;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private double cachedBlockingProbability;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long blockingVersion = -1;
+
+    /**
+     * Whether this soil is a template shared by several sections, which must not be
+     * modified; a section copies it before changing it
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean shared;
+
+    /**
+     * Turns this soil into a template shared by several sections. Its derived scores
+     * are computed up front, so that reading them never writes to the template.
+     */
+    public void share() {
+        calculateQuality();
+        calculateBlockingProbability();
+        shared = true;
+    }
+
+    /**
+     * Tells whether this soil is a shared template, which sections copy before
+     * changing it
+     *
+     * @return true if this soil must not be modified in place
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Creates a private copy of this soil, given to a section that stops sharing it
+     *
+     * @return a copy that is not shared
+     */
+    public Soil copy() {
+        try {
+            Soil copy = (Soil) super.clone();
+            copy.shared = false;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sets the nitrogen and invalidates the memoized quality and blocking probability
+     *
+     * @param nitrogen new nitrogen
+     */
+    public void setNitrogen(final double nitrogen) {
+        this.nitrogen = nitrogen;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the water retention and invalidates the memoized quality and blocking probability
+     *
+     * @param waterRetention new water retention
+     */
+    public void setWaterRetention(final double waterRetention) {
+        this.waterRetention = waterRetention;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the organic matter and invalidates the memoized quality and blocking probability
+     *
+     * @param organicMatter new organic matter
+     */
+    public void setOrganicMatter(final double organicMatter) {
+        this.organicMatter = organicMatter;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the leaf litter and invalidates the memoized quality and blocking probability
+     *
+     * @param leafLitter new leaf litter
+     */
+    public void setLeafLitter(final double leafLitter) {
+        this.leafLitter = leafLitter;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the water logging and invalidates the memoized quality and blocking probability
+     *
+     * @param waterLogging new water logging
+     */
+    public void setWaterLogging(final double waterLogging) {
+        this.waterLogging = waterLogging;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the permafrost depth and invalidates the memoized quality and blocking probability
+     *
+     * @param permafrostDepth new permafrost depth
+     */
+    public void setPermafrostDepth(final double permafrostDepth) {
+        this.permafrostDepth = permafrostDepth;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the root density and invalidates the memoized quality and blocking probability
+     *
+     * @param rootDensity new root density
+     */
+    public void setRootDensity(final double rootDensity) {
+        this.rootDensity = rootDensity;
+        fieldChanged();
+    }
+
+    /**
+     * Sets the salinity and invalidates the memoized quality and blocking probability
+     *
+     * @param salinity new salinity
+     */
+    public void setSalinity(final double salinity) {
+        this.salinity = salinity;
+        fieldChanged();
+    }
+
+    /**
+     * Invalidates the memoized quality and blocking probability. This is the only place that bumps
+     * the version: the fields they depend on are only written by the setters above,
+     * which all call it, while the subclasses only read them.
+     */
+    private void fieldChanged() {
+        version++;
+    }
+
     /**
      * Clamps a numeric value within {@link #MIN_VALUE} and {@link #MAX_VALUE} and rounds it
      *
@@ -48,11 +219,18 @@ public abstract class Soil implements EnvironmentEntity {
 
     /**
      * Computes the quality score of the soil based on its type and attributes.
-     * This method delegates to the type-specific implementation.
+     * This method delegates to the type-specific implementation, which only runs again
+     * after one of the underlying fields has changed.
      */
     public void calculateQuality() {
-        soilQuality = calculateQualityInternal();
-        soilQuality = clampAndRound(soilQuality);
+        if (qualityVersion != version) {
+            cachedQuality = clampAndRound(calculateQualityInternal());
+            qualityVersion = version;
+        }
+        // Shared templates are only read, so the field is only written when it changes
+        if (soilQuality != cachedQuality) {
+            soilQuality = cachedQuality;
+        }
     }
 
     /**
@@ -78,21 +256,40 @@ public abstract class Soil implements EnvironmentEntity {
     protected abstract void addTypeSpecificFields(ObjectNode entities, ObjectMapper mapper);
 
     /**
-     * Converts the numeric soil quality into a message
+     * Translates the numerical soil quality into a quality level
      *
-     * @return "good", "moderate" or "poor"
+     * @return the level the soil quality falls in
      */
-    public String soilQualityMessage() {
+    public QualityLevel soilQualityLevel() {
         calculateQuality();
-        if (soilQuality > GOOD_SOIL_QUALITY) {
-            return "good";
-        } else if (soilQuality > MODERATE_SOIL_QUALITY) {
-            return "moderate";
+        return levelOf(soilQuality);
+    }
+
+    /**
+     * Translates a numerical soil quality into a quality level
+     *
+     * @param quality the soil quality
+     * @return the level the soil quality falls in
+     */
+    public static QualityLevel levelOf(final double quality) {
+        if (quality > GOOD_SOIL_QUALITY) {
+            return QualityLevel.GOOD;
+        } else if (quality > MODERATE_SOIL_QUALITY) {
+            return QualityLevel.MODERATE;
         } else {
-            return "poor";
+            return QualityLevel.POOR;
         }
     }
 
+    /**
+     * Translates the numerical soil quality into a message
+     *
+     * @return "good", "moderate" or "poor"
+     */
+    public String soilQualityMessage() {
+        return soilQualityLevel().getMessage();
+    }
+
     /**
      * Serializes the soil entity for printing in outputs
      *
@@ -125,7 +322,11 @@ public abstract class Soil implements EnvironmentEntity {
      */
     @Override
     public double calculateBlockingProbability() {
-        return calculateBlockingProbabilityInternal();
+        if (blockingVersion != version) {
+            cachedBlockingProbability = calculateBlockingProbabilityInternal();
+            blockingVersion = version;
+        }
+        return cachedBlockingProbability;
     }
 }
 
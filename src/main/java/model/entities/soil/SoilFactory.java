@@ -26,14 +26,7 @@ public final class SoilFactory {
             throw new IllegalArgumentException("Soil type cannot be null");
         }
 
-        return switch (type) {
-            case "ForestSoil" -> new ForestSoil();
-            case "SwampSoil" -> new SwampSoil();
-            case "DesertSoil" -> new DesertSoil();
-            case "GrasslandSoil" -> new GrasslandSoil();
-            case "TundraSoil" -> new TundraSoil();
-            default -> throw new IllegalArgumentException("Unknown soil type: " + type);
-        };
+        return SoilType.fromName(type).create();
     }
 
     /**
@@ -0,0 +1,63 @@
+package model.entities.soil;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Soil types, each one mapped to the class implementing it
+ */
+public enum SoilType {
+    FOREST("ForestSoil", ForestSoil::new),
+    SWAMP("SwampSoil", SwampSoil::new),
+    DESERT("DesertSoil", DesertSoil::new),
+    GRASSLAND("GrasslandSoil", GrasslandSoil::new),
+    TUNDRA("TundraSoil", TundraSoil::new);
+
+    private static final Map<String, SoilType> BY_NAME = new HashMap<>();
+
+    static {
+        for (SoilType type : values()) {
+            BY_NAME.put(type.typeName, type);
+        }
+    }
+
+    /**
+     * Name of the type in the input
+     */
+    @Getter
+    private final String typeName;
+
+    private final Supplier<Soil> constructor;
+
+    SoilType(final String typeName, final Supplier<Soil> constructor) {
+        this.typeName = typeName;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Returns the soil type with the given name
+     *
+     * @param name name of the type in the input
+     * @return the matching type
+     * @throws IllegalArgumentException if the type is not recognized
+     */
+    public static SoilType fromName(final String name) {
+        SoilType type = BY_NAME.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown soil type: " + name);
+        }
+        return type;
+    }
+
+    /**
+     * Creates an empty soil of this type
+     *
+     * @return a new instance of the class implementing the type
+     */
+    public Soil create() {
+        return constructor.get();
+    }
+}
@@ -0,0 +1,187 @@
+package model.environment;
+
+/**
+ * Primitive columns of a {@link ColumnarSectionStore}, each holding one value per
+ * section. The double columns are declared first, then the int and the byte columns,
+ * so that every column of a packed layout stays aligned to the size of its values.
+ */
+public enum CellColumn {
+    SOIL_MASS(Type.DOUBLE),
+    SOIL_NITROGEN(Type.DOUBLE),
+    SOIL_WATER_RETENTION(Type.DOUBLE),
+    SOIL_PH(Type.DOUBLE),
+    SOIL_ORGANIC_MATTER(Type.DOUBLE),
+    SOIL_LEAF_LITTER(Type.DOUBLE),
+    SOIL_WATER_LOGGING(Type.DOUBLE),
+    SOIL_PERMAFROST_DEPTH(Type.DOUBLE),
+    SOIL_ROOT_DENSITY(Type.DOUBLE),
+    SOIL_SALINITY(Type.DOUBLE),
+    SOIL_QUALITY(Type.DOUBLE),
+    AIR_MASS(Type.DOUBLE),
+    AIR_HUMIDITY(Type.DOUBLE),
+    AIR_TEMPERATURE(Type.DOUBLE),
+    AIR_OXYGEN_LEVEL(Type.DOUBLE),
+    AIR_ALTITUDE(Type.DOUBLE),
+    AIR_POLLEN_LEVEL(Type.DOUBLE),
+    AIR_CO2_LEVEL(Type.DOUBLE),
+    AIR_ICE_CRYSTAL_CONCENTRATION(Type.DOUBLE),
+    AIR_DUST_PARTICLES(Type.DOUBLE),
+    AIR_QUALITY(Type.DOUBLE),
+    AIR_CHANGED_QUALITY(Type.DOUBLE),
+
+    /**
+     * Air quality computed from the other air columns, valid while the
+     * AIR_QUALITY_VALID flag is set
+     */
+    AIR_BASE_QUALITY(Type.DOUBLE),
+
+    PLANT_MASS(Type.DOUBLE),
+    PLANT_GROWTH(Type.DOUBLE),
+    PLANT_AGE_SURPLUS(Type.DOUBLE),
+    ANIMAL_MASS(Type.DOUBLE),
+    WATER_MASS(Type.DOUBLE),
+    WATER_PURITY(Type.DOUBLE),
+    WATER_SALINITY(Type.DOUBLE),
+    WATER_TURBIDITY(Type.DOUBLE),
+    WATER_CONTAMINANT_INDEX(Type.DOUBLE),
+    WATER_PH(Type.DOUBLE),
+
+    // Names and free-form types, as indices in the string table of the store
+    SOIL_NAME(Type.INT),
+    AIR_NAME(Type.INT),
+    PLANT_TYPE(Type.INT),
+    PLANT_NAME(Type.INT),
+    PLANT_LAST_ITERATION(Type.INT),
+    ANIMAL_TYPE(Type.INT),
+    ANIMAL_NAME(Type.INT),
+    ANIMAL_LAST_MOVE(Type.INT),
+    WATER_TYPE(Type.INT),
+    WATER_NAME(Type.INT),
+    WATER_LAST_ITERATION(Type.INT),
+
+    /**
+     * Movement cost of the section, valid while the COST_VALID flag is set
+     */
+    MOVEMENT_COST(Type.INT),
+
+    /**
+     * Bitmask of the entities found in the section
+     */
+    PRESENCE(Type.BYTE),
+
+    /**
+     * Ordinal of the {@link model.entities.soil.SoilType} of the soil
+     */
+    SOIL_TYPE(Type.BYTE),
+
+    /**
+     * Ordinal of the {@link model.entities.air.AirType} of the air
+     */
+    AIR_TYPE(Type.BYTE),
+
+    /**
+     * Boolean attributes of the air, the plant and the water
+     */
+    FLAGS(Type.BYTE),
+
+    /**
+     * Boolean attributes of the animal
+     */
+    ANIMAL_FLAGS(Type.BYTE);
+
+    /**
+     * Size of the values held by the columns
+     */
+    public enum Type {
+        DOUBLE(Double.BYTES),
+        INT(Integer.BYTES),
+        BYTE(Byte.BYTES);
+
+        private final int bytes;
+
+        Type(final int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Returns the size of one value
+         *
+         * @return size in bytes
+         */
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Number of bytes every section takes across all the columns
+     */
+    public static final int BYTES_PER_CELL;
+
+    private static final int[] COUNTS = new int[Type.values().length];
+
+    static {
+        int offset = 0;
+        for (CellColumn column : values()) {
+            column.slot = COUNTS[column.type.ordinal()]++;
+            column.offset = offset;
+            offset += column.type.getBytes();
+        }
+        BYTES_PER_CELL = offset;
+    }
+
+    private final Type type;
+
+    /**
+     * Index of the column among the columns of its type
+     */
+    private int slot;
+
+    /**
+     * Bytes taken by one section across all the columns declared before this one
+     */
+    private int offset;
+
+    CellColumn(final Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the size of the values held by this column
+     *
+     * @return the column type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the index of this column among the columns of the same type
+     *
+     * @return the slot of the column
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Returns the start of this column in a packed layout covering the given number
+     * of sections, relative to the start of the first column
+     *
+     * @param cells number of sections covered by every column
+     * @return byte offset of the column
+     */
+    public long offset(final long cells) {
+        return offset * cells;
+    }
+
+    /**
+     * Counts the columns of the given type
+     *
+     * @param type the column type
+     * @return number of columns holding values of that type
+     */
+    public static int count(final Type type) {
+        return COUNTS[type.ordinal()];
+    }
+}
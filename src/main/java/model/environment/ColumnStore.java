@@ -0,0 +1,91 @@
+package model.environment;
+
+import java.util.List;
+
+/**
+ * Storage of the {@link CellColumn}s of a territory. Every column has one slot per
+ * section, addressed by the flat section index. A column is only read and written
+ * through the accessors matching its {@link CellColumn.Type}.
+ */
+public interface ColumnStore extends AutoCloseable {
+    /**
+     * Reads a value of a double column
+     *
+     * @param column the column to read
+     * @param cell   flat index of the section
+     * @return the stored value
+     */
+    double getDouble(CellColumn column, int cell);
+
+    /**
+     * Writes a value of a double column
+     *
+     * @param column the column to write
+     * @param cell   flat index of the section
+     * @param value  the new value
+     */
+    void setDouble(CellColumn column, int cell, double value);
+
+    /**
+     * Reads a value of an int column
+     *
+     * @param column the column to read
+     * @param cell   flat index of the section
+     * @return the stored value
+     */
+    int getInt(CellColumn column, int cell);
+
+    /**
+     * Writes a value of an int column
+     *
+     * @param column the column to write
+     * @param cell   flat index of the section
+     * @param value  the new value
+     */
+    void setInt(CellColumn column, int cell, int value);
+
+    /**
+     * Reads a value of a byte column
+     *
+     * @param column the column to read
+     * @param cell   flat index of the section
+     * @return the stored value
+     */
+    byte getByte(CellColumn column, int cell);
+
+    /**
+     * Writes a value of a byte column
+     *
+     * @param column the column to write
+     * @param cell   flat index of the section
+     * @param value  the new value
+     */
+    void setByte(CellColumn column, int cell, byte value);
+
+    /**
+     * Returns the string table saved with the columns by the store that wrote them,
+     * which the name and type columns reference by index
+     *
+     * @return the saved strings, empty if the columns were not saved with any
+     */
+    default List<String> loadStrings() {
+        return List.of();
+    }
+
+    /**
+     * Hands over the string table referenced by the columns, saved with them when the
+     * store is closed. Stores that cannot be opened again ignore it.
+     *
+     * @param strings every string referenced by the columns, by index
+     */
+    default void saveStrings(final List<String> strings) {
+    }
+
+    /**
+     * Releases the memory and the files held by the columns. The store must not be
+     * used afterwards.
+     */
+    @Override
+    default void close() {
+    }
+}
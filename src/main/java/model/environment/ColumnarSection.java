@@ -0,0 +1,158 @@
+package model.environment;
+
+import model.entities.Animal;
+import model.entities.Plant;
+import model.entities.Water;
+import model.entities.air.Air;
+import model.entities.soil.Soil;
+
+/**
+ * View of a single cell of a {@link ColumnarSectionStore}. Its entities are built from
+ * the columns of the store the first time they are read and kept until the view is
+ * released, so that every change made to them is written back. Entities set on the
+ * view are written to the columns right away.
+ */
+final class ColumnarSection extends Section {
+
+    /**
+     * Store holding the columns of the territory
+     */
+    private final ColumnarSectionStore store;
+
+    /**
+     * Flat index of the viewed section
+     */
+    private final int cell;
+
+    /**
+     * Presence bits of the entities already built or set
+     */
+    private int loaded;
+
+    // Entities of the section, valid once their bit is loaded
+    private Soil soil;
+    private Air air;
+    private Plant plant;
+    private Animal animal;
+    private Water water;
+
+    ColumnarSection(final ColumnarSectionStore store, final int cell) {
+        this.store = store;
+        this.cell = cell;
+    }
+
+    @Override
+    public Soil getSoil() {
+        if ((loaded & ColumnarSectionStore.SOIL) == 0) {
+            soil = store.readSoil(cell);
+            loaded |= ColumnarSectionStore.SOIL;
+        }
+        return soil;
+    }
+
+    @Override
+    public void setSoil(final Soil soil) {
+        store.writeSoil(cell, soil);
+        this.soil = soil;
+        loaded |= ColumnarSectionStore.SOIL;
+    }
+
+    @Override
+    public Air getAir() {
+        if ((loaded & ColumnarSectionStore.AIR) == 0) {
+            air = store.readAir(cell);
+            loaded |= ColumnarSectionStore.AIR;
+        }
+        return air;
+    }
+
+    @Override
+    public void setAir(final Air air) {
+        store.writeAir(cell, air);
+        this.air = air;
+        loaded |= ColumnarSectionStore.AIR;
+    }
+
+    @Override
+    public Plant getPlant() {
+        if ((loaded & ColumnarSectionStore.PLANT) == 0) {
+            plant = store.readPlant(cell);
+            loaded |= ColumnarSectionStore.PLANT;
+        }
+        return plant;
+    }
+
+    @Override
+    public void setPlant(final Plant plant) {
+        store.writePlant(cell, plant);
+        this.plant = plant;
+        loaded |= ColumnarSectionStore.PLANT;
+    }
+
+    @Override
+    public Animal getAnimal() {
+        if ((loaded & ColumnarSectionStore.ANIMAL) == 0) {
+            animal = store.readAnimal(cell);
+            loaded |= ColumnarSectionStore.ANIMAL;
+        }
+        return animal;
+    }
+
+    @Override
+    public void setAnimal(final Animal animal) {
+        store.writeAnimal(cell, animal);
+        this.animal = animal;
+        loaded |= ColumnarSectionStore.ANIMAL;
+    }
+
+    @Override
+    public Water getWater() {
+        if ((loaded & ColumnarSectionStore.WATER) == 0) {
+            water = store.readWater(cell);
+            loaded |= ColumnarSectionStore.WATER;
+        }
+        return water;
+    }
+
+    @Override
+    public void setWater(final Water water) {
+        store.writeWater(cell, water);
+        this.water = water;
+        loaded |= ColumnarSectionStore.WATER;
+    }
+
+    /**
+     * Tells whether the entity of the given presence bit has been built or set, so
+     * that its object holds its current state
+     */
+    boolean isLoaded(final int bit) {
+        return (loaded & bit) != 0;
+    }
+
+    @Override
+    public int countObjects() {
+        return store.countObjects(cell);
+    }
+
+    /**
+     * Writes the entities built for this view back to the columns, with the changes
+     * made to them since
+     */
+    void writeBack() {
+        if (soil != null) {
+            store.writeSoil(cell, soil);
+        }
+        if (air != null) {
+            store.writeAir(cell, air);
+        }
+        if (plant != null) {
+            store.writePlant(cell, plant);
+        }
+        if (animal != null) {
+            store.writeAnimal(cell, animal);
+        }
+        if (water != null) {
+            store.writeWater(cell, water);
+        }
+    }
+}
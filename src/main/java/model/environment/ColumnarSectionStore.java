@@ -0,0 +1,619 @@
+package model.environment;
+
+import model.entities.Animal;
+import model.entities.Plant;
+import model.entities.QualityLevel;
+import model.entities.Water;
+import model.entities.air.Air;
+import model.entities.air.AirType;
+import model.entities.air.WeatherChange;
+import model.entities.soil.Soil;
+import model.entities.soil.SoilType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Structure-of-arrays backend. No entity object is kept per cell: the type, name and
+ * attributes of every entity live in the primitive {@link CellColumn}s of a
+ * {@link ColumnStore}, and a presence bitmask tells which entities a section holds.
+ *
+ * <p>Entity objects are only built when a command reaches a section. The sections
+ * returned by {@link #getSection(int, int)} stay resident until {@link #release()},
+ * so that the entities built for them keep their identity while the command runs;
+ * releasing writes back the fields that changed. The quality queries, the weather
+ * changes and the lookups of a cached movement cost read and write the columns
+ * directly, and the sections handed out by {@link #ensureSection(int, int)} are never
+ * kept.</p>
+ *
+ * <p>The air and soil qualities derived from the other columns are memoized per
+ * section, and the memo is dropped by every write that changes the air or the soil,
+ * so that the entity classes stay the only place computing them.</p>
+ */
+public final class ColumnarSectionStore implements SectionStore {
+
+    // Presence bits of the entities found in a section
+    static final int SOIL = 1;
+    static final int AIR = 1 << 1;
+    static final int PLANT = 1 << 2;
+    static final int ANIMAL = 1 << 3;
+    static final int WATER = 1 << 4;
+    static final int OBJECTS = PLANT | ANIMAL | WATER;
+
+    // Bits of the FLAGS column
+    private static final int DESERT_STORM = 1;
+    private static final int PLANT_ACTIVE = 1 << 1;
+    private static final int WATER_ACTIVE = 1 << 2;
+    private static final int FROZEN = 1 << 3;
+    private static final int COST_VALID = 1 << 4;
+    private static final int AIR_QUALITY_VALID = 1 << 5;
+    private static final int SOIL_QUALITY_VALID = 1 << 6;
+
+    // Bits of the ANIMAL_FLAGS column
+    private static final int ANIMAL_ACTIVE = 1;
+    private static final int ATE_PLANT = 1 << 1;
+    private static final int DRANK_WATER = 1 << 2;
+    private static final int ATE_ANIMAL = 1 << 3;
+    private static final int SICK = 1 << 4;
+    private static final int PRODUCED_ORGANIC_MATTER = 1 << 5;
+
+    /**
+     * String reference standing for a null string
+     */
+    private static final int NONE = -1;
+
+    private static final int INITIAL_STRING_CAPACITY = 64;
+
+    private static final SoilType[] SOIL_TYPES = SoilType.values();
+    private static final AirType[] AIR_TYPES = AirType.values();
+
+    /**
+     * One air of every type, indexed by ordinal, only asked for its weather rules
+     */
+    private static final Air[] AIR_PROTOTYPES = Arrays.stream(AIR_TYPES)
+            .map(AirType::create).toArray(Air[]::new);
+
+    /**
+     * Number of columns of the territory grid
+     */
+    private final int width;
+
+    /**
+     * Number of sections of the territory
+     */
+    private final int cells;
+
+    /**
+     * Primitive columns holding the entities
+     */
+    private final ColumnStore columns;
+
+    /**
+     * Every distinct name and free-form type, referenced by index from the columns.
+     * The strings are added while the territory is built; the entities updated by the
+     * ticks only reference strings already in the table, which are read and looked up
+     * without locking. Adding a string replaces the array once it is full.
+     */
+    private volatile String[] strings = new String[INITIAL_STRING_CAPACITY];
+    private final Map<String, Integer> stringRefs = new ConcurrentHashMap<>();
+
+    /**
+     * Number of strings in the table, only changed while holding the lock of the store
+     */
+    private int stringCount;
+
+    /**
+     * Resident section views, keyed by the flat section index. Only the sections
+     * visited since the last release are kept, so the map stays small whatever the
+     * size of the territory.
+     */
+    private final Map<Integer, ColumnarSection> resident = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty store keeping its columns on the Java heap
+     *
+     * @param width  number of columns
+     * @param height number of rows
+     */
+    public ColumnarSectionStore(final int width, final int height) {
+        this(width, height, new HeapColumnStore(Territory.cellCount(width, height)));
+    }
+
+    /**
+     * Creates an empty store keeping its columns in the given storage
+     *
+     * @param width   number of columns
+     * @param height  number of rows
+     * @param columns storage for the entity columns
+     */
+    public ColumnarSectionStore(final int width, final int height, final ColumnStore columns) {
+        this.cells = Territory.cellCount(width, height);
+        this.width = width;
+        this.columns = columns;
+        for (String string : columns.loadStrings()) {
+            ref(string);
+        }
+    }
+
+    @Override
+    public Section getSection(final int x, final int y) {
+        int cell = x * width + y;
+        ColumnarSection view = resident.get(cell);
+        return view != null ? view : admit(cell);
+    }
+
+    @Override
+    public Section ensureSection(final int x, final int y) {
+        int cell = x * width + y;
+        ColumnarSection view = resident.get(cell);
+        return view != null ? view : new ColumnarSection(this, cell);
+    }
+
+    @Override
+    public QualityLevel airQualityLevel(final int x, final int y) {
+        int cell = x * width + y;
+        ColumnarSection view = loadedView(cell, AIR);
+        if (view != null) {
+            return view.getAir().airQualityLevel();
+        }
+        // Computing the level refreshes the stored air quality
+        double quality = baseAirQuality(cell);
+        update(CellColumn.AIR_QUALITY, cell, quality);
+        return Air.levelOf(quality);
+    }
+
+    @Override
+    public QualityLevel soilQualityLevel(final int x, final int y) {
+        int cell = x * width + y;
+        ColumnarSection view = loadedView(cell, SOIL);
+        if (view != null) {
+            return view.getSoil().soilQualityLevel();
+        }
+        if (hasFlag(CellColumn.FLAGS, cell, SOIL_QUALITY_VALID)) {
+            return Soil.levelOf(columns.getDouble(CellColumn.SOIL_QUALITY, cell));
+        }
+        Soil soil = readSoil(cell);
+        QualityLevel level = soil.soilQualityLevel();
+        update(CellColumn.SOIL_QUALITY, cell, soil.getSoilQuality());
+        setFlag(CellColumn.FLAGS, cell, SOIL_QUALITY_VALID, true);
+        return level;
+    }
+
+    @Override
+    public int countObjects(final int x, final int y) {
+        return countObjects(x * width + y);
+    }
+
+    /**
+     * Applies the weather change to the air columns of every section, as
+     * {@link Air#changeWeather(WeatherChange)} does to an air object
+     */
+    @Override
+    public boolean changeWeather(final WeatherChange change) {
+        boolean changed = false;
+        for (int cell = 0; cell < cells; cell++) {
+            ColumnarSection view = loadedView(cell, AIR);
+            if (view != null) {
+                changed |= view.getAir().changeWeather(change);
+                continue;
+            }
+            if (!isPresent(cell, AIR)) {
+                continue;
+            }
+            AirType type = AIR_TYPES[columns.getByte(CellColumn.AIR_TYPE, cell)];
+            double quality = baseAirQuality(cell);
+            double changedQuality = AIR_PROTOTYPES[type.ordinal()]
+                    .changedQuality(quality, change);
+            update(CellColumn.AIR_QUALITY, cell, changedQuality);
+            if (type == AirType.DESERT) {
+                // Desert air also records the storm
+                setFlag(CellColumn.FLAGS, cell, DESERT_STORM, change.isDesertStorm());
+            }
+            changed |= changedQuality != quality;
+        }
+        return changed;
+    }
+
+    @Override
+    public int movementCost(final int x, final int y) {
+        int cell = x * width + y;
+        if (!hasFlag(CellColumn.FLAGS, cell, COST_VALID)) {
+            int cost = getSection(x, y).movementCost();
+            columns.setInt(CellColumn.MOVEMENT_COST, cell, cost);
+            setFlag(CellColumn.FLAGS, cell, COST_VALID, true);
+            return cost;
+        }
+        // A full evaluation refreshes the air quality of the section as a side effect
+        // (dropping any weather change), so a lookup has to do the same
+        ColumnarSection view = loadedView(cell, AIR);
+        if (view != null) {
+            if (view.getAir() != null) {
+                view.getAir().calculateQuality();
+            }
+        } else if (isPresent(cell, AIR)) {
+            update(CellColumn.AIR_QUALITY, cell, baseAirQuality(cell));
+        }
+        return columns.getInt(CellColumn.MOVEMENT_COST, cell);
+    }
+
+    @Override
+    public void invalidateMovementCost(final int x, final int y) {
+        setFlag(CellColumn.FLAGS, x * width + y, COST_VALID, false);
+    }
+
+    /**
+     * Writes the entities of every resident section back to the columns and drops
+     * the sections, together with the entity objects built for them
+     */
+    @Override
+    public void release() {
+        for (ColumnarSection view : resident.values()) {
+            view.writeBack();
+        }
+        resident.clear();
+    }
+
+    /**
+     * Drops the resident sections and closes the columns, handing them the string
+     * table so that columns kept in a file can be opened again
+     */
+    @Override
+    public void close() {
+        resident.clear();
+        columns.saveStrings(stringTable());
+        columns.close();
+    }
+
+    /**
+     * Makes the view of a section resident. Sections updated concurrently are always
+     * different, but may be admitted at the same time.
+     */
+    private ColumnarSection admit(final int cell) {
+        return resident.computeIfAbsent(cell, key -> new ColumnarSection(this, key));
+    }
+
+    /**
+     * Returns the resident view of a section if it has built the given entity, whose
+     * object then holds the current state of the entity
+     */
+    private ColumnarSection loadedView(final int cell, final int bit) {
+        if (resident.isEmpty()) {
+            return null;
+        }
+        ColumnarSection view = resident.get(cell);
+        return view != null && view.isLoaded(bit) ? view : null;
+    }
+
+    /**
+     * Returns the air quality computed from the air columns of a section, leaving out
+     * any weather change. It is only computed again after the air has changed.
+     */
+    private double baseAirQuality(final int cell) {
+        if (hasFlag(CellColumn.FLAGS, cell, AIR_QUALITY_VALID)) {
+            return columns.getDouble(CellColumn.AIR_BASE_QUALITY, cell);
+        }
+        Air air = readAir(cell);
+        air.calculateQuality();
+        double quality = air.getAirQuality();
+        columns.setDouble(CellColumn.AIR_BASE_QUALITY, cell, quality);
+        setFlag(CellColumn.FLAGS, cell, AIR_QUALITY_VALID, true);
+        return quality;
+    }
+
+    int countObjects(final int cell) {
+        return Integer.bitCount(columns.getByte(CellColumn.PRESENCE, cell) & OBJECTS);
+    }
+
+    Soil readSoil(final int cell) {
+        if (!isPresent(cell, SOIL)) {
+            return null;
+        }
+        SoilType type = SOIL_TYPES[columns.getByte(CellColumn.SOIL_TYPE, cell)];
+        Soil soil = type.create();
+        soil.setType(type.getTypeName());
+        soil.setName(string(columns.getInt(CellColumn.SOIL_NAME, cell)));
+        soil.setMass(columns.getDouble(CellColumn.SOIL_MASS, cell));
+        soil.setNitrogen(columns.getDouble(CellColumn.SOIL_NITROGEN, cell));
+        soil.setWaterRetention(columns.getDouble(CellColumn.SOIL_WATER_RETENTION, cell));
+        soil.setSoilpH(columns.getDouble(CellColumn.SOIL_PH, cell));
+        soil.setOrganicMatter(columns.getDouble(CellColumn.SOIL_ORGANIC_MATTER, cell));
+        soil.setLeafLitter(columns.getDouble(CellColumn.SOIL_LEAF_LITTER, cell));
+        soil.setWaterLogging(columns.getDouble(CellColumn.SOIL_WATER_LOGGING, cell));
+        soil.setPermafrostDepth(columns.getDouble(CellColumn.SOIL_PERMAFROST_DEPTH, cell));
+        soil.setRootDensity(columns.getDouble(CellColumn.SOIL_ROOT_DENSITY, cell));
+        soil.setSalinity(columns.getDouble(CellColumn.SOIL_SALINITY, cell));
+        soil.setSoilQuality(columns.getDouble(CellColumn.SOIL_QUALITY, cell));
+        return soil;
+    }
+
+    void writeSoil(final int cell, final Soil soil) {
+        boolean changed = updatePresence(cell, SOIL, soil != null);
+        if (soil != null) {
+            changed |= update(CellColumn.SOIL_TYPE, cell,
+                    (byte) SoilType.fromName(soil.getType()).ordinal());
+            changed |= updateString(CellColumn.SOIL_NAME, cell, soil.getName());
+            changed |= update(CellColumn.SOIL_MASS, cell, soil.getMass());
+            changed |= update(CellColumn.SOIL_NITROGEN, cell, soil.getNitrogen());
+            changed |= update(CellColumn.SOIL_WATER_RETENTION, cell, soil.getWaterRetention());
+            changed |= update(CellColumn.SOIL_PH, cell, soil.getSoilpH());
+            changed |= update(CellColumn.SOIL_ORGANIC_MATTER, cell, soil.getOrganicMatter());
+            changed |= update(CellColumn.SOIL_LEAF_LITTER, cell, soil.getLeafLitter());
+            changed |= update(CellColumn.SOIL_WATER_LOGGING, cell, soil.getWaterLogging());
+            changed |= update(CellColumn.SOIL_PERMAFROST_DEPTH, cell, soil.getPermafrostDepth());
+            changed |= update(CellColumn.SOIL_ROOT_DENSITY, cell, soil.getRootDensity());
+            changed |= update(CellColumn.SOIL_SALINITY, cell, soil.getSalinity());
+            changed |= update(CellColumn.SOIL_QUALITY, cell, soil.getSoilQuality());
+        }
+        if (changed) {
+            setFlag(CellColumn.FLAGS, cell, SOIL_QUALITY_VALID, false);
+        }
+    }
+
+    Air readAir(final int cell) {
+        if (!isPresent(cell, AIR)) {
+            return null;
+        }
+        AirType type = AIR_TYPES[columns.getByte(CellColumn.AIR_TYPE, cell)];
+        Air air = type.create();
+        air.setType(type.getTypeName());
+        air.setName(string(columns.getInt(CellColumn.AIR_NAME, cell)));
+        air.setMass(columns.getDouble(CellColumn.AIR_MASS, cell));
+        air.setHumidity(columns.getDouble(CellColumn.AIR_HUMIDITY, cell));
+        air.setTemperature(columns.getDouble(CellColumn.AIR_TEMPERATURE, cell));
+        air.setOxygenLevel(columns.getDouble(CellColumn.AIR_OXYGEN_LEVEL, cell));
+        air.setAltitude(columns.getDouble(CellColumn.AIR_ALTITUDE, cell));
+        air.setPollenLevel(columns.getDouble(CellColumn.AIR_POLLEN_LEVEL, cell));
+        air.setCo2Level(columns.getDouble(CellColumn.AIR_CO2_LEVEL, cell));
+        air.setIceCrystalConcentration(
+                columns.getDouble(CellColumn.AIR_ICE_CRYSTAL_CONCENTRATION, cell));
+        air.setDustParticles(columns.getDouble(CellColumn.AIR_DUST_PARTICLES, cell));
+        air.setAirQuality(columns.getDouble(CellColumn.AIR_QUALITY, cell));
+        air.setChangedAirQuality(columns.getDouble(CellColumn.AIR_CHANGED_QUALITY, cell));
+        air.setDesertStorm(hasFlag(CellColumn.FLAGS, cell, DESERT_STORM));
+        return air;
+    }
+
+    void writeAir(final int cell, final Air air) {
+        boolean changed = updatePresence(cell, AIR, air != null);
+        if (air != null) {
+            // Fields the air quality depends on
+            changed |= update(CellColumn.AIR_TYPE, cell,
+                    (byte) AirType.fromName(air.getType()).ordinal());
+            changed |= update(CellColumn.AIR_HUMIDITY, cell, air.getHumidity());
+            changed |= update(CellColumn.AIR_TEMPERATURE, cell, air.getTemperature());
+            changed |= update(CellColumn.AIR_OXYGEN_LEVEL, cell, air.getOxygenLevel());
+            changed |= update(CellColumn.AIR_ALTITUDE, cell, air.getAltitude());
+            changed |= update(CellColumn.AIR_POLLEN_LEVEL, cell, air.getPollenLevel());
+            changed |= update(CellColumn.AIR_CO2_LEVEL, cell, air.getCo2Level());
+            changed |= update(CellColumn.AIR_ICE_CRYSTAL_CONCENTRATION, cell,
+                    air.getIceCrystalConcentration());
+            changed |= update(CellColumn.AIR_DUST_PARTICLES, cell, air.getDustParticles());
+
+            updateString(CellColumn.AIR_NAME, cell, air.getName());
+            update(CellColumn.AIR_MASS, cell, air.getMass());
+            update(CellColumn.AIR_QUALITY, cell, air.getAirQuality());
+            update(CellColumn.AIR_CHANGED_QUALITY, cell, air.getChangedAirQuality());
+            setFlag(CellColumn.FLAGS, cell, DESERT_STORM, air.isDesertStorm());
+        }
+        if (changed) {
+            setFlag(CellColumn.FLAGS, cell, AIR_QUALITY_VALID, false);
+        }
+    }
+
+    Plant readPlant(final int cell) {
+        if (!isPresent(cell, PLANT)) {
+            return null;
+        }
+        Plant plant = new Plant();
+        plant.setType(string(columns.getInt(CellColumn.PLANT_TYPE, cell)));
+        plant.setName(string(columns.getInt(CellColumn.PLANT_NAME, cell)));
+        plant.setMass(columns.getDouble(CellColumn.PLANT_MASS, cell));
+        plant.setGrowth(columns.getDouble(CellColumn.PLANT_GROWTH, cell));
+        plant.setAgeSurplus(columns.getDouble(CellColumn.PLANT_AGE_SURPLUS, cell));
+        plant.setLastIteration(columns.getInt(CellColumn.PLANT_LAST_ITERATION, cell));
+        plant.setActive(hasFlag(CellColumn.FLAGS, cell, PLANT_ACTIVE));
+        return plant;
+    }
+
+    void writePlant(final int cell, final Plant plant) {
+        if (plant != null) {
+            updateString(CellColumn.PLANT_TYPE, cell, plant.getType());
+            updateString(CellColumn.PLANT_NAME, cell, plant.getName());
+            update(CellColumn.PLANT_MASS, cell, plant.getMass());
+            update(CellColumn.PLANT_GROWTH, cell, plant.getGrowth());
+            update(CellColumn.PLANT_AGE_SURPLUS, cell, plant.getAgeSurplus());
+            update(CellColumn.PLANT_LAST_ITERATION, cell, plant.getLastIteration());
+            setFlag(CellColumn.FLAGS, cell, PLANT_ACTIVE, plant.isActive());
+        }
+        updatePresence(cell, PLANT, plant != null);
+    }
+
+    Animal readAnimal(final int cell) {
+        if (!isPresent(cell, ANIMAL)) {
+            return null;
+        }
+        Animal animal = new Animal();
+        animal.setType(string(columns.getInt(CellColumn.ANIMAL_TYPE, cell)));
+        animal.setName(string(columns.getInt(CellColumn.ANIMAL_NAME, cell)));
+        animal.setMass(columns.getDouble(CellColumn.ANIMAL_MASS, cell));
+        animal.setLastMoveTimestamp(columns.getInt(CellColumn.ANIMAL_LAST_MOVE, cell));
+        int flags = columns.getByte(CellColumn.ANIMAL_FLAGS, cell);
+        animal.setActive((flags & ANIMAL_ACTIVE) != 0);
+        animal.setAtePlant((flags & ATE_PLANT) != 0);
+        animal.setDrankWater((flags & DRANK_WATER) != 0);
+        animal.setAteAnimal((flags & ATE_ANIMAL) != 0);
+        animal.setSick((flags & SICK) != 0);
+        animal.setProducedOrganicMatter((flags & PRODUCED_ORGANIC_MATTER) != 0);
+        return animal;
+    }
+
+    void writeAnimal(final int cell, final Animal animal) {
+        if (animal != null) {
+            updateString(CellColumn.ANIMAL_TYPE, cell, animal.getType());
+            updateString(CellColumn.ANIMAL_NAME, cell, animal.getName());
+            update(CellColumn.ANIMAL_MASS, cell, animal.getMass());
+            update(CellColumn.ANIMAL_LAST_MOVE, cell, animal.getLastMoveTimestamp());
+            update(CellColumn.ANIMAL_FLAGS, cell, (byte) (
+                    flag(animal.isActive(), ANIMAL_ACTIVE)
+                    | flag(animal.isAtePlant(), ATE_PLANT)
+                    | flag(animal.isDrankWater(), DRANK_WATER)
+                    | flag(animal.isAteAnimal(), ATE_ANIMAL)
+                    | flag(animal.isSick(), SICK)
+                    | flag(animal.isProducedOrganicMatter(), PRODUCED_ORGANIC_MATTER)));
+        }
+        updatePresence(cell, ANIMAL, animal != null);
+    }
+
+    Water readWater(final int cell) {
+        if (!isPresent(cell, WATER)) {
+            return null;
+        }
+        Water water = new Water();
+        water.setType(string(columns.getInt(CellColumn.WATER_TYPE, cell)));
+        water.setName(string(columns.getInt(CellColumn.WATER_NAME, cell)));
+        water.setMass(columns.getDouble(CellColumn.WATER_MASS, cell));
+        water.setPurity(columns.getDouble(CellColumn.WATER_PURITY, cell));
+        water.setSalinity(columns.getDouble(CellColumn.WATER_SALINITY, cell));
+        water.setTurbidity(columns.getDouble(CellColumn.WATER_TURBIDITY, cell));
+        water.setContaminantIndex(columns.getDouble(CellColumn.WATER_CONTAMINANT_INDEX, cell));
+        water.setPH(columns.getDouble(CellColumn.WATER_PH, cell));
+        water.setLastIterTimestamp(columns.getInt(CellColumn.WATER_LAST_ITERATION, cell));
+        water.setActive(hasFlag(CellColumn.FLAGS, cell, WATER_ACTIVE));
+        water.setFrozen(hasFlag(CellColumn.FLAGS, cell, FROZEN));
+        return water;
+    }
+
+    void writeWater(final int cell, final Water water) {
+        if (water != null) {
+            updateString(CellColumn.WATER_TYPE, cell, water.getType());
+            updateString(CellColumn.WATER_NAME, cell, water.getName());
+            update(CellColumn.WATER_MASS, cell, water.getMass());
+            update(CellColumn.WATER_PURITY, cell, water.getPurity());
+            update(CellColumn.WATER_SALINITY, cell, water.getSalinity());
+            update(CellColumn.WATER_TURBIDITY, cell, water.getTurbidity());
+            update(CellColumn.WATER_CONTAMINANT_INDEX, cell, water.getContaminantIndex());
+            update(CellColumn.WATER_PH, cell, water.getPH());
+            update(CellColumn.WATER_LAST_ITERATION, cell, water.getLastIterTimestamp());
+            setFlag(CellColumn.FLAGS, cell, WATER_ACTIVE, water.isActive());
+            setFlag(CellColumn.FLAGS, cell, FROZEN, water.isFrozen());
+        }
+        updatePresence(cell, WATER, water != null);
+    }
+
+    /**
+     * Returns the reference of a string, adding it to the string table if needed. Only
+     * adding a string takes the lock of the store.
+     */
+    private int ref(final String string) {
+        if (string == null) {
+            return NONE;
+        }
+        Integer ref = stringRefs.get(string);
+        return ref != null ? ref : intern(string);
+    }
+
+    private synchronized int intern(final String string) {
+        Integer ref = stringRefs.get(string);
+        if (ref != null) {
+            return ref;
+        }
+        String[] table = strings;
+        if (stringCount == table.length) {
+            table = Arrays.copyOf(table, 2 * stringCount);
+        }
+        table[stringCount] = string;
+        // Publishes the string before its reference can be read from the map
+        strings = table;
+        stringRefs.put(string, stringCount);
+        return stringCount++;
+    }
+
+    private String string(final int ref) {
+        return ref != NONE ? strings[ref] : null;
+    }
+
+    private synchronized List<String> stringTable() {
+        return List.of(Arrays.copyOf(strings, stringCount));
+    }
+
+    /**
+     * Writes a value of a double column unless it is already stored, so that unchanged
+     * fields leave the columns untouched
+     *
+     * @return true if the stored value changed
+     */
+    private boolean update(final CellColumn column, final int cell, final double value) {
+        if (Double.doubleToRawLongBits(columns.getDouble(column, cell))
+                == Double.doubleToRawLongBits(value)) {
+            return false;
+        }
+        columns.setDouble(column, cell, value);
+        return true;
+    }
+
+    private boolean update(final CellColumn column, final int cell, final int value) {
+        if (columns.getInt(column, cell) == value) {
+            return false;
+        }
+        columns.setInt(column, cell, value);
+        return true;
+    }
+
+    private boolean update(final CellColumn column, final int cell, final byte value) {
+        if (columns.getByte(column, cell) == value) {
+            return false;
+        }
+        columns.setByte(column, cell, value);
+        return true;
+    }
+
+    /**
+     * Writes the reference of a string unless the column already references it
+     *
+     * @return true if the referenced string changed
+     */
+    private boolean updateString(final CellColumn column, final int cell, final String value) {
+        int ref = columns.getInt(column, cell);
+        boolean stored = ref == NONE ? value == null
+                : value != null && ref >= 0 && ref < strings.length && value.equals(strings[ref]);
+        if (stored) {
+            return false;
+        }
+        columns.setInt(column, cell, ref(value));
+        return true;
+    }
+
+    private static int flag(final boolean value, final int flag) {
+        return value ? flag : 0;
+    }
+
+    private boolean isPresent(final int cell, final int bit) {
+        return hasFlag(CellColumn.PRESENCE, cell, bit);
+    }
+
+    private boolean updatePresence(final int cell, final int bit, final boolean present) {
+        return setFlag(CellColumn.PRESENCE, cell, bit, present);
+    }
+
+    private boolean hasFlag(final CellColumn column, final int cell, final int bit) {
+        return (columns.getByte(column, cell) & bit) != 0;
+    }
+
+    /**
+     * Sets or clears a bit of a byte column, writing it only if it changes
+     *
+     * @return true if the bit changed
+     */
+    private boolean setFlag(final CellColumn column, final int cell, final int bit,
+                            final boolean value) {
+        int flags = columns.getByte(column, cell);
+        int updated = value ? flags | bit : flags & ~bit;
+        if (updated == flags) {
+            return false;
+        }
+        columns.setByte(column, cell, (byte) updated);
+        return true;
+    }
+}
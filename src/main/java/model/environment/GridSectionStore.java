@@ -0,0 +1,111 @@
+package model.environment;
+
+import model.entities.air.Air;
+import model.entities.air.WeatherChange;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Default backend that keeps one {@link Section} object per cell in a two-dimensional grid
+ */
+public final class GridSectionStore implements SectionStore {
+
+    /**
+     * Two-dimensional grid of sections
+     */
+    private final Section[][] sections;
+
+    /**
+     * Number of columns of the territory grid
+     */
+    private final int width;
+
+    /**
+     * Movement cost of every section, indexed by the flat section index
+     */
+    private final int[] movementCosts;
+
+    /**
+     * Marks the sections whose movement cost must be recomputed before being read
+     */
+    private final boolean[] staleCosts;
+
+    /**
+     * Creates an empty grid with the given dimensions
+     *
+     * @param width  number of columns
+     * @param height number of rows
+     */
+    public GridSectionStore(final int width, final int height) {
+        int cells = Territory.cellCount(width, height);
+        this.sections = new Section[height][width];
+        this.width = width;
+        this.movementCosts = new int[cells];
+        this.staleCosts = new boolean[cells];
+        Arrays.fill(staleCosts, true);
+    }
+
+    @Override
+    public Section getSection(final int x, final int y) {
+        return sections[x][y];
+    }
+
+    @Override
+    public Section ensureSection(final int x, final int y) {
+        Section section = sections[x][y];
+        if (section == null) {
+            section = new Section();
+            sections[x][y] = section;
+        }
+        return section;
+    }
+
+    @Override
+    public boolean changeWeather(final WeatherChange change) {
+        boolean changed = false;
+        // Whether the weather changes each shared air, tried once on a scratch copy
+        Map<Air, Boolean> changedTemplates = new IdentityHashMap<>();
+
+        for (Section[] row : sections) {
+            for (Section section : row) {
+                Air air = section.getAir();
+                if (air.isShared()) {
+                    if (!changedTemplates.computeIfAbsent(air,
+                            template -> template.copy().changeWeather(change))) {
+                        // The weather leaves the shared air as it is
+                        continue;
+                    }
+                    air = section.mutableAir();
+                }
+                changed |= air.changeWeather(change);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public int movementCost(final int x, final int y) {
+        Section section = sections[x][y];
+        int index = x * width + y;
+
+        if (staleCosts[index]) {
+            movementCosts[index] = section.movementCost();
+            staleCosts[index] = false;
+        } else {
+            // A full evaluation refreshes the air quality of the section as a side
+            // effect (dropping any weather change), so a lookup has to do the same
+            Air air = section.getAir();
+            if (air != null) {
+                air.calculateQuality();
+            }
+        }
+        return movementCosts[index];
+    }
+
+    @Override
+    public void invalidateMovementCost(final int x, final int y) {
+        staleCosts[x * width + y] = true;
+    }
+}
@@ -0,0 +1,53 @@
+package model.environment;
+
+/**
+ * Keeps every {@link CellColumn} in its own primitive array on the Java heap
+ */
+public final class HeapColumnStore implements ColumnStore {
+
+    // One array per column, indexed by the slot of the column and then by section
+    private final double[][] doubles;
+    private final int[][] ints;
+    private final byte[][] bytes;
+
+    /**
+     * Creates the columns for the given number of sections
+     *
+     * @param cells number of sections of the territory
+     */
+    public HeapColumnStore(final int cells) {
+        this.doubles = new double[CellColumn.count(CellColumn.Type.DOUBLE)][cells];
+        this.ints = new int[CellColumn.count(CellColumn.Type.INT)][cells];
+        this.bytes = new byte[CellColumn.count(CellColumn.Type.BYTE)][cells];
+    }
+
+    @Override
+    public double getDouble(final CellColumn column, final int cell) {
+        return doubles[column.getSlot()][cell];
+    }
+
+    @Override
+    public void setDouble(final CellColumn column, final int cell, final double value) {
+        doubles[column.getSlot()][cell] = value;
+    }
+
+    @Override
+    public int getInt(final CellColumn column, final int cell) {
+        return ints[column.getSlot()][cell];
+    }
+
+    @Override
+    public void setInt(final CellColumn column, final int cell, final int value) {
+        ints[column.getSlot()][cell] = value;
+    }
+
+    @Override
+    public byte getByte(final CellColumn column, final int cell) {
+        return bytes[column.getSlot()][cell];
+    }
+
+    @Override
+    public void setByte(final CellColumn column, final int cell, final byte value) {
+        bytes[column.getSlot()][cell] = value;
+    }
+}
@@ -0,0 +1,414 @@
+package model.environment;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every {@link CellColumn} in an off-heap memory segment, outside the reach of
+ * the garbage collector. The columns are packed one after the other, in the order in
+ * which they are declared. The segment is either anonymous memory or a memory-mapped
+ * file, which lets the operating system page the columns of large territories out of
+ * memory.
+ *
+ * <p>A territory file starts with a header giving the dimensions of the territory,
+ * followed by the columns and, once the store is closed, by the string table of the
+ * territory. Scratch files are deleted when the store is closed; files made by
+ * {@link #create(Path, int, int)} are kept and can be mapped again by
+ * {@link #open(Path)}, which only reads the header and the string table.</p>
+ */
+public final class OffHeapColumnStore implements ColumnStore {
+
+    /**
+     * First bytes of every territory file, "TBCS"
+     */
+    private static final int MAGIC = 0x54424353;
+    private static final int VERSION = 1;
+
+    // Layout of the header, padded so that the double columns stay aligned
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int WIDTH_OFFSET = 8;
+    private static final int HEIGHT_OFFSET = 12;
+    private static final int CLOSED_OFFSET = 16;
+    private static final int HEADER_BYTES = 24;
+
+    /**
+     * Number of columns of the territory grid
+     */
+    private final int width;
+
+    /**
+     * Number of rows of the territory grid
+     */
+    private final int height;
+
+    /**
+     * Number of sections covered by every column
+     */
+    private final long cells;
+
+    /**
+     * Start of the first column in the segment, after the header of a file
+     */
+    private final long base;
+
+    /**
+     * Arena owning the segment, closed together with the store
+     */
+    private final Arena arena;
+
+    /**
+     * Backing memory holding the packed columns
+     */
+    private final MemorySegment segment;
+
+    /**
+     * File the segment is mapped onto, null for anonymous memory
+     */
+    private final Path file;
+
+    /**
+     * Whether the file is kept when the store is closed
+     */
+    private final boolean persistent;
+
+    /**
+     * String table read from the file, or handed over to be written when closing
+     */
+    private List<String> strings = List.of();
+
+    private boolean closed;
+
+    private OffHeapColumnStore(final int width, final int height, final long base,
+                               final Arena arena, final MemorySegment segment,
+                               final Path file, final boolean persistent) {
+        this.width = width;
+        this.height = height;
+        this.cells = (long) width * height;
+        this.base = base;
+        this.arena = arena;
+        this.segment = segment;
+        this.file = file;
+        this.persistent = persistent;
+    }
+
+    /**
+     * Allocates zeroed off-heap columns for a territory with the given dimensions. The
+     * memory is released when the store is closed.
+     *
+     * @param width  number of columns
+     * @param height number of rows
+     * @return the new store
+     */
+    public static OffHeapColumnStore allocate(final int width, final int height) {
+        int cells = Territory.cellCount(width, height);
+        Arena arena = Arena.ofShared();
+        MemorySegment segment = arena.allocate(byteSize(cells), Double.BYTES);
+        return new OffHeapColumnStore(width, height, 0, arena, segment, null, false);
+    }
+
+    /**
+     * Maps zeroed columns for a territory with the given dimensions onto a new scratch
+     * file. The file is unmapped and deleted when the store is closed.
+     *
+     * @param directory directory of the file, null for the default temporary directory
+     * @param width     number of columns
+     * @param height    number of rows
+     * @return the new store
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static OffHeapColumnStore map(final Path directory, final int width,
+                                         final int height) throws IOException {
+        Territory.cellCount(width, height);
+        Path file = directory != null
+                ? Files.createTempFile(directory, "territory", ".bin")
+                : Files.createTempFile("territory", ".bin");
+        try {
+            return create(file, width, height, false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Maps zeroed columns for a territory with the given dimensions onto the given
+     * file, replacing its contents. The file is kept when the store is closed, so that
+     * {@link #open(Path)} can map it again.
+     *
+     * @param file   the territory file
+     * @param width  number of columns
+     * @param height number of rows
+     * @return the new store
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static OffHeapColumnStore create(final Path file, final int width,
+                                            final int height) throws IOException {
+        return create(file, width, height, true);
+    }
+
+    /**
+     * Maps the columns of a territory file written by a store made by
+     * {@link #create(Path, int, int)}. The columns are paged in on demand; only the
+     * header and the string table are read up front.
+     *
+     * @param file the territory file
+     * @return the store holding the columns found in the file
+     * @throws IOException if the file cannot be read, was not closed or is corrupt
+     */
+    public static OffHeapColumnStore open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = read(channel, 0, HEADER_BYTES, file);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a territory file: " + file);
+            }
+            int version = header.getInt(VERSION_OFFSET);
+            if (version != VERSION) {
+                throw new IOException("Unsupported territory file version " + version
+                        + ": " + file);
+            }
+            if (header.getInt(CLOSED_OFFSET) == 0) {
+                throw new IOException("Territory file was not closed: " + file);
+            }
+            int width = header.getInt(WIDTH_OFFSET);
+            int height = header.getInt(HEIGHT_OFFSET);
+            long stringsOffset;
+            try {
+                stringsOffset = HEADER_BYTES + byteSize(Territory.cellCount(width, height));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt territory file: " + file, e);
+            }
+            long tableSize = channel.size() - stringsOffset;
+            if (tableSize < Integer.BYTES) {
+                throw new IOException("Truncated territory file: " + file);
+            }
+            if (tableSize > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt territory file: " + file);
+            }
+            List<String> strings = readStrings(read(channel, stringsOffset,
+                    (int) tableSize, file), file);
+
+            OffHeapColumnStore store = map(channel, file, width, height, true);
+            store.strings = strings;
+            return store;
+        }
+    }
+
+    private static OffHeapColumnStore create(final Path file, final int width,
+                                             final int height, final boolean persistent)
+            throws IOException {
+        Territory.cellCount(width, height);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OffHeapColumnStore store = map(channel, file, width, height, persistent);
+            store.segment.set(ValueLayout.JAVA_INT, MAGIC_OFFSET, MAGIC);
+            store.segment.set(ValueLayout.JAVA_INT, VERSION_OFFSET, VERSION);
+            store.segment.set(ValueLayout.JAVA_INT, WIDTH_OFFSET, width);
+            store.segment.set(ValueLayout.JAVA_INT, HEIGHT_OFFSET, height);
+            return store;
+        }
+    }
+
+    /**
+     * Maps the header and the columns of a file, marking it as open until the store
+     * is closed
+     */
+    private static OffHeapColumnStore map(final FileChannel channel, final Path file,
+                                          final int width, final int height,
+                                          final boolean persistent) throws IOException {
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + byteSize((long) width * height), arena);
+            segment.set(ValueLayout.JAVA_INT, CLOSED_OFFSET, 0);
+            return new OffHeapColumnStore(width, height, HEADER_BYTES, arena, segment,
+                    file, persistent);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private static long byteSize(final long cells) {
+        return CellColumn.BYTES_PER_CELL * cells;
+    }
+
+    private long offset(final CellColumn column, final int cell) {
+        return base + column.offset(cells) + (long) cell * column.getType().getBytes();
+    }
+
+    /**
+     * Returns the number of columns of the territory
+     *
+     * @return the width of the territory
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows of the territory
+     *
+     * @return the height of the territory
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public double getDouble(final CellColumn column, final int cell) {
+        return segment.get(ValueLayout.JAVA_DOUBLE, offset(column, cell));
+    }
+
+    @Override
+    public void setDouble(final CellColumn column, final int cell, final double value) {
+        segment.set(ValueLayout.JAVA_DOUBLE, offset(column, cell), value);
+    }
+
+    @Override
+    public int getInt(final CellColumn column, final int cell) {
+        return segment.get(ValueLayout.JAVA_INT, offset(column, cell));
+    }
+
+    @Override
+    public void setInt(final CellColumn column, final int cell, final int value) {
+        segment.set(ValueLayout.JAVA_INT, offset(column, cell), value);
+    }
+
+    @Override
+    public byte getByte(final CellColumn column, final int cell) {
+        return segment.get(ValueLayout.JAVA_BYTE, offset(column, cell));
+    }
+
+    @Override
+    public void setByte(final CellColumn column, final int cell, final byte value) {
+        segment.set(ValueLayout.JAVA_BYTE, offset(column, cell), value);
+    }
+
+    @Override
+    public List<String> loadStrings() {
+        return strings;
+    }
+
+    @Override
+    public void saveStrings(final List<String> table) {
+        this.strings = List.copyOf(table);
+    }
+
+    /**
+     * Writes the columns back to the backing file, if the store is file-backed
+     */
+    public void flush() {
+        if (file != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flushes the columns and releases the memory. A persistent file then receives the
+     * string table and is marked as closed; a scratch file is deleted. Closing a store
+     * twice has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        arena.close();
+        if (file == null) {
+            return;
+        }
+        try {
+            if (persistent) {
+                writeStrings();
+            } else {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the string table after the columns, then marks the file as closed
+     */
+    private void writeStrings() throws IOException {
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        int size = Integer.BYTES;
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            size += Integer.BYTES + bytes.length;
+        }
+        ByteBuffer table = ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+        table.putInt(encoded.size());
+        for (byte[] bytes : encoded) {
+            table.putInt(bytes.length);
+            table.put(bytes);
+        }
+        table.flip();
+
+        long stringsOffset = HEADER_BYTES + byteSize(cells);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            write(channel, stringsOffset, table);
+            channel.truncate(stringsOffset + size);
+            ByteBuffer closedFlag = ByteBuffer.allocate(Integer.BYTES)
+                    .order(ByteOrder.nativeOrder()).putInt(0, 1);
+            write(channel, CLOSED_OFFSET, closedFlag);
+            channel.force(true);
+        }
+    }
+
+    private static List<String> readStrings(final ByteBuffer table, final Path file)
+            throws IOException {
+        try {
+            int count = table.getInt();
+            if (count < 0 || count > table.remaining() / Integer.BYTES) {
+                throw new IOException("Corrupt string table: " + file);
+            }
+            List<String> strings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[table.getInt()];
+                table.get(bytes);
+                strings.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return strings;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt string table: " + file, e);
+        }
+    }
+
+    private static ByteBuffer read(final FileChannel channel, final long position,
+                                   final int size, final Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated territory file: " + file);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void write(final FileChannel channel, final long position,
+                              final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
@@ -31,23 +31,27 @@ public class Section {
         int count = 0;
         double sum = 0;
 
-        sum += addEntityBlockingProbability(soil);
-        if (soil != null) {
+        Soil currentSoil = getSoil();
+        sum += addEntityBlockingProbability(currentSoil);
+        if (currentSoil != null) {
             count++;
         }
 
-        sum += addEntityBlockingProbability(air);
-        if (air != null) {
+        Air currentAir = getAir();
+        sum += addEntityBlockingProbability(currentAir);
+        if (currentAir != null) {
             count++;
         }
 
-        sum += addEntityBlockingProbability(plant);
-        if (plant != null) {
+        Plant currentPlant = getPlant();
+        sum += addEntityBlockingProbability(currentPlant);
+        if (currentPlant != null) {
             count++;
         }
 
-        sum += addEntityBlockingProbability(animal);
-        if (animal != null) {
+        Animal currentAnimal = getAnimal();
+        sum += addEntityBlockingProbability(currentAnimal);
+        if (currentAnimal != null) {
             count++;
         }
 
@@ -59,49 +63,103 @@ public class Section {
         return entity != null ? entity.calculateBlockingProbability() : 0;
     }
 
+    /**
+     * Counts the objects (plant, animal and water) found in this section
+     *
+     * @return number of objects in the section
+     */
+    public int countObjects() {
+        int count = 0;
+        if (getPlant() != null) {
+            count++;
+        }
+        if (getAnimal() != null) {
+            count++;
+        }
+        if (getWater() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the air of this section for modification. A shared air is first
+     * replaced by a private copy, so that the other sections do not see the change.
+     *
+     * @return the air owned by this section
+     */
+    public Air mutableAir() {
+        Air currentAir = getAir();
+        if (currentAir != null && currentAir.isShared()) {
+            currentAir = currentAir.copy();
+            setAir(currentAir);
+        }
+        return currentAir;
+    }
+
+    /**
+     * Returns the soil of this section for modification. A shared soil is first
+     * replaced by a private copy, so that the other sections do not see the change.
+     *
+     * @return the soil owned by this section
+     */
+    public Soil mutableSoil() {
+        Soil currentSoil = getSoil();
+        if (currentSoil != null && currentSoil.isShared()) {
+            currentSoil = currentSoil.copy();
+            setSoil(currentSoil);
+        }
+        return currentSoil;
+    }
+
     /**
      * Feeds the given animal using the resources available in this section.
      *
      * @param waterIntakeRate  the fraction of the animal's mass it can drink as water
      */
     public void feedAnimal(final double waterIntakeRate) {
+        Animal currentAnimal = getAnimal();
+
         // Reset flags at the beginning of each timestamp
-        animal.setAtePlant(false);
-        animal.setDrankWater(false);
+        currentAnimal.setAtePlant(false);
+        currentAnimal.setDrankWater(false);
 
-        boolean drankWater = drinkWater(waterIntakeRate);
-        boolean atePlant = eatPlant();
+        boolean drankWater = drinkWater(currentAnimal, waterIntakeRate);
+        boolean atePlant = eatPlant(currentAnimal);
 
         if (drankWater) {
-            animal.setDrankWater(true);
+            currentAnimal.setDrankWater(true);
         }
         if (atePlant) {
-            animal.setAtePlant(true);
+            currentAnimal.setAtePlant(true);
         }
     }
 
-    private boolean eatPlant() {
-        if (plant == null || !plant.isActive()) {
+    private boolean eatPlant(final Animal currentAnimal) {
+        Plant currentPlant = getPlant();
+        if (currentPlant == null || !currentPlant.isActive()) {
             return false;
         }
 
-        animal.setMass(animal.getMass() + plant.getMass());
-        plant = null;
+        currentAnimal.setMass(currentAnimal.getMass() + currentPlant.getMass());
+        setPlant(null);
         return true;
     }
 
-    private boolean drinkWater(final double waterIntakeRate) {
-        if (water == null || !water.isActive() || water.getMass() == 0) {
+    private boolean drinkWater(final Animal currentAnimal, final double waterIntakeRate) {
+        Water currentWater = getWater();
+        if (currentWater == null || !currentWater.isActive() || currentWater.getMass() == 0) {
             return false;
         }
 
-        double waterToDrink = Math.min(animal.getMass() * waterIntakeRate, water.getMass());
+        double waterToDrink = Math.min(currentAnimal.getMass() * waterIntakeRate,
+                currentWater.getMass());
 
-        animal.setMass(animal.getMass() + waterToDrink);
-        water.setMass(water.getMass() - waterToDrink);
+        currentAnimal.setMass(currentAnimal.getMass() + waterToDrink);
+        currentWater.setMass(currentWater.getMass() - waterToDrink);
 
-        if (water.getMass() == 0) {
-            water = null;
+        if (currentWater.getMass() == 0) {
+            setWater(null);
         }
 
         return true;
@@ -0,0 +1,108 @@
+package model.environment;
+
+import model.entities.QualityLevel;
+import model.entities.air.WeatherChange;
+
+/**
+ * Storage backend holding the sections of a territory. Sections are addressed by
+ * the same (x, y) coordinates used throughout the simulation.
+ */
+public interface SectionStore extends AutoCloseable {
+    /**
+     * Returns the section found at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the section, or null if the backend has not created it
+     */
+    Section getSection(int x, int y);
+
+    /**
+     * Returns the section found at the given coordinates, creating it if necessary
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the section at the given coordinates
+     */
+    Section ensureSection(int x, int y);
+
+    /**
+     * Computes the air quality level of the section found at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the quality level of the air of the section
+     */
+    default QualityLevel airQualityLevel(final int x, final int y) {
+        return getSection(x, y).getAir().airQualityLevel();
+    }
+
+    /**
+     * Computes the soil quality level of the section found at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the quality level of the soil of the section
+     */
+    default QualityLevel soilQualityLevel(final int x, final int y) {
+        return getSection(x, y).getSoil().soilQualityLevel();
+    }
+
+    /**
+     * Counts the plants, animals and water found in the section at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return number of objects in the section
+     */
+    default int countObjects(final int x, final int y) {
+        return getSection(x, y).countObjects();
+    }
+
+    /**
+     * Applies a weather change to the air of every section
+     *
+     * @param change the requested change
+     * @return true if the air quality of at least one section changed
+     */
+    boolean changeWeather(WeatherChange change);
+
+    /**
+     * Returns the movement cost of the section found at the given coordinates.
+     * Backends may keep the cost until {@link #invalidateMovementCost(int, int)} is
+     * called; a kept cost is returned after refreshing the air quality of the section,
+     * which a full evaluation does as a side effect.
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return movement cost for TerraBot entering the section
+     */
+    default int movementCost(final int x, final int y) {
+        return getSection(x, y).movementCost();
+    }
+
+    /**
+     * Marks the movement cost of a section as stale, after one of its entities changed
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     */
+    default void invalidateMovementCost(final int x, final int y) {
+    }
+
+    /**
+     * Ends the use of the sections returned so far. Backends that build their sections
+     * on demand write them back and drop them; the entities read from them must not be
+     * used afterwards.
+     */
+    default void release() {
+    }
+
+    /**
+     * Releases the memory and the files held by the backend once the territory is no
+     * longer used
+     */
+    @Override
+    default void close() {
+    }
+}
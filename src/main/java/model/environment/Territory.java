@@ -1,6 +1,12 @@
 package model.environment;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import model.entities.QualityLevel;
+import model.entities.air.WeatherChange;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Represents the entire territory explored by TerraBot
@@ -19,9 +25,10 @@ public class Territory {
     private final int height;
 
     /**
-     * Two-dimensional grid of sections
+     * Storage backend holding the sections
      */
-    private final Section[][] sections;
+    @Getter(AccessLevel.NONE)
+    private final SectionStore store;
 
     /**
      * Creates a territory with the given dimensions.
@@ -30,8 +37,192 @@ public class Territory {
      * @param height number of rows
      */
     public Territory(final int width, final int height) {
+        this(width, height, new GridSectionStore(width, height));
+    }
+
+    /**
+     * Creates a territory with the given dimensions, keeping its sections in the
+     * given storage backend.
+     *
+     * @param width  number of columns
+     * @param height number of rows
+     * @param store  storage backend for the sections
+     */
+    public Territory(final int width, final int height, final SectionStore store) {
+        cellCount(width, height);
         this.width = width;
         this.height = height;
-        this.sections = new Section[height][width];
+        this.store = store;
+    }
+
+    /**
+     * Creates an empty territory whose sections are kept in a memory-mapped file. The
+     * file is kept when the territory is closed, and can be mapped again by
+     * {@link #open(Path)}.
+     *
+     * @param file   the territory file, replaced if it exists
+     * @param width  number of columns
+     * @param height number of rows
+     * @return the new territory
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static Territory create(final Path file, final int width, final int height)
+            throws IOException {
+        return new Territory(width, height, new ColumnarSectionStore(width, height,
+                OffHeapColumnStore.create(file, width, height)));
+    }
+
+    /**
+     * Maps again a territory kept in a file by {@link #create(Path, int, int)} and
+     * closed since. Its sections are only read from the file when they are used.
+     *
+     * @param file the territory file
+     * @return the territory found in the file
+     * @throws IOException if the file cannot be read, was not closed or is corrupt
+     */
+    public static Territory open(final Path file) throws IOException {
+        OffHeapColumnStore columns = OffHeapColumnStore.open(file);
+        return new Territory(columns.getWidth(), columns.getHeight(),
+                new ColumnarSectionStore(columns.getWidth(), columns.getHeight(), columns));
+    }
+
+    /**
+     * Counts the sections of a territory with the given dimensions. Sections are
+     * addressed by an int flat index, so a territory may hold at most
+     * {@link Integer#MAX_VALUE} of them.
+     *
+     * @param width  number of columns
+     * @param height number of rows
+     * @return number of sections
+     * @throws IllegalArgumentException if a dimension is not positive or the territory
+     *                                  holds too many sections
+     */
+    public static int cellCount(final int width, final int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid territory dimensions: "
+                    + width + "x" + height);
+        }
+        try {
+            return Math.multiplyExact(width, height);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Territory too large: " + width + "x" + height
+                    + " exceeds " + Integer.MAX_VALUE + " sections", e);
+        }
+    }
+
+    /**
+     * Returns the section found at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the section at the given coordinates
+     */
+    public Section getSection(final int x, final int y) {
+        return store.getSection(x, y);
+    }
+
+    /**
+     * Returns the section found at the given coordinates, creating it if necessary
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the section at the given coordinates
+     */
+    public Section ensureSection(final int x, final int y) {
+        return store.ensureSection(x, y);
+    }
+
+    /**
+     * Computes the air quality level of the section found at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the quality level of the air of the section
+     */
+    public QualityLevel airQualityLevel(final int x, final int y) {
+        return store.airQualityLevel(x, y);
+    }
+
+    /**
+     * Computes the soil quality level of the section found at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return the quality level of the soil of the section
+     */
+    public QualityLevel soilQualityLevel(final int x, final int y) {
+        return store.soilQualityLevel(x, y);
+    }
+
+    /**
+     * Counts the plants, animals and water found in the section at the given coordinates
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return number of objects in the section
+     */
+    public int countObjects(final int x, final int y) {
+        return store.countObjects(x, y);
+    }
+
+    /**
+     * Applies a weather change to the air of every section
+     *
+     * @param change the requested change
+     * @return true if the air quality of at least one section changed
+     */
+    public boolean changeWeather(final WeatherChange change) {
+        return store.changeWeather(change);
+    }
+
+    /**
+     * Ends the use of the sections returned so far. Backends that build their sections
+     * on demand write them back to their storage and drop them, so the sections and
+     * entities read before must not be used afterwards.
+     */
+    public void release() {
+        store.release();
+    }
+
+    /**
+     * Releases the memory and the files held by the storage backend. The territory
+     * must not be used afterwards.
+     */
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * Computes the flat index of the section found at sections[x][y]
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return flat section index
+     */
+    public int indexOf(final int x, final int y) {
+        return x * width + y;
+    }
+
+    /**
+     * Returns the movement cost of the section at the given coordinates. The cost is
+     * only recomputed after the section has been invalidated; otherwise the value kept
+     * by the storage backend is returned.
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     * @return movement cost for TerraBot entering the section
+     */
+    public int movementCost(final int x, final int y) {
+        return store.movementCost(x, y);
+    }
+
+    /**
+     * Marks the movement cost of a section as stale, after one of its entities changed
+     *
+     * @param x first grid coordinate
+     * @param y second grid coordinate
+     */
+    public void invalidateMovementCost(final int x, final int y) {
+        store.invalidateMovementCost(x, y);
     }
 }
@@ -0,0 +1,106 @@
+package model.environment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Storage backends available for the sections of a territory
+ */
+public enum TerritoryBackend {
+    /**
+     * One {@link Section} object per cell, kept in a two-dimensional grid
+     */
+    GRID {
+        @Override
+        public SectionStore createStore(final int width, final int height) {
+            return new GridSectionStore(width, height);
+        }
+
+        @Override
+        public boolean sharesEntities() {
+            return true;
+        }
+    },
+
+    /**
+     * Primitive columns holding the type, name and attributes of every entity, indexed
+     * by section
+     */
+    COLUMNAR {
+        @Override
+        public SectionStore createStore(final int width, final int height) {
+            return new ColumnarSectionStore(width, height);
+        }
+    },
+
+    /**
+     * Columnar backend keeping its columns in off-heap memory
+     */
+    OFF_HEAP {
+        @Override
+        public SectionStore createStore(final int width, final int height) {
+            return new ColumnarSectionStore(width, height,
+                    OffHeapColumnStore.allocate(width, height));
+        }
+    },
+
+    /**
+     * Columnar backend keeping its columns in a memory-mapped scratch file, created in
+     * the directory given by {@link #DIRECTORY_PROPERTY} or in the default temporary
+     * directory. The file is deleted when the territory is closed; territories meant
+     * to be opened again are kept in files made by {@link Territory#create}.
+     */
+    MAPPED {
+        @Override
+        public SectionStore createStore(final int width, final int height) {
+            String directory = System.getProperty(DIRECTORY_PROPERTY);
+            try {
+                return new ColumnarSectionStore(width, height, OffHeapColumnStore.map(
+                        directory != null ? Path.of(directory) : null, width, height));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    };
+
+    /**
+     * System property selecting the backend used for new territories
+     */
+    public static final String PROPERTY = "terrabot.territory";
+
+    /**
+     * System property naming the directory of the files used by {@link #MAPPED}
+     */
+    public static final String DIRECTORY_PROPERTY = "terrabot.territory.dir";
+
+    /**
+     * Creates an empty section store with the given dimensions
+     *
+     * @param width  number of columns
+     * @param height number of rows
+     * @return a new section store
+     * @throws IllegalArgumentException if the territory holds more sections than an
+     *                                  int index can address
+     */
+    public abstract SectionStore createStore(int width, int height);
+
+    /**
+     * Tells whether one air or soil object may be shared by several sections. Columnar
+     * backends copy every entity into the columns of its section, so they cannot.
+     *
+     * @return true if sections may share their air and soil
+     */
+    public boolean sharesEntities() {
+        return false;
+    }
+
+    /**
+     * Returns the backend selected through the {@link #PROPERTY} system property
+     *
+     * @return the configured backend, {@link #GRID} if none is set
+     */
+    public static TerritoryBackend fromSystemProperty() {
+        return valueOf(System.getProperty(PROPERTY, GRID.name()));
+    }
+}
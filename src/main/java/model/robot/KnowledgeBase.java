@@ -1,27 +1,32 @@
 package model.robot;
 
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Represents TerraBot's knowledge base of learned facts
+ * Represents TerraBot's knowledge base of learned facts. Topics are kept in a hash
+ * index that remembers the order in which they were first learned.
  */
-@Data
+@EqualsAndHashCode
+@ToString
 public class KnowledgeBase {
+
     /**
-     * List of topics (component names)
+     * First word of the facts describing an improvement method
      */
-    private ArrayList<String> topics;
+    private static final String METHOD_WORD = "Method";
 
     /**
-     * List of lists: facts.get(i) contains all facts for topics.get(i)
+     * Facts of every topic (component name), in insertion order
      */
-    private ArrayList<ArrayList<String>> facts;
-
-    public KnowledgeBase() {
-        this.topics = new ArrayList<>();
-        this.facts = new ArrayList<>();
-    }
+    private final Map<String, Topic> topics = new LinkedHashMap<>();
 
     /**
      * Adds a fact to the knowledge base under the given topic
@@ -30,24 +35,20 @@ public class KnowledgeBase {
      * @param fact  the fact (subject) to add
      */
     public void addFact(final String topic, final String fact) {
-        // Find if topic already exists
-        int topicIndex = -1;
-        for (int i = 0; i < topics.size(); i++) {
-            if (topics.get(i).equals(topic)) {
-                topicIndex = i;
-                break;
-            }
-        }
-
-        // If topic doesn't exist, create it
-        if (topicIndex == -1) {
-            topics.add(topic);
-            facts.add(new ArrayList<>());
-            topicIndex = topics.size() - 1;
+        Topic entry = topics.computeIfAbsent(topic, key -> new Topic());
+        entry.facts.add(fact);
+        if (isMethodFact(fact)) {
+            entry.hasImprovementFact = true;
         }
+    }
 
-        // Add fact to the topic's list
-        facts.get(topicIndex).add(fact);
+    /**
+     * Returns the topics, in the order in which they were first learned
+     *
+     * @return read-only view of the topics
+     */
+    public Set<String> getTopics() {
+        return Collections.unmodifiableSet(topics.keySet());
     }
 
     /**
@@ -56,13 +57,9 @@ public class KnowledgeBase {
      * @param topic the topic
      * @return list of facts, or empty list if topic doesn't exist
      */
-    public ArrayList<String> getFacts(final String topic) {
-        for (int i = 0; i < topics.size(); i++) {
-            if (topics.get(i).equals(topic)) {
-                return facts.get(i);
-            }
-        }
-        return new ArrayList<>();
+    public List<String> getFacts(final String topic) {
+        Topic entry = topics.get(topic);
+        return entry != null ? entry.facts : new ArrayList<>();
     }
 
     /**
@@ -72,17 +69,39 @@ public class KnowledgeBase {
      * @return true if an improvement fact exists, false otherwise
      */
     public boolean hasImprovementFact(final String topic) {
-        ArrayList<String> topicFacts = getFacts(topic);
-        if (topicFacts.isEmpty()) {
+        Topic entry = topics.get(topic);
+        return entry != null && entry.hasImprovementFact;
+    }
+
+    /**
+     * Tells whether the first word of a fact, up to the first whitespace, is "Method"
+     */
+    private static boolean isMethodFact(final String fact) {
+        if (fact == null || !fact.startsWith(METHOD_WORD)) {
             return false;
         }
+        return fact.length() == METHOD_WORD.length()
+                || isWhitespace(fact.charAt(METHOD_WORD.length()));
+    }
 
-        for (String fact : topicFacts) {
-            String firstWord = fact.split("\\s")[0];
-            if (firstWord.equals("Method")) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Matches the characters of the {@code \s} regular expression class
+     */
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Facts learned about a single topic
+     */
+    @EqualsAndHashCode
+    @ToString
+    private static final class Topic {
+        private final List<String> facts = new ArrayList<>();
+
+        /**
+         * Whether one of the facts describes an improvement method
+         */
+        private boolean hasImprovementFact;
     }
 }
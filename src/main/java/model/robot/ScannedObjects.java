@@ -0,0 +1,82 @@
+package model.robot;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Names of the objects scanned by TerraBot, kept as a counted multiset: scanning the
+ * same object again only increases its count, so memory grows with the number of
+ * distinct names rather than with the number of scans.
+ */
+@EqualsAndHashCode
+@ToString
+public class ScannedObjects {
+
+    /**
+     * Number of times every name is currently held
+     */
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    /**
+     * Records one scan of the given object
+     *
+     * @param name name of the scanned object
+     */
+    public void add(final String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Records several scans of the given object
+     *
+     * @param name        name of the scanned object
+     * @param occurrences number of scans to record
+     */
+    public void add(final String name, final int occurrences) {
+        if (occurrences > 0) {
+            counts.merge(name, occurrences, Integer::sum);
+        }
+    }
+
+    /**
+     * Checks whether the given object has been scanned and not yet used up
+     *
+     * @param name name of the object
+     * @return true if at least one occurrence is held
+     */
+    public boolean contains(final String name) {
+        return counts.containsKey(name);
+    }
+
+    /**
+     * Removes a single occurrence of the given object
+     *
+     * @param name name of the object
+     * @return true if an occurrence was removed
+     */
+    public boolean remove(final String name) {
+        Integer count = counts.get(name);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            counts.remove(name);
+        } else {
+            counts.put(name, count - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of occurrences held for every name
+     *
+     * @return read-only view of the counts
+     */
+    public Map<String, Integer> counts() {
+        return Collections.unmodifiableMap(counts);
+    }
+}
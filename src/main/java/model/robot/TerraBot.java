@@ -4,7 +4,6 @@ import lombok.Data;
 import model.environment.Section;
 import model.environment.Territory;
 import model.position.Position;
-import java.util.ArrayList;
 
 /**
  * Represents the TerraBot robot exploring the territory
@@ -30,7 +29,7 @@ public class TerraBot {
     /**
      * Objects that have been scanned
      */
-    private ArrayList<String> scannedObjects;
+    private ScannedObjects scannedObjects;
 
     /**
      * Creates a robot with the given starting position and energy
@@ -42,7 +41,7 @@ public class TerraBot {
         this.position = position;
         this.energyPoints = energyPoints;
         this.knowledgeBase = new KnowledgeBase();
-        this.scannedObjects = new ArrayList<>();
+        this.scannedObjects = new ScannedObjects();
     }
 
     /**
@@ -52,6 +51,6 @@ public class TerraBot {
      * @return the current section
      */
     public Section getCurrentSection(final Territory territory) {
-        return territory.getSections()[position.getX()][position.getY()];
+        return territory.getSection(position.getX(), position.getY());
     }
 }
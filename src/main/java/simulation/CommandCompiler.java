@@ -0,0 +1,43 @@
+package simulation;
+
+import fileio.CommandInput;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns parsed commands into {@link CompiledCommand}s. Command names come from the
+ * closed set of {@link CommandType}s. Entity names repeated within a simulation are
+ * interned, so every compiled command refers to the same instance and comparing them
+ * mostly stops at the identity check; the interned names are dropped whenever a new
+ * simulation starts, so they stay bounded by the entities of one simulation. Free-form
+ * text, such as the subject of a fact, is never interned.
+ */
+public class CommandCompiler {
+
+    /**
+     * Shared instance of every entity name seen since the current simulation started
+     */
+    private final Map<String, String> names = new HashMap<>();
+
+    /**
+     * Compiles a single command
+     *
+     * @param input the parsed command
+     * @return the compiled command
+     */
+    public CompiledCommand compile(final CommandInput input) {
+        if (CommandType.fromName(input.getCommand()) == CommandType.START_SIMULATION) {
+            names.clear();
+        }
+        return new CompiledCommand(input, this::intern);
+    }
+
+    private String intern(final String name) {
+        if (name == null) {
+            return null;
+        }
+        String shared = names.putIfAbsent(name, name);
+        return shared != null ? shared : name;
+    }
+}
@@ -0,0 +1,108 @@
+package simulation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue handing the commands of a segment from the thread reading the input to
+ * the thread running the simulation, so that the simulation starts as soon as its
+ * first command is read. The reader waits while the queue is full.
+ */
+final class CommandQueue {
+    private final int capacity;
+    private final Deque<CompiledCommand> commands = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Set once the reader has added the last command of the segment
+     */
+    private boolean closed;
+
+    /**
+     * Set once the simulation has stopped taking commands
+     */
+    private boolean abandoned;
+
+    /**
+     * Creates an empty queue
+     *
+     * @param capacity number of commands the queue holds before the reader waits
+     */
+    CommandQueue(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a command, waiting while the queue is full. Commands added after the
+     * simulation has stopped are dropped.
+     *
+     * @param command the command to add
+     * @throws InterruptedException if the reader is interrupted while waiting
+     */
+    void put(final CompiledCommand command) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (commands.size() >= capacity && !abandoned) {
+                notFull.await();
+            }
+            if (!abandoned) {
+                commands.add(command);
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tells the simulation that no command follows the ones already added
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the next command, waiting until one is added
+     *
+     * @return the next command, null once the queue is closed and empty
+     * @throws InterruptedException if the simulation is interrupted while waiting
+     */
+    CompiledCommand take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (commands.isEmpty() && !closed) {
+                notEmpty.await();
+            }
+            CompiledCommand command = commands.poll();
+            notFull.signal();
+            return command;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the queue from the side of the simulation, dropping the commands left in it
+     * and releasing a reader waiting for room
+     */
+    void abandon() {
+        lock.lock();
+        try {
+            abandoned = true;
+            commands.clear();
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package simulation;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Commands understood by a simulation, decoded from their names once, before they are
+ * executed
+ */
+public enum CommandType {
+    START_SIMULATION("startSimulation"),
+    END_SIMULATION("endSimulation"),
+    PRINT_ENV_CONDITIONS("printEnvConditions"),
+    PRINT_MAP("printMap"),
+    MOVE_ROBOT("moveRobot"),
+    SCAN_OBJECT("scanObject"),
+    LEARN_FACT("learnFact"),
+    IMPROVE_ENVIRONMENT("improveEnvironment"),
+    CHANGE_WEATHER_CONDITIONS("changeWeatherConditions"),
+    RECHARGE_BATTERY("rechargeBattery"),
+    GET_ENERGY_STATUS("getEnergyStatus"),
+    PRINT_KNOWLEDGE_BASE("printKnowledgeBase"),
+
+    /**
+     * Any command name the simulation does not know
+     */
+    UNKNOWN(null);
+
+    private static final Map<String, CommandType> BY_NAME = new HashMap<>();
+
+    static {
+        for (CommandType type : values()) {
+            if (type.commandName != null) {
+                BY_NAME.put(type.commandName, type);
+            }
+        }
+    }
+
+    /**
+     * Name of the command in the input
+     */
+    @Getter
+    private final String commandName;
+
+    CommandType(final String commandName) {
+        this.commandName = commandName;
+    }
+
+    /**
+     * Returns the command type with the given name
+     *
+     * @param name name of the command in the input
+     * @return the matching type, {@link #UNKNOWN} if there is none
+     */
+    public static CommandType fromName(final String name) {
+        return BY_NAME.getOrDefault(name, UNKNOWN);
+    }
+}
@@ -0,0 +1,69 @@
+package simulation;
+
+import fileio.CommandInput;
+import lombok.Getter;
+import model.entities.air.WeatherChange;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * A command decoded for execution: its type and flags are resolved once, so executing
+ * it needs no string comparisons
+ */
+@Getter
+public final class CompiledCommand {
+    private static final String NONE = "none";
+    private static final String SPRING = "Spring";
+
+    private final CommandType type;
+
+    /**
+     * Name of the command, as written to the output
+     */
+    private final String command;
+    private final int timestamp;
+    private final int timeToCharge;
+
+    // Scan attributes, true when the input gives "none"
+    private final boolean soundNone;
+    private final boolean colorNone;
+    private final boolean smellNone;
+
+    private final String components;
+    private final String subject;
+    private final String name;
+    private final ImprovementType improvementType;
+
+    /**
+     * Weather change requested by the command, null for other commands
+     */
+    private final WeatherChange weatherChange;
+
+    /**
+     * Decodes the given command
+     *
+     * @param input  the parsed command
+     * @param intern returns the shared instance of an entity name
+     */
+    CompiledCommand(final CommandInput input, final UnaryOperator<String> intern) {
+        this.type = CommandType.fromName(input.getCommand());
+        this.command = type != CommandType.UNKNOWN ? type.getCommandName() : input.getCommand();
+        this.timestamp = input.getTimestamp();
+        this.timeToCharge = input.getTimeToCharge();
+        this.soundNone = NONE.equals(input.getSound());
+        this.colorNone = NONE.equals(input.getColor());
+        this.smellNone = NONE.equals(input.getSmell());
+        this.components = intern.apply(input.getComponents());
+        this.subject = input.getSubject();
+        this.name = intern.apply(input.getName());
+        this.improvementType = ImprovementType.fromName(input.getImprovementType());
+
+        if (type == CommandType.CHANGE_WEATHER_CONDITIONS) {
+            this.weatherChange = new WeatherChange(input.getRainfall(), input.getWindSpeed(),
+                    input.isDesertStorm(), input.getNumberOfHikers(),
+                    SPRING.equalsIgnoreCase(input.getSeason()));
+        } else {
+            this.weatherChange = null;
+        }
+    }
+}
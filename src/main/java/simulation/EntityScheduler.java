@@ -0,0 +1,134 @@
+package simulation;
+
+import java.util.BitSet;
+
+/**
+ * Keeps track of the territory sections that contain active entities, so that
+ * a simulation tick only visits the sections that actually have work due.
+ * Sections are identified by their row-major index in the territory grid and
+ * are visited in ascending order, the same order used by a full grid scan. The
+ * schedule is a bitmap over the section indices, so scheduling and finding the next
+ * section neither allocate nor follow pointers.
+ */
+public class EntityScheduler {
+
+    /**
+     * Number of columns of the scheduled grid, used to encode section indices
+     */
+    private final int width;
+
+    /**
+     * Row-major indices of the sections that may hold active entities
+     */
+    private final BitSet activeSections;
+
+    /**
+     * Number of set bits in {@link #activeSections}
+     */
+    private int size;
+
+    /**
+     * Creates a scheduler for a grid with the given number of columns
+     *
+     * @param width number of columns of the territory grid
+     */
+    public EntityScheduler(final int width) {
+        this.width = width;
+        this.activeSections = new BitSet();
+    }
+
+    /**
+     * Marks the section at the given grid coordinates as holding an active entity
+     *
+     * @param row row index in the section grid
+     * @param col column index in the section grid
+     */
+    public void schedule(final int row, final int col) {
+        int index = row * width + col;
+        if (!activeSections.get(index)) {
+            activeSections.set(index);
+            size++;
+        }
+    }
+
+    /**
+     * Removes the section from the schedule once it no longer holds active entities
+     *
+     * @param index row-major index of the section
+     */
+    public void unschedule(final int index) {
+        if (activeSections.get(index)) {
+            activeSections.clear(index);
+            size--;
+        }
+    }
+
+    /**
+     * Returns the first scheduled section strictly after the given one. Sections
+     * scheduled during a tick after the current one are therefore still visited
+     * in the same tick, exactly like in a full grid scan.
+     *
+     * @param index row-major index of the current section, or -1 to start a tick
+     * @return index of the next scheduled section, or -1 if there is none
+     */
+    public int nextSection(final int index) {
+        return activeSections.nextSetBit(index + 1);
+    }
+
+    /**
+     * Indicates whether the given section is currently scheduled
+     *
+     * @param index row-major index of the section
+     * @return true if the section may hold active entities
+     */
+    public boolean isScheduled(final int index) {
+        return activeSections.get(index);
+    }
+
+    /**
+     * Returns a snapshot of the scheduled sections, in ascending order
+     *
+     * @return row-major indices of the scheduled sections
+     */
+    public int[] scheduledSections() {
+        return activeSections.stream().toArray();
+    }
+
+    /**
+     * Indicates whether any section currently has work scheduled
+     *
+     * @return true if at least one section holds active entities
+     */
+    public boolean hasActiveSections() {
+        return size != 0;
+    }
+
+    /**
+     * Counts the sections holding active entities
+     *
+     * @return number of scheduled sections
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes the row of a row-major section index
+     *
+     * @param index row-major index of the section
+     * @return row index in the section grid
+     */
+    public int rowOf(final int index) {
+        return index / width;
+    }
+
+    /**
+     * Decodes the column of a row-major section index
+     *
+     * @param index row-major index of the section
+     * @return column index in the section grid
+     */
+    public int colOf(final int index) {
+        return index % width;
+    }
+}
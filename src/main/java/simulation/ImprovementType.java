@@ -0,0 +1,48 @@
+package simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Improvements the robot can apply to its current section
+ */
+public enum ImprovementType {
+    PLANT_VEGETATION("plantVegetation"),
+    FERTILIZE_SOIL("fertilizeSoil"),
+    INCREASE_HUMIDITY("increaseHumidity"),
+    INCREASE_MOISTURE("increaseMoisture"),
+
+    /**
+     * Any improvement the robot does not support
+     */
+    UNSUPPORTED(null);
+
+    private static final Map<String, ImprovementType> BY_NAME = new HashMap<>();
+
+    static {
+        for (ImprovementType type : values()) {
+            if (type.improvementName != null) {
+                BY_NAME.put(type.improvementName, type);
+            }
+        }
+    }
+
+    /**
+     * Name of the improvement in the input
+     */
+    private final String improvementName;
+
+    ImprovementType(final String improvementName) {
+        this.improvementName = improvementName;
+    }
+
+    /**
+     * Returns the improvement with the given name
+     *
+     * @param name name of the improvement in the input
+     * @return the matching improvement, {@link #UNSUPPORTED} if there is none
+     */
+    public static ImprovementType fromName(final String name) {
+        return BY_NAME.getOrDefault(name, UNSUPPORTED);
+    }
+}
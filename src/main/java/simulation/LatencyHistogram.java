@@ -0,0 +1,137 @@
+package simulation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds, with buckets laid out like an HDR histogram:
+ * values below {@value #SUB_BUCKETS} have a bucket each, larger values share a bucket
+ * with the values that agree on their {@value #SUB_BUCKET_BITS} highest bits, so every
+ * bucket is narrower than 1% of the values it holds. Recording only updates atomic
+ * counters and can be done from any number of threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HIGHEST_BIT = Long.SIZE - 2;
+    private static final int BUCKETS = SUB_BUCKETS
+            + (HIGHEST_BIT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_FIELDS = {"p50", "p90", "p99", "p999"};
+    private static final double HUNDRED = 100;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single duration
+     *
+     * @param nanos the duration in nanoseconds; negative values are recorded as 0
+     */
+    public void record(final long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of recorded durations
+     *
+     * @return the number of durations
+     */
+    public long getCount() {
+        long total = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            total += counts.get(index);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the longest recorded duration
+     *
+     * @return the longest duration in nanoseconds, 0 if none was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded durations
+     *
+     * @return the mean in nanoseconds, 0 if none was recorded
+     */
+    public double getMean() {
+        long recorded = getCount();
+        return recorded == 0 ? 0 : (double) sum.sum() / recorded;
+    }
+
+    /**
+     * Returns the duration below which the given percentage of the recorded durations
+     * fall, rounded up to the end of its bucket
+     *
+     * @param percentile the percentage, between 0 and 100
+     * @return the duration in nanoseconds, 0 if none was recorded
+     */
+    public long valueAtPercentile(final double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / HUNDRED * total));
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(index), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Writes the count, mean, maximum and main percentiles as the fields of the
+     * current object
+     *
+     * @param generator the generator receiving the fields
+     * @throws IOException if the fields cannot be written
+     */
+    public void writeFields(final JsonGenerator generator) throws IOException {
+        generator.writeNumberField("count", getCount());
+        generator.writeNumberField("meanNanos", Math.round(getMean()));
+        for (int k = 0; k < PERCENTILES.length; k++) {
+            generator.writeNumberField(PERCENTILE_FIELDS[k] + "Nanos",
+                    valueAtPercentile(PERCENTILES[k]));
+        }
+        generator.writeNumberField("maxNanos", getMax());
+    }
+
+    private static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = HIGHEST_BIT + 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
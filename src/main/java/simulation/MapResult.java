@@ -0,0 +1,109 @@
+package simulation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import model.entities.QualityLevel;
+import model.environment.Territory;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Result of the printMap command. The sections are written while the territory is
+ * traversed, using pre-encoded field names and quality messages, so that writing a
+ * section to a generator allocates nothing.
+ */
+public final class MapResult extends JsonSerializable.Base {
+
+    private static final SerializableString OUTPUT = new SerializedString("output");
+    private static final SerializableString SECTION = new SerializedString("section");
+    private static final SerializableString TOTAL_OBJECTS =
+            new SerializedString("totalNrOfObjects");
+    private static final SerializableString AIR_QUALITY = new SerializedString("airQuality");
+    private static final SerializableString SOIL_QUALITY =
+            new SerializedString("soilQuality");
+
+    /**
+     * Pre-encoded message of every quality level, indexed by its ordinal
+     */
+    private static final SerializableString[] QUALITY_MESSAGES;
+
+    static {
+        QualityLevel[] levels = QualityLevel.values();
+        QUALITY_MESSAGES = new SerializableString[levels.length];
+        for (QualityLevel level : levels) {
+            QUALITY_MESSAGES[level.ordinal()] = new SerializedString(level.getMessage());
+        }
+    }
+
+    /**
+     * The territory to print
+     */
+    private final Territory territory;
+
+    /**
+     * The fields written before the map
+     */
+    private final ObjectNode header;
+
+    /**
+     * Creates the result of a printMap command
+     *
+     * @param territory the territory to print
+     * @param header    the fields written before the map
+     */
+    public MapResult(final Territory territory, final ObjectNode header) {
+        this.territory = territory;
+        this.header = header;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator gen, final SerializerProvider serializers)
+            throws IOException {
+        gen.writeStartObject();
+        for (Map.Entry<String, JsonNode> field : header.properties()) {
+            gen.writeFieldName(field.getKey());
+            field.getValue().serialize(gen, serializers);
+        }
+
+        gen.writeFieldName(OUTPUT);
+        gen.writeStartArray();
+        for (int i = 0; i < territory.getHeight(); i++) {
+            for (int j = 0; j < territory.getWidth(); j++) {
+                writeSection(gen, j, i);
+            }
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void writeSection(final JsonGenerator gen, final int x, final int y)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(SECTION);
+        gen.writeStartArray();
+        gen.writeNumber(x);
+        gen.writeNumber(y);
+        gen.writeEndArray();
+        gen.writeFieldName(TOTAL_OBJECTS);
+        gen.writeNumber(territory.countObjects(x, y));
+        gen.writeFieldName(AIR_QUALITY);
+        gen.writeString(QUALITY_MESSAGES[territory.airQualityLevel(x, y).ordinal()]);
+        gen.writeFieldName(SOIL_QUALITY);
+        gen.writeString(QUALITY_MESSAGES[territory.soilQualityLevel(x, y).ordinal()]);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator gen,
+                                  final SerializerProvider serializers,
+                                  final TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -0,0 +1,217 @@
+package simulation;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of a run: the latency of every command type, of
+ * building and of running every simulation, and the work done by the entity updates.
+ * Every recording method may be called from any thread. The {@link #DISABLED}
+ * registry records nothing, and the instrumented code skips measuring time for it.
+ */
+public final class MetricsRegistry {
+
+    /**
+     * System property holding the path of the report written at the end of a run;
+     * metrics are only recorded when it is set
+     */
+    public static final String PROPERTY = "terrabot.metrics";
+
+    /**
+     * Registry that ignores every recording
+     */
+    public static final MetricsRegistry DISABLED = new MetricsRegistry(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[] commandLatencies =
+            new LatencyHistogram[CommandType.values().length];
+    private final LatencyHistogram buildLatency = new LatencyHistogram();
+    private final LatencyHistogram simulationLatency = new LatencyHistogram();
+
+    /**
+     * Timestamps through which the active entities were advanced
+     */
+    private final LongAdder ticks = new LongAdder();
+
+    /**
+     * Updates of a single section, at a single timestamp or fast-forwarded at once
+     */
+    private final LongAdder cellsVisited = new LongAdder();
+
+    /**
+     * Active entities advanced by the section updates
+     */
+    private final LongAdder entitiesUpdated = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+
+    /**
+     * Creates an empty registry that records everything
+     */
+    public MetricsRegistry() {
+        this(true);
+    }
+
+    private MetricsRegistry(final boolean enabled) {
+        this.enabled = enabled;
+        for (int k = 0; k < commandLatencies.length; k++) {
+            commandLatencies[k] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Returns a new registry if the {@link #PROPERTY} system property is set,
+     * {@link #DISABLED} otherwise
+     *
+     * @return the registry of a run
+     */
+    public static MetricsRegistry fromSystemProperty() {
+        return System.getProperty(PROPERTY) != null ? new MetricsRegistry() : DISABLED;
+    }
+
+    /**
+     * Tells whether recordings are kept, so that callers can skip reading the clock
+     *
+     * @return false for the {@link #DISABLED} registry
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the execution of a command
+     *
+     * @param type  the type of the command
+     * @param nanos the execution time, including the updates of the entities
+     */
+    public void recordCommand(final CommandType type, final long nanos) {
+        if (enabled) {
+            commandLatencies[type.ordinal()].record(nanos);
+        }
+    }
+
+    /**
+     * Records the building of a simulation
+     *
+     * @param nanos the build time
+     */
+    public void recordBuild(final long nanos) {
+        if (enabled) {
+            buildLatency.record(nanos);
+        }
+    }
+
+    /**
+     * Records the run of a simulation, from its start to its end command
+     *
+     * @param nanos the run time
+     */
+    public void recordSimulation(final long nanos) {
+        if (enabled) {
+            simulationLatency.record(nanos);
+        }
+    }
+
+    /**
+     * Records timestamps through which the active entities were advanced
+     *
+     * @param count the number of timestamps
+     */
+    public void recordTicks(final int count) {
+        if (enabled) {
+            ticks.add(count);
+        }
+    }
+
+    /**
+     * Records the update of a section
+     *
+     * @param entities the number of active entities updated
+     */
+    public void recordSectionUpdate(final int entities) {
+        if (enabled) {
+            cellsVisited.increment();
+            entitiesUpdated.add(entities);
+        }
+    }
+
+    /**
+     * Records output written by a run
+     *
+     * @param bytes the number of bytes
+     */
+    public void recordOutput(final long bytes) {
+        if (enabled) {
+            outputBytes.add(bytes);
+        }
+    }
+
+    /**
+     * Returns the latencies recorded for a command type
+     *
+     * @param type the command type
+     * @return the histogram of the command type
+     */
+    public LatencyHistogram getCommandLatency(final CommandType type) {
+        return commandLatencies[type.ordinal()];
+    }
+
+    /**
+     * Writes the report to the given file. It can be called at any time, including
+     * while commands are being recorded.
+     *
+     * @param file the file receiving the report
+     * @throws IOException if the file cannot be written
+     */
+    public void writeReport(final File file) throws IOException {
+        try (JsonGenerator generator = new JsonFactory().createGenerator(file,
+                JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            writeReport(generator);
+        }
+    }
+
+    /**
+     * Writes the report as a JSON object
+     *
+     * @param generator the generator receiving the report
+     * @throws IOException if the report cannot be written
+     */
+    public void writeReport(final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+
+        long commands = 0;
+        generator.writeObjectFieldStart("commands");
+        for (CommandType type : CommandType.values()) {
+            LatencyHistogram latency = commandLatencies[type.ordinal()];
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            commands += latency.getCount();
+            generator.writeObjectFieldStart(type.getCommandName() != null
+                    ? type.getCommandName() : "unknown");
+            latency.writeFields(generator);
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeNumberField("commandCount", commands);
+
+        generator.writeObjectFieldStart("builds");
+        buildLatency.writeFields(generator);
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("simulations");
+        simulationLatency.writeFields(generator);
+        generator.writeEndObject();
+
+        generator.writeNumberField("ticks", ticks.sum());
+        generator.writeNumberField("cellsVisited", cellsVisited.sum());
+        generator.writeNumberField("entitiesUpdated", entitiesUpdated.sum());
+        generator.writeNumberField("outputBytes", outputBytes.sum());
+
+        generator.writeEndObject();
+    }
+}
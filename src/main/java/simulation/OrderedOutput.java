@@ -0,0 +1,178 @@
+package simulation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import fileio.JsonGeneratorSink;
+import fileio.OutputSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes the outputs of segments run concurrently in the order in which the segments
+ * were opened. The oldest unfinished segment, the head, writes its results straight to
+ * the generator. The segments after it buffer their results until they become the
+ * head; a segment that has buffered as many results as the limit allows waits for its
+ * turn instead of buffering more.
+ */
+final class OrderedOutput {
+    private final JsonGenerator generator;
+    private final ObjectMapper mapper;
+    private final TraceRecorder trace;
+
+    /**
+     * Number of results a segment buffers before waiting to become the head
+     */
+    private final int bufferLimit;
+
+    /**
+     * Segments opened and not written out yet, the head first
+     */
+    private final Deque<Part> parts = new ArrayDeque<>();
+
+    /**
+     * Creates an output writing to the given generator
+     *
+     * @param generator   the generator receiving the results
+     * @param mapper      the mapper providing the serializers
+     * @param bufferLimit number of results a segment buffers before waiting its turn
+     * @param trace       the recorder receiving the writing of buffered results
+     */
+    OrderedOutput(final JsonGenerator generator, final ObjectMapper mapper,
+                  final int bufferLimit, final TraceRecorder trace) {
+        this.generator = generator;
+        this.mapper = mapper;
+        this.bufferLimit = bufferLimit;
+        this.trace = trace;
+    }
+
+    /**
+     * Opens the output of the next segment, written after every segment opened before
+     *
+     * @return the sink receiving the results of the segment
+     */
+    Part open() {
+        Part part = new Part();
+        synchronized (this) {
+            if (parts.isEmpty()) {
+                part.head = true;
+            }
+            parts.add(part);
+        }
+        return part;
+    }
+
+    /**
+     * Hands the generator over to the segments following a finished head, writing out
+     * those that already finished, up to the first one still running
+     */
+    private void advance() {
+        while (true) {
+            Part next;
+            synchronized (this) {
+                parts.poll();
+                next = parts.peek();
+            }
+            if (next == null) {
+                return;
+            }
+            synchronized (next) {
+                next.head = true;
+                next.notifyAll();
+                if (!next.done) {
+                    return;
+                }
+                next.flush();
+            }
+        }
+    }
+
+    /**
+     * Output of a single segment
+     */
+    final class Part implements OutputSink {
+        private final OutputSink direct = new JsonGeneratorSink(generator, mapper);
+
+        /**
+         * Whether this segment writes straight to the generator
+         */
+        private boolean head;
+
+        /**
+         * Whether the segment has added all of its results
+         */
+        private boolean done;
+
+        private TokenBuffer buffer;
+        private OutputSink buffered;
+        private int bufferedCount;
+
+        @Override
+        public synchronized void add(final JsonSerializable result) {
+            if (!head && bufferedCount >= bufferLimit) {
+                awaitHead();
+            }
+            if (head) {
+                flush();
+                direct.add(result);
+                return;
+            }
+            if (buffer == null) {
+                buffer = new TokenBuffer(mapper, false);
+                buffered = new JsonGeneratorSink(buffer, mapper);
+            }
+            buffered.add(result);
+            bufferedCount++;
+        }
+
+        /**
+         * Marks the segment as finished. The head writes out its buffered results and
+         * hands the generator over to the next segment; other segments are written out
+         * once they become the head.
+         */
+        void finish() {
+            synchronized (this) {
+                done = true;
+                if (!head) {
+                    return;
+                }
+                flush();
+            }
+            advance();
+        }
+
+        private void awaitHead() {
+            try {
+                while (!head) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Writes the buffered results to the generator, once this segment is the head
+         */
+        private void flush() {
+            if (buffer == null) {
+                return;
+            }
+            long start = trace.start();
+            try {
+                buffer.serialize(generator);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            trace.record("writeOutput", "output", start, "results", bufferedCount);
+            buffer = null;
+            buffered = null;
+            bufferedCount = 0;
+        }
+    }
+}
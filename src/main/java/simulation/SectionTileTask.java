@@ -0,0 +1,71 @@
+package simulation;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+
+/**
+ * Updates tiles of independent sections on a fork/join pool. The tiles are split in
+ * halves until a single tile is left, whose sections are then updated in order.
+ */
+final class SectionTileTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Row-major indices of the sections to update
+     */
+    private final transient int[] sections;
+
+    /**
+     * Position in {@link #sections} of the first section of every tile, followed by
+     * the total number of sections
+     */
+    private final transient int[] tileStarts;
+
+    /**
+     * First tile handled by this task
+     */
+    private final int fromTile;
+
+    /**
+     * Tile right after the last one handled by this task
+     */
+    private final int toTile;
+
+    /**
+     * Updates one section, returning whether it still holds active entities
+     */
+    private final transient IntPredicate update;
+
+    /**
+     * Result of the update of every section, written at the section position
+     */
+    private final transient boolean[] stillActive;
+
+    SectionTileTask(final int[] sections, final int[] tileStarts, final int fromTile,
+                    final int toTile, final IntPredicate update,
+                    final boolean[] stillActive) {
+        this.sections = sections;
+        this.tileStarts = tileStarts;
+        this.fromTile = fromTile;
+        this.toTile = toTile;
+        this.update = update;
+        this.stillActive = stillActive;
+    }
+
+    @Override
+    protected void compute() {
+        if (toTile - fromTile > 1) {
+            int middle = (fromTile + toTile) >>> 1;
+            invokeAll(new SectionTileTask(sections, tileStarts, fromTile, middle, update,
+                            stillActive),
+                    new SectionTileTask(sections, tileStarts, middle, toTile, update,
+                            stillActive));
+            return;
+        }
+
+        for (int k = tileStarts[fromTile]; k < tileStarts[toTile]; k++) {
+            stillActive[k] = update.test(sections[k]);
+        }
+    }
+}
@@ -3,11 +3,14 @@ package simulation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.CommandInput;
+import fileio.OutputSink;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
+import lombok.Setter;
 import model.entities.Water;
 import model.entities.air.Air;
+import model.entities.air.WeatherChange;
 import model.entities.Animal;
 import model.entities.Plant;
 import model.entities.soil.Soil;
@@ -17,8 +20,20 @@ import model.position.Position;
 import model.robot.Direction;
 import model.robot.KnowledgeBase;
 import model.robot.TerraBot;
-
-import java.util.ArrayList;
+import simulation.events.CommandEvent;
+import simulation.events.SimulationEndEvent;
+import simulation.events.SimulationStartEvent;
+import simulation.events.TickEvent;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
 
 /**
  * Represents a single simulation run for TerraBot
@@ -40,6 +55,7 @@ public class Simulation {
     private static final double HUMIDITY_INCREASE_INCREMENT = 0.2;
     private static final double MOISTURE_INCREASE_INCREMENT = 0.2;
     private static final int WEATHER_COOLDOWN_INTERVAL = 2;
+    private static final int TILE_ROWS = 4;
 
     /**
      * The territory on which the simulation takes place
@@ -61,28 +77,157 @@ public class Simulation {
      */
     private int changeWeather = 0;
 
+    /**
+     * Number of commands run so far, failed ones included
+     */
+    private int commandCount = 0;
+
     /**
      * Last timestamp for which entities were updated
      */
     private int lastUpdatedTimestamp = 0;
 
     /**
-     * Executes a single command within this simulation
+     * Sections holding active entities, visited on every tick
+     */
+    private final EntityScheduler scheduler;
+
+    /**
+     * How the active entities are advanced between commands
+     */
+    private final TickMode tickMode;
+
+    /**
+     * Sections that an active animal may read or change during the current tick
+     */
+    private final BitSet animalNeighborhoods = new BitSet();
+
+    /**
+     * Registry receiving the latency of the commands and the work done by the ticks
+     */
+    private final MetricsRegistry metrics;
+
+    /**
+     * Recorder receiving the entity updates and the command handlers as spans
+     */
+    private final TraceRecorder trace;
+
+    /**
+     * Work done by the tick being recorded as a {@link TickEvent}, null otherwise
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TickCounters tickCounters;
+
+    /**
+     * Creates a simulation on the given territory, driven by the given robot
+     *
+     * @param territory the territory on which the simulation takes place
+     * @param terraBot  the robot controlled during the simulation
+     */
+    public Simulation(final Territory territory, final TerraBot terraBot) {
+        this(territory, terraBot, TickMode.SEQUENTIAL);
+    }
+
+    /**
+     * Creates a simulation on the given territory, driven by the given robot, that
+     * advances its entities in the given tick mode
+     *
+     * @param territory the territory on which the simulation takes place
+     * @param terraBot  the robot controlled during the simulation
+     * @param tickMode  how the active entities are advanced between commands
+     */
+    public Simulation(final Territory territory, final TerraBot terraBot,
+                      final TickMode tickMode) {
+        this(territory, terraBot, tickMode, MetricsRegistry.DISABLED);
+    }
+
+    /**
+     * Creates a simulation on the given territory, driven by the given robot, that
+     * advances its entities in the given tick mode and records its work in the given
+     * registry
+     *
+     * @param territory the territory on which the simulation takes place
+     * @param terraBot  the robot controlled during the simulation
+     * @param tickMode  how the active entities are advanced between commands
+     * @param metrics   the registry receiving the metrics of the simulation
+     */
+    public Simulation(final Territory territory, final TerraBot terraBot,
+                      final TickMode tickMode, final MetricsRegistry metrics) {
+        this(territory, terraBot, tickMode, metrics, TraceRecorder.DISABLED);
+    }
+
+    /**
+     * Creates a simulation on the given territory, driven by the given robot, that
+     * advances its entities in the given tick mode, records its work in the given
+     * registry and traces its phases with the given recorder
+     *
+     * @param territory the territory on which the simulation takes place
+     * @param terraBot  the robot controlled during the simulation
+     * @param tickMode  how the active entities are advanced between commands
+     * @param metrics   the registry receiving the metrics of the simulation
+     * @param trace     the recorder receiving the spans of the simulation
+     */
+    public Simulation(final Territory territory, final TerraBot terraBot,
+                      final TickMode tickMode, final MetricsRegistry metrics,
+                      final TraceRecorder trace) {
+        this.territory = territory;
+        this.terraBot = terraBot;
+        this.scheduler = new EntityScheduler(territory.getWidth());
+        this.tickMode = tickMode;
+        this.metrics = metrics;
+        this.trace = trace;
+    }
+
+    /**
+     * Executes a single compiled command within this simulation
      *
      * @param command the command to execute
-     * @param output  the output array where the result node should be added
+     * @param output  the sink where the result of the command is written
      * @param mapper  the Jackson mapper used to create JSON nodes
      */
-    public void executeCommand(final CommandInput command,
-                               final ArrayNode output,
+    public void executeCommand(final CompiledCommand command,
+                               final OutputSink output,
                                final ObjectMapper mapper) {
-        Section[][] section = territory.getSections();
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        boolean succeeded = false;
+        commandCount++;
+        try {
+            succeeded = runCommand(command, output, mapper);
+        } finally {
+            // Columnar territories write back the sections the command went through
+            territory.release();
+            if (metrics.isEnabled()) {
+                metrics.recordCommand(command.getType(), System.nanoTime() - start);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.setCommand(command.getCommand());
+                event.setTimestamp(command.getTimestamp());
+                event.setError(!succeeded);
+                event.commit();
+            }
+        }
+    }
 
+    /**
+     * Releases the memory and the files held by the territory once the simulation has
+     * ended. The simulation must not be used afterwards.
+     */
+    public void close() {
+        territory.close();
+    }
+
+    /**
+     * Executes a command and tells whether it succeeded
+     */
+    private boolean runCommand(final CompiledCommand command,
+                                  final OutputSink output,
+                                  final ObjectMapper mapper) {
         // Update entities for all timestamps between last update and current command
-        for (int timestamp = lastUpdatedTimestamp + 1; timestamp <= command.getTimestamp();) {
-            updateActiveEntities(section, timestamp);
-            timestamp++;
-        }
+        advanceTo(command.getTimestamp());
         lastUpdatedTimestamp = command.getTimestamp();
 
         Section currentSection = terraBot.getCurrentSection(territory);
@@ -92,11 +237,12 @@ public class Simulation {
         soil.calculateQuality();
         if (changeWeather <= command.getTimestamp()) {
             air.calculateQuality();
-            air.setDesertStorm(false);
+            // Shared airs never hold a desert storm, so they are left untouched
+            if (air.isDesertStorm()) {
+                air.setDesertStorm(false);
+            }
         }
 
-
-        String name = command.getCommand();
         ObjectNode node = mapper.createObjectNode();
         node.put("command", command.getCommand());
         node.put("timestamp", command.getTimestamp());
@@ -104,62 +250,100 @@ public class Simulation {
         if (charging > command.getTimestamp()) {
             node.put("message", "ERROR: Robot still charging. Cannot perform action");
             output.add(node);
-            return;
+            return false;
         }
 
-        switch (name) {
-            case "startSimulation" ->
-                    startSimulation(output, node);
-            case "endSimulation" ->
-                    endSimulation(output, node);
-            case "printEnvConditions" ->
+        long handlerStart = trace.start();
+        boolean succeeded = switch (command.getType()) {
+            case START_SIMULATION -> {
+                boolean done = startSimulation(output, node);
+                commitStartEvent(command.getTimestamp());
+                yield done;
+            }
+            case END_SIMULATION -> {
+                boolean done = endSimulation(output, node);
+                commitEndEvent(command.getTimestamp());
+                yield done;
+            }
+            case PRINT_ENV_CONDITIONS ->
                     printEnvConditions(output, mapper, node);
-            case "printMap" ->
-                    printMap(output, mapper, node);
-            case "moveRobot" ->
+            case PRINT_MAP ->
+                    printMap(output, node);
+            case MOVE_ROBOT ->
                     moveRobot(output, node);
-            case "scanObject" ->
+            case SCAN_OBJECT ->
                     scanObject(command, output, node);
-            case "learnFact" ->
+            case LEARN_FACT ->
                     learnFact(command, output, node);
-            case "improveEnvironment" ->
+            case IMPROVE_ENVIRONMENT ->
                     improveEnvironment(command, output, node);
-            case "changeWeatherConditions" ->
+            case CHANGE_WEATHER_CONDITIONS ->
                     changeWeatherConditions(command, output, node);
-            case "rechargeBattery" ->
+            case RECHARGE_BATTERY ->
                     rechargeBattery(command, output, node);
-            case "getEnergyStatus" ->
+            case GET_ENERGY_STATUS ->
                     getEnergyStatus(output, node);
-            case "printKnowledgeBase" ->
+            case PRINT_KNOWLEDGE_BASE ->
                     printKnowledgeBase(output, mapper, node);
             default ->  throw new IllegalArgumentException("Invalid command");
+        };
+        trace.record(command.getCommand(), "command", handlerStart,
+                "timestamp", command.getTimestamp());
+        return succeeded;
+    }
+
+    private void commitStartEvent(final int timestamp) {
+        SimulationStartEvent event = new SimulationStartEvent();
+        if (event.shouldCommit()) {
+            event.setTimestamp(timestamp);
+            event.setWidth(territory.getWidth());
+            event.setHeight(territory.getHeight());
+            event.commit();
+        }
+    }
+
+    private void commitEndEvent(final int timestamp) {
+        SimulationEndEvent event = new SimulationEndEvent();
+        if (event.shouldCommit()) {
+            event.setTimestamp(timestamp);
+            event.setEnergyPoints(terraBot.getEnergyPoints());
+            event.setActiveSections(scheduler.size());
+            event.commit();
         }
     }
 
     /**
      * Handles the start of the simulation.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void startSimulation(final ArrayNode output,
-                                final ObjectNode node) {
+    public boolean startSimulation(final OutputSink output,
+                                   final ObjectNode node) {
         node.put("message", "Simulation has started.");
         output.add(node);
+        return true;
     }
 
     /**
      * Handles the end of the simulation.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void endSimulation(final ArrayNode output,
-                              final ObjectNode node) {
+    public boolean endSimulation(final OutputSink output,
+                                 final ObjectNode node) {
         node.put("message", "Simulation has ended.");
         output.add(node);
+        return true;
     }
 
     /**
      * Prints environmental conditions at the robot's current position.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void printEnvConditions(final ArrayNode output,
-                                   final ObjectMapper mapper,
-                                   final ObjectNode node) {
+    public boolean printEnvConditions(final OutputSink output,
+                                      final ObjectMapper mapper,
+                                      final ObjectNode node) {
         Section currentSection = terraBot.getCurrentSection(territory);
 
         ObjectNode entities = mapper.createObjectNode();
@@ -179,58 +363,27 @@ public class Simulation {
 
         node.set("output", entities);
         output.add(node);
+        return true;
     }
 
     /**
      * Prints the map overview (objects and quality per section).
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void printMap(final ArrayNode output,
-                         final ObjectMapper mapper,
-                         final ObjectNode node) {
-        ArrayNode outputArray = mapper.createArrayNode();
-
-        for (int i = 0; i < territory.getHeight(); i++) {
-            for (int j = 0; j < territory.getWidth(); j++) {
-                int objCount = 0;
-                ObjectNode sectionNode = mapper.createObjectNode();
-
-                ArrayNode sectionCoords = mapper.createArrayNode();
-                sectionCoords.add(j);
-                sectionCoords.add(i);
-                sectionNode.set("section", sectionCoords);
-
-                Section currentSection = territory.getSections()[j][i];
-
-                if (currentSection.getPlant() != null) {
-                    objCount++;
-                }
-                if (currentSection.getAnimal() != null) {
-                    objCount++;
-                }
-                if (currentSection.getWater() != null) {
-                    objCount++;
-                }
-
-                Soil soil = currentSection.getSoil();
-                Air air = currentSection.getAir();
-
-                sectionNode.put("totalNrOfObjects", objCount);
-                sectionNode.put("airQuality", air.airQualityMessage());
-                sectionNode.put("soilQuality", soil.soilQualityMessage());
-
-                outputArray.add(sectionNode);
-            }
-        }
-
-        node.set("output", outputArray);
-        output.add(node);
+    public boolean printMap(final OutputSink output,
+                            final ObjectNode node) {
+        output.add(new MapResult(territory, node));
+        return true;
     }
 
     /**
      * Moves the robot on the territory according to the command.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void moveRobot(final ArrayNode output,
-                          final ObjectNode node) {
+    public boolean moveRobot(final OutputSink output,
+                             final ObjectNode node) {
         Position currentPos = terraBot.getPosition();
         int x = currentPos.getX();
         int y = currentPos.getY();
@@ -251,7 +404,8 @@ public class Simulation {
         }
 
         String msg;
-        if (minCost <= terraBot.getEnergyPoints()) {
+        boolean moved = minCost <= terraBot.getEnergyPoints();
+        if (moved) {
             int newX = bestDirection.getNewX(x);
             int newY = bestDirection.getNewY(y);
             currentPos.setX(newX);
@@ -264,6 +418,7 @@ public class Simulation {
 
         node.put("message", msg);
         output.add(node);
+        return moved;
     }
 
     private int moveRobotHelper(final int x, final int y) {
@@ -271,45 +426,45 @@ public class Simulation {
             return Integer.MAX_VALUE;
         }
 
-        Section[][] section = territory.getSections();
-        Section currentSection = section[x][y];
-
-        return currentSection.movementCost();
+        return territory.movementCost(x, y);
     }
 
     /**
      * Scans the object at the robot's current position.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void scanObject(final CommandInput command,
-                           final ArrayNode output,
-                           final ObjectNode node) {
+    public boolean scanObject(final CompiledCommand command,
+                              final OutputSink output,
+                              final ObjectNode node) {
         if (SCAN_ENERGY_COST > terraBot.getEnergyPoints()) {
             node.put("message", "ERROR: Not enough energy to perform action");
             output.add(node);
 
-            return;
+            return false;
         }
 
         Section currentSection = terraBot.getCurrentSection(territory);
+        Position position = terraBot.getPosition();
 
         // Check what object is at current position and activate it
-        if (currentSection.getWater() != null && command.getSound().equals("none")
-                && command.getColor().equals("none") && command.getSmell().equals("none")) {
+        if (currentSection.getWater() != null && command.isSoundNone()
+                && command.isColorNone() && command.isSmellNone()) {
             // Scan water - activate it
             Water water = currentSection.getWater();
             water.setActive(true);
             water.setLastIterTimestamp(command.getTimestamp());
             terraBot.getScannedObjects().add(water.getName());
             node.put("message", "The scanned object is water.");
-        } else if (currentSection.getPlant() != null && command.getSound().equals("none")
-                && !command.getColor().equals("none")) {
+        } else if (currentSection.getPlant() != null && command.isSoundNone()
+                && !command.isColorNone()) {
             // Scan plant - activate it
             Plant plant = currentSection.getPlant();
             plant.setActive(true);
             plant.setLastIteration(command.getTimestamp());
             terraBot.getScannedObjects().add(plant.getName());
             node.put("message", "The scanned object is a plant.");
-        } else if (currentSection.getAnimal() != null && !command.getSound().equals("none")) {
+        } else if (currentSection.getAnimal() != null && !command.isSoundNone()) {
             // Scan animal - activate it
             Animal animal = currentSection.getAnimal();
             animal.setActive(true);
@@ -320,96 +475,575 @@ public class Simulation {
             node.put("message", "ERROR: Object not found. Cannot perform action");
             output.add(node);
 
-            return;
+            return false;
         }
 
         terraBot.setEnergyPoints(terraBot.getEnergyPoints() - SCAN_ENERGY_COST);
+        scheduler.schedule(position.getX(), position.getY());
 
         output.add(node);
+        return true;
+    }
+
+    /**
+     * Brings all active entities up to date with the given timestamp. While no animal
+     * is active, sections do not interact with each other, so every section is
+     * fast-forwarded on its own instead of replaying the whole gap tick by tick.
+     *
+     * @param timestamp the timestamp to advance to
+     */
+    private void advanceTo(final int timestamp) {
+        int from = lastUpdatedTimestamp + 1;
+        if (from > timestamp || !scheduler.hasActiveSections()) {
+            return;
+        }
+        long start = trace.start();
+
+        if (!hasActiveAnimals()) {
+            TickEvent event = beginTick();
+            fastForward(from, timestamp);
+            endTick(event, timestamp, timestamp - from + 1);
+            metrics.recordTicks(timestamp - from + 1);
+            trace.record("fastForward", "tick", start, "from", from, "to", timestamp);
+            return;
+        }
+
+        // Once no section holds active entities the remaining ticks have nothing to do
+        int current = from;
+        while (current <= timestamp && scheduler.hasActiveSections()) {
+            TickEvent event = beginTick();
+            updateActiveEntities(current);
+            endTick(event, current, 1);
+            current++;
+        }
+        metrics.recordTicks(current - from);
+        trace.record("ticks", "tick", start, "from", from, "to", current - 1);
+    }
+
+    /**
+     * Starts the event of a tick, counting its work only while the event is recorded
+     */
+    private TickEvent beginTick() {
+        TickEvent event = new TickEvent();
+        if (event.isEnabled()) {
+            tickCounters = new TickCounters();
+            event.begin();
+        }
+        return event;
+    }
+
+    private void endTick(final TickEvent event, final int timestamp, final int ticks) {
+        TickCounters counters = tickCounters;
+        if (counters == null) {
+            return;
+        }
+        tickCounters = null;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setTimestamp(timestamp);
+            event.setTicks(ticks);
+            event.setCellsScanned(counters.cellsScanned.get());
+            event.setActiveEntities(counters.activeEntities.get());
+            event.setAnimalsMoved(counters.animalsMoved.get());
+            event.setPlantsDied(counters.plantsDied.get());
+            event.commit();
+        }
+    }
+
+    private boolean hasActiveAnimals() {
+        for (int index = scheduler.nextSection(-1); index != -1;
+             index = scheduler.nextSection(index)) {
+            Animal animal = territory.getSection(scheduler.rowOf(index), scheduler.colOf(index))
+                    .getAnimal();
+            if (animal != null && animal.isActive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advances every scheduled section independently from one timestamp to another.
+     * Plants change on every tick until they die, so they are replayed for their
+     * remaining lifetime; the periodic water updates are then applied in one go.
+     *
+     * @param from first timestamp to apply
+     * @param to last timestamp to apply
+     */
+    private void fastForward(final int from, final int to) {
+        updateSections(scheduler.scheduledSections(),
+                index -> fastForwardSection(index, from, to));
+    }
+
+    private boolean fastForwardSection(final int index, final int from, final int to) {
+        int i = scheduler.rowOf(index);
+        int j = scheduler.colOf(index);
+        Section currentSection = territory.getSection(i, j);
+
+        int current = from;
+        while (current <= to && currentSection.getPlant() != null
+                && currentSection.getPlant().isActive()) {
+            updateSection(i, j, current);
+            current++;
+        }
+
+        Water water = currentSection.getWater();
+        if (current <= to && water != null && water.isActive()) {
+            fastForwardWater(currentSection, to);
+            recordSectionUpdate(1);
+        }
+        territory.invalidateMovementCost(i, j);
+
+        return hasActiveEntities(currentSection);
+    }
+
+    /**
+     * Updates sections that do not depend on each other, unscheduling the ones left
+     * without active entities. In parallel mode the sections are grouped in tiles of
+     * consecutive rows, updated concurrently.
+     *
+     * @param sections row-major indices of the sections, in ascending order
+     * @param update updates one section and tells whether it is still active
+     */
+    private void updateSections(final int[] sections, final IntPredicate update) {
+        boolean[] stillActive = new boolean[sections.length];
+        int[] tileStarts = tickMode != TickMode.SEQUENTIAL ? tileStarts(sections) : null;
+
+        if (tileStarts != null && tileStarts.length > 2) {
+            ForkJoinPool.commonPool().invoke(new SectionTileTask(sections, tileStarts, 0,
+                    tileStarts.length - 1, update, stillActive));
+        } else {
+            for (int k = 0; k < sections.length; k++) {
+                stillActive[k] = update.test(sections[k]);
+            }
+        }
+
+        for (int k = 0; k < sections.length; k++) {
+            if (!stillActive[k]) {
+                scheduler.unschedule(sections[k]);
+            }
+        }
+    }
+
+    private int[] tileStarts(final int[] sections) {
+        int[] starts = new int[sections.length + 1];
+        int tiles = 0;
+        int lastTile = -1;
+        for (int k = 0; k < sections.length; k++) {
+            int tile = scheduler.rowOf(sections[k]) / TILE_ROWS;
+            if (tile != lastTile) {
+                starts[tiles++] = k;
+                lastTile = tile;
+            }
+        }
+        starts[tiles++] = sections.length;
+        return Arrays.copyOf(starts, tiles);
+    }
+
+    /**
+     * Applies all the water updates that fall due up to the given timestamp.
+     *
+     * @param section section holding the active water
+     * @param timestamp the timestamp to advance to
+     */
+    private void fastForwardWater(final Section section, final int timestamp) {
+        Water water = section.getWater();
+
+        // Water is updated once every 2 iterations
+        int dueUpdates = (timestamp - water.getLastIterTimestamp()) / 2;
+        if (dueUpdates <= 0) {
+            return;
+        }
+        Air air = section.mutableAir();
+        Soil soil = section.mutableSoil();
+
+        // A closed form, humidity + dueUpdates * increment, rounds differently from
+        // stepping through every tick and would change the printed values, so the
+        // updates are still added one at a time, but to locals set once at the end
+        double humidity = air.getHumidity();
+        double waterRetention = soil.getWaterRetention();
+        for (int update = 0; update < dueUpdates; update++) {
+            humidity += WATER_HUMIDITY_INCREMENT;
+            waterRetention += SOIL_WATER_RETENTION_INCREMENT;
+        }
+        air.setHumidity(humidity);
+        soil.setWaterRetention(waterRetention);
+        water.setLastIterTimestamp(water.getLastIterTimestamp() + 2 * dueUpdates);
     }
 
     /**
-     * Updates all active entities at each iteration.
+     * Updates all active entities at each iteration. Only the sections known to the
+     * scheduler are visited, in the same row-major order as a full grid scan.
      *
-     * @param sections the territory sections
      * @param currentTimestamp the current timestamp (iteration number)
      */
-    private void updateActiveEntities(final Section[][] sections, final int currentTimestamp) {
-        for (int i = 0; i < territory.getHeight(); i++) {
-            for (int j = 0; j < territory.getWidth(); j++) {
-                Section currentSection = sections[i][j];
+    private void updateActiveEntities(final int currentTimestamp) {
+        if (tickMode == TickMode.PARALLEL) {
+            updateActiveEntitiesInTiles(currentTimestamp);
+            return;
+        }
+        if (tickMode == TickMode.DOUBLE_BUFFERED) {
+            updateActiveEntitiesBuffered(currentTimestamp);
+            return;
+        }
 
-                Air air = currentSection.getAir();
-                Soil soil = currentSection.getSoil();
-                Plant plant = currentSection.getPlant();
-                Water water = currentSection.getWater();
-                Animal animal = currentSection.getAnimal();
+        for (int index = scheduler.nextSection(-1); index != -1;
+             index = scheduler.nextSection(index)) {
+            int i = scheduler.rowOf(index);
+            int j = scheduler.colOf(index);
 
-                boolean hasPlant = plant != null && plant.isActive();
-                boolean hasWater = water != null && water.isActive();
-                boolean hasAnimal = animal != null && animal.isActive();
+            if (!updateSection(i, j, currentTimestamp)) {
+                scheduler.unschedule(index);
+            }
+        }
+    }
 
-                // Update active water
-                if (hasWater) {
-                    // Update waterRetention and humidity after 2 iterations
-                    if (currentTimestamp - water.getLastIterTimestamp() >= 2) {
-                        air.setHumidity(air.getHumidity() + WATER_HUMIDITY_INCREMENT);
-                        soil.setWaterRetention(soil.getWaterRetention()
-                                + SOIL_WATER_RETENTION_INCREMENT);
-                        water.setLastIterTimestamp(water.getLastIterTimestamp() + 2);
-                    }
-                }
+    /**
+     * Parallel version of {@link #updateActiveEntities(int)}. An active animal only
+     * reads and changes its own section and the sections next to it, and every other
+     * entity only changes its own section. The sections outside the neighborhoods of
+     * the active animals are therefore independent and are updated in tiles first;
+     * the neighborhoods are then updated in row-major order, like a full grid scan.
+     *
+     * @param currentTimestamp the current timestamp (iteration number)
+     */
+    private void updateActiveEntitiesInTiles(final int currentTimestamp) {
+        int[] scheduled = scheduler.scheduledSections();
+        markAnimalNeighborhoods(scheduled);
+
+        int[] independent = new int[scheduled.length];
+        int count = 0;
+        for (int index : scheduled) {
+            if (!animalNeighborhoods.get(index)) {
+                independent[count++] = index;
+            }
+        }
+        updateSections(Arrays.copyOf(independent, count),
+                index -> updateSection(scheduler.rowOf(index), scheduler.colOf(index),
+                        currentTimestamp));
+
+        // Animals only move next to their section, so sections scheduled from here on
+        // always belong to a marked neighborhood
+        for (int index = animalNeighborhoods.nextSetBit(0); index >= 0;
+             index = animalNeighborhoods.nextSetBit(index + 1)) {
+            if (scheduler.isScheduled(index) && !updateSection(scheduler.rowOf(index),
+                    scheduler.colOf(index), currentTimestamp)) {
+                scheduler.unschedule(index);
+            }
+        }
+    }
 
-                // Update active plants
-                if (hasPlant) {
-                    if (currentTimestamp > plant.getLastIteration()) {
-                        plant.increaseGrowth();
-                        if (hasWater) {
-                            plant.increaseGrowth();
-                        }
-                        if (plant.getAgeSurplus() == 0) {
-                            currentSection.setPlant(null);
-                        } else {
-                            // Update air
-                            double oxygenProduced = plant.oxygenProduced();
-                            air.setOxygenLevel(air.getOxygenLevel() + oxygenProduced);
-                        }
-                        plant.setLastIteration(currentTimestamp);
-                    }
+    private void markAnimalNeighborhoods(final int[] scheduled) {
+        animalNeighborhoods.clear();
+        int rows = territory.getHeight();
+        int cols = territory.getWidth();
+
+        for (int index : scheduled) {
+            int i = scheduler.rowOf(index);
+            int j = scheduler.colOf(index);
+            Animal animal = territory.getSection(i, j).getAnimal();
+            if (animal == null || !animal.isActive()) {
+                continue;
+            }
+
+            animalNeighborhoods.set(index);
+            for (Direction dir : Direction.values()) {
+                int newX = dir.getNewX(i);
+                int newY = dir.getNewY(j);
+                if (newX >= 0 && newY >= 0 && newX < rows && newY < cols) {
+                    animalNeighborhoods.set(territory.indexOf(newX, newY));
                 }
+            }
+        }
+    }
 
-                // Update active animals
-                if (hasAnimal) {
-                    // Check if air is toxic
-                    boolean isToxic = air.isToxicForAnimals();
-                    animal.setSick(isToxic);
-
-                    // Produce organic matter if animal was well-fed in previous timestamp
-                    boolean wasWellFed = animal.isAtePlant() || animal.isDrankWater()
-                            || animal.isAteAnimal();
-                    if (wasWellFed && !animal.isSick()) {
-                        // Calculate organic matter to add
-                        boolean ateBoth = (animal.isAtePlant() && animal.isDrankWater())
-                                || (animal.isDrankWater() && animal.isAteAnimal());
-                        double organicMatterToAdd = ateBoth
-                                ? ORGANIC_MATTER_BOTH_INCREMENT
-                                : ORGANIC_MATTER_SINGLE_INCREMENT;
-                        soil.setOrganicMatter(soil.getOrganicMatter() + organicMatterToAdd);
-                    }
+    /**
+     * Double-buffered version of {@link #updateActiveEntities(int)}. The territory is
+     * only read during the tick: every scheduled section is updated into a copy, the
+     * back buffer, and the copies replace the sections once the tick is complete.
+     * <p>
+     * The moves of the animals are decided on the state at the start of the tick and
+     * resolved together, so that the outcome does not depend on the order in which the
+     * sections are visited. An animal may move to a section that was empty at the start
+     * of the tick, or, if it is a predator, to one whose animal stays in place and is
+     * eaten. Sections left by moving animals are only free from the next tick on. When
+     * several animals claim the same section, the heaviest one moves there; if the
+     * heaviest ones weigh the same, none of them moves. Animals that do not move stay
+     * in their section and try again two ticks later.
+     *
+     * @param currentTimestamp the current timestamp (iteration number)
+     */
+    private void updateActiveEntitiesBuffered(final int currentTimestamp) {
+        int[] scheduled = scheduler.scheduledSections();
+        Animal[] movers = new Animal[scheduled.length];
+        int[] targets = new int[scheduled.length];
+        BitSet leaving = new BitSet();
+
+        // Every move is decided on the front state
+        for (int k = 0; k < scheduled.length; k++) {
+            int i = scheduler.rowOf(scheduled[k]);
+            int j = scheduler.colOf(scheduled[k]);
+            Animal animal = territory.getSection(i, j).getAnimal();
+            if (animal == null || !animal.isActive()
+                    || currentTimestamp - animal.getLastMoveTimestamp() < 2) {
+                continue;
+            }
 
-                    // Feed animal (this sets flags for next timestamp)
-                    currentSection.feedAnimal(WATER_INTAKE_RATE);
+            Direction direction = chooseDirection(animal, i, j);
+            movers[k] = animal;
+            targets[k] = direction != null
+                    ? territory.indexOf(direction.getNewX(i), direction.getNewY(j))
+                    : scheduled[k];
+            if (targets[k] != scheduled[k]) {
+                leaving.set(scheduled[k]);
+            }
+        }
+
+        // Sections update their own entities into the back buffer
+        Section[] next = new Section[scheduled.length];
+        updateSections(scheduled, index -> {
+            int i = scheduler.rowOf(index);
+            int j = scheduler.colOf(index);
+            Section back = backSection(territory.getSection(i, j));
+            next[Arrays.binarySearch(scheduled, index)] = back;
+            updateSection(back, i, j, currentTimestamp);
+            return true;
+        });
+
+        // Each claimed section goes to its heaviest claimant, or to nobody on a tie
+        Map<Integer, Integer> winners = new HashMap<>();
+        Set<Integer> tied = new HashSet<>();
+        for (int k = 0; k < scheduled.length; k++) {
+            if (movers[k] == null) {
+                continue;
+            }
+            next[k].getAnimal().setLastMoveTimestamp(movers[k].getLastMoveTimestamp() + 2);
+
+            int target = targets[k];
+            if (target == scheduled[k] || leaving.get(target)) {
+                continue;
+            }
+            Animal occupant = territory.getSection(scheduler.rowOf(target),
+                    scheduler.colOf(target)).getAnimal();
+            if (occupant != null && !movers[k].isPredator()) {
+                continue;
+            }
+
+            Integer rival = winners.get(target);
+            if (rival == null) {
+                winners.put(target, k);
+                continue;
+            }
+            int order = Double.compare(movers[k].getMass(), movers[rival].getMass());
+            if (order > 0) {
+                winners.put(target, k);
+                tied.remove(target);
+            } else if (order == 0) {
+                tied.add(target);
+            }
+        }
+        winners.keySet().removeAll(tied);
+
+        // The winners move within the back buffer, eating the animals staying behind
+        Map<Integer, Section> targetSections = new HashMap<>();
+        for (Map.Entry<Integer, Integer> winner : winners.entrySet()) {
+            int target = winner.getKey();
+            int k = winner.getValue();
+            int position = Arrays.binarySearch(scheduled, target);
+            Section targetSection = position >= 0 ? next[position]
+                    : targetSections.computeIfAbsent(target, index -> backSection(
+                            territory.getSection(scheduler.rowOf(index),
+                                    scheduler.colOf(index))));
+
+            Animal animal = next[k].getAnimal();
+            Animal occupant = targetSection.getAnimal();
+            if (occupant != null) {
+                animal.setMass(animal.getMass() + occupant.getMass());
+                animal.setAteAnimal(true);
+            }
+            next[k].setAnimal(null);
+            targetSection.setAnimal(animal);
+            targetSection.feedAnimal(WATER_INTAKE_RATE);
+            if (tickCounters != null) {
+                tickCounters.animalsMoved.incrementAndGet();
+            }
+        }
+
+        // Swap the back buffer in
+        for (int k = 0; k < scheduled.length; k++) {
+            swapIn(next[k], scheduled[k]);
+            if (!hasActiveEntities(next[k])) {
+                scheduler.unschedule(scheduled[k]);
+            }
+        }
+        for (Map.Entry<Integer, Section> target : targetSections.entrySet()) {
+            swapIn(target.getValue(), target.getKey());
+            scheduler.schedule(scheduler.rowOf(target.getKey()),
+                    scheduler.colOf(target.getKey()));
+        }
+    }
+
+    /**
+     * Copies a section into the back buffer. Shared air and soil are kept, since
+     * they are copied before being changed anyway; every other entity is copied.
+     *
+     * @param front the section as it is at the start of the tick
+     * @return a section that can be changed without changing the front one
+     */
+    private static Section backSection(final Section front) {
+        Section back = new Section();
+        Soil soil = front.getSoil();
+        back.setSoil(soil == null || soil.isShared() ? soil : soil.copy());
+        Air air = front.getAir();
+        back.setAir(air == null || air.isShared() ? air : air.copy());
+        back.setPlant(front.getPlant() != null ? front.getPlant().copy() : null);
+        back.setWater(front.getWater() != null ? front.getWater().copy() : null);
+        back.setAnimal(front.getAnimal() != null ? front.getAnimal().copy() : null);
+        return back;
+    }
+
+    /**
+     * Replaces the entities of a section of the territory by the ones of the back buffer
+     *
+     * @param back the updated copy of the section
+     * @param index row-major index of the section
+     */
+    private void swapIn(final Section back, final int index) {
+        int i = scheduler.rowOf(index);
+        int j = scheduler.colOf(index);
+        Section section = territory.getSection(i, j);
+        section.setSoil(back.getSoil());
+        section.setAir(back.getAir());
+        section.setPlant(back.getPlant());
+        section.setWater(back.getWater());
+        section.setAnimal(back.getAnimal());
+        territory.invalidateMovementCost(i, j);
+    }
+
+    /**
+     * Updates the active entities of a single section.
+     *
+     * @param i row index of the section
+     * @param j column index of the section
+     * @param currentTimestamp the current timestamp (iteration number)
+     * @return true if the section still holds active entities afterwards
+     */
+    private boolean updateSection(final int i, final int j, final int currentTimestamp) {
+        return updateSection(territory.getSection(i, j), i, j, currentTimestamp);
+    }
+
+    /**
+     * Updates the active entities of a single section, held by the territory or by
+     * the back buffer of a double-buffered tick.
+     *
+     * @param currentSection the section to update
+     * @param i row index of the section
+     * @param j column index of the section
+     * @param currentTimestamp the current timestamp (iteration number)
+     * @return true if the section still holds active entities afterwards
+     */
+    private boolean updateSection(final Section currentSection, final int i, final int j,
+                                  final int currentTimestamp) {
+        Plant plant = currentSection.getPlant();
+        Water water = currentSection.getWater();
+        Animal animal = currentSection.getAnimal();
+
+        boolean hasPlant = plant != null && plant.isActive();
+        boolean hasWater = water != null && water.isActive();
+        boolean hasAnimal = animal != null && animal.isActive();
+        recordSectionUpdate((hasPlant ? 1 : 0) + (hasWater ? 1 : 0) + (hasAnimal ? 1 : 0));
+
+        // Water and plants change the air, water and animals change the soil
+        Air air = hasWater || hasPlant ? currentSection.mutableAir() : currentSection.getAir();
+        Soil soil = hasWater || hasAnimal
+                ? currentSection.mutableSoil() : currentSection.getSoil();
+
+        // Update active water
+        if (hasWater) {
+            // Update waterRetention and humidity after 2 iterations
+            if (currentTimestamp - water.getLastIterTimestamp() >= 2) {
+                air.setHumidity(air.getHumidity() + WATER_HUMIDITY_INCREMENT);
+                soil.setWaterRetention(soil.getWaterRetention()
+                        + SOIL_WATER_RETENTION_INCREMENT);
+                water.setLastIterTimestamp(water.getLastIterTimestamp() + 2);
+            }
+        }
 
-                    // Animal moves every 2 iterations
-                    // Check if at least 2 timestamps have passed since last move
-                    if (currentTimestamp - animal.getLastMoveTimestamp() >= 2) {
-                        Section targetSection = moveAnimal(animal, i, j, sections);
-                        targetSection.feedAnimal(WATER_INTAKE_RATE);
-                        animal.setLastMoveTimestamp(animal.getLastMoveTimestamp() + 2);
+        // Update active plants
+        if (hasPlant) {
+            if (currentTimestamp > plant.getLastIteration()) {
+                plant.increaseGrowth();
+                if (hasWater) {
+                    plant.increaseGrowth();
+                }
+                if (plant.getAgeSurplus() == 0) {
+                    currentSection.setPlant(null);
+                    TickCounters counters = tickCounters;
+                    if (counters != null) {
+                        counters.plantsDied.incrementAndGet();
                     }
+                } else {
+                    // Update air
+                    double oxygenProduced = plant.oxygenProduced();
+                    air.setOxygenLevel(air.getOxygenLevel() + oxygenProduced);
                 }
+                plant.setLastIteration(currentTimestamp);
+            }
+        }
+
+        // Update active animals
+        if (hasAnimal) {
+            // Check if air is toxic
+            boolean isToxic = air.isToxicForAnimals();
+            animal.setSick(isToxic);
+
+            // Produce organic matter if animal was well-fed in previous timestamp
+            boolean wasWellFed = animal.isAtePlant() || animal.isDrankWater()
+                    || animal.isAteAnimal();
+            if (wasWellFed && !animal.isSick()) {
+                // Calculate organic matter to add
+                boolean ateBoth = (animal.isAtePlant() && animal.isDrankWater())
+                        || (animal.isDrankWater() && animal.isAteAnimal());
+                double organicMatterToAdd = ateBoth
+                        ? ORGANIC_MATTER_BOTH_INCREMENT
+                        : ORGANIC_MATTER_SINGLE_INCREMENT;
+                soil.setOrganicMatter(soil.getOrganicMatter() + organicMatterToAdd);
+            }
+
+            // Feed animal (this sets flags for next timestamp)
+            currentSection.feedAnimal(WATER_INTAKE_RATE);
+
+            // Animal moves every 2 iterations
+            // Check if at least 2 timestamps have passed since last move
+            // In double-buffered mode the moves are applied once all sections are updated
+            if (tickMode != TickMode.DOUBLE_BUFFERED
+                    && currentTimestamp - animal.getLastMoveTimestamp() >= 2) {
+                Section targetSection = moveAnimal(animal, i, j);
+                targetSection.feedAnimal(WATER_INTAKE_RATE);
+                animal.setLastMoveTimestamp(animal.getLastMoveTimestamp() + 2);
             }
         }
+
+        // Any entity of the section may have changed, and with it the movement cost
+        territory.invalidateMovementCost(i, j);
+
+        return hasActiveEntities(currentSection);
+    }
+
+    private void recordSectionUpdate(final int entities) {
+        metrics.recordSectionUpdate(entities);
+        TickCounters counters = tickCounters;
+        if (counters != null) {
+            counters.cellsScanned.incrementAndGet();
+            counters.activeEntities.addAndGet(entities);
+        }
+    }
+
+    private boolean hasActiveEntities(final Section section) {
+        return (section.getPlant() != null && section.getPlant().isActive())
+                || (section.getWater() != null && section.getWater().isActive())
+                || (section.getAnimal() != null && section.getAnimal().isActive());
     }
 
     /**
@@ -418,26 +1052,52 @@ public class Simulation {
      * @param animal the animal to move
      * @param currentX current x coordinate
      * @param currentY current y coordinate
-     * @param sections the territory sections
      * @return the section where the animal moved
      */
-    private Section moveAnimal(final Animal animal, final int currentX, final int currentY,
-                               final Section[][] sections) {
+    private Section moveAnimal(final Animal animal, final int currentX, final int currentY) {
+        Direction targetDirection = chooseDirection(animal, currentX, currentY);
+        int targetX = targetDirection.getNewX(currentX);
+        int targetY = targetDirection.getNewY(currentY);
+        Section targetSection = territory.getSection(targetX, targetY);
+
+        if (animal.isPredator()) {
+            if (targetSection.getAnimal() != null) {
+                animal.setMass(animal.getMass() + targetSection.getAnimal().getMass());
+                animal.setAteAnimal(true);
+
+                targetSection.setAnimal(null);
+            }
+        }
+
+        relocateAnimal(animal, currentX, currentY, targetX, targetY);
+        return targetSection;
+    }
+
+    /**
+     * Chooses the neighboring section an animal moves to, based on the feeding
+     * algorithm.
+     *
+     * @param animal the animal to move
+     * @param currentX current x coordinate
+     * @param currentY current y coordinate
+     * @return direction of the chosen section, or null if no section is available
+     */
+    private Direction chooseDirection(final Animal animal, final int currentX,
+                                      final int currentY) {
         // Priority 1: Section with both plant AND water
-        Section bestSectionWithBoth = null;
+        Direction bestDirectionWithBoth = null;
         double bestWaterQuality = -1;
 
         // Priority 2: Sections with plant OR water
-        Section firstSectionWithPlant = null;
+        Direction firstDirectionWithPlant = null;
 
-        Section bestSectionWithWater = null;
+        Direction bestDirectionWithWater = null;
         double bestWaterQualityAlone = -1;
 
         // Priority 3: First available section
-        Section firstAvailableSection = null;
+        Direction firstAvailableDirection = null;
 
-        boolean isCarnivoreOrParasite = animal.getType().equals("Carnivores")
-                || animal.getType().equals("Parasites");
+        boolean isCarnivoreOrParasite = animal.isPredator();
 
         for (Direction dir : Direction.values()) {
             int newX = dir.getNewX(currentX);
@@ -449,7 +1109,7 @@ public class Simulation {
                 continue;
             }
 
-            Section neighborSection = sections[newX][newY];
+            Section neighborSection = territory.getSection(newX, newY);
 
             if (!isCarnivoreOrParasite && neighborSection.getAnimal() != null) {
                 continue;
@@ -465,69 +1125,80 @@ public class Simulation {
                 double waterQuality = neighborWater.waterQuality();
                 if (waterQuality > bestWaterQuality) {
                     bestWaterQuality = waterQuality;
-                    bestSectionWithBoth = neighborSection;
+                    bestDirectionWithBoth = dir;
                 }
             }
 
             // Priority 2: Plant or water
-            if (hasPlant && firstSectionWithPlant == null) {
-                firstSectionWithPlant = neighborSection;
+            if (hasPlant && firstDirectionWithPlant == null) {
+                firstDirectionWithPlant = dir;
             }
 
             if (hasWater) {
                 double waterQuality = neighborWater.waterQuality();
                 if (waterQuality > bestWaterQualityAlone) {
                     bestWaterQualityAlone = waterQuality;
-                    bestSectionWithWater = neighborSection;
+                    bestDirectionWithWater = dir;
                 }
             }
 
             // Priority 3: First available
-            if (firstAvailableSection == null) {
-                firstAvailableSection = neighborSection;
+            if (firstAvailableDirection == null) {
+                firstAvailableDirection = dir;
             }
         }
 
         // Choose destination based on priority
-        Section targetSection = firstAvailableSection;
+        Direction targetDirection = firstAvailableDirection;
 
-        if (bestSectionWithBoth != null) {
+        if (bestDirectionWithBoth != null) {
             // Priority 1: Section with both plant and water
-            targetSection = bestSectionWithBoth;
-        } else if (firstSectionWithPlant != null) {
+            targetDirection = bestDirectionWithBoth;
+        } else if (firstDirectionWithPlant != null) {
             // Priority 2a: First section with plant
-            targetSection = firstSectionWithPlant;
-        } else if (bestSectionWithWater != null) {
+            targetDirection = firstDirectionWithPlant;
+        } else if (bestDirectionWithWater != null) {
             // Priority 2b: Best section with water
-            targetSection = bestSectionWithWater;
+            targetDirection = bestDirectionWithWater;
         }
 
-        if (isCarnivoreOrParasite) {
-            if (targetSection.getAnimal() != null) {
-                animal.setMass(animal.getMass() + targetSection.getAnimal().getMass());
-                animal.setAteAnimal(true);
+        return targetDirection;
+    }
 
-                targetSection.setAnimal(null);
-            }
+    /**
+     * Moves an animal from its section to the target section.
+     *
+     * @param animal the animal to move
+     * @param currentX current x coordinate
+     * @param currentY current y coordinate
+     * @param targetX target x coordinate
+     * @param targetY target y coordinate
+     */
+    private void relocateAnimal(final Animal animal, final int currentX, final int currentY,
+                                final int targetX, final int targetY) {
+        territory.getSection(currentX, currentY).setAnimal(null);
+        territory.getSection(targetX, targetY).setAnimal(animal);
+        scheduler.schedule(targetX, targetY);
+        if (tickCounters != null) {
+            tickCounters.animalsMoved.incrementAndGet();
         }
-
-        // Move animal to new section
-        sections[currentX][currentY].setAnimal(null);
-        targetSection.setAnimal(animal);
-        return targetSection;
+        territory.invalidateMovementCost(currentX, currentY);
+        territory.invalidateMovementCost(targetX, targetY);
     }
 
     /**
      * Saves a fact into the robot's knowledge base.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void learnFact(final CommandInput command,
-                          final ArrayNode output,
-                          final ObjectNode node) {
+    public boolean learnFact(final CompiledCommand command,
+                             final OutputSink output,
+                             final ObjectNode node) {
         if (LEARN_FACT_ENERGY_COST > terraBot.getEnergyPoints()) {
             node.put("message", "ERROR: Not enough battery left. Cannot perform action");
             output.add(node);
 
-            return;
+            return false;
         }
 
         if (terraBot.getScannedObjects().contains(command.getComponents())) {
@@ -537,64 +1208,69 @@ public class Simulation {
             node.put("message", "ERROR: Subject not yet saved. Cannot perform action");
             output.add(node);
 
-            return;
+            return false;
         }
 
         terraBot.setEnergyPoints(terraBot.getEnergyPoints() - LEARN_FACT_ENERGY_COST);
 
         output.add(node);
+        return true;
     }
 
     /**
      * Applies an improvement to the environment.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void improveEnvironment(final CommandInput command,
-                                   final ArrayNode output,
-                                   final ObjectNode node) {
+    public boolean improveEnvironment(final CompiledCommand command,
+                                      final OutputSink output,
+                                      final ObjectNode node) {
         String msg;
 
         if (IMPROVEMENT_ENERGY_COST > terraBot.getEnergyPoints()) {
             node.put("message", "ERROR: Not enough battery left. Cannot perform action");
             output.add(node);
 
-            return;
+            return false;
         }
 
-        String improvementType = command.getImprovementType();
+        ImprovementType improvementType = command.getImprovementType();
         String componentName = command.getName();
 
         if (!terraBot.getScannedObjects().contains(componentName)) {
             node.put("message", "ERROR: Subject not yet saved. Cannot perform action");
             output.add(node);
 
-            return;
+            return false;
         }
 
         if (!terraBot.getKnowledgeBase().hasImprovementFact(componentName)) {
             node.put("message", "ERROR: Fact not yet saved. Cannot perform action");
             output.add(node);
 
-            return;
+            return false;
         }
 
         Section currentSection = terraBot.getCurrentSection(territory);
-        Air air = currentSection.getAir();
-        Soil soil = currentSection.getSoil();
 
         switch (improvementType) {
-            case "plantVegetation" -> {
+            case PLANT_VEGETATION -> {
+                Air air = currentSection.mutableAir();
                 air.setOxygenLevel(air.getOxygenLevel() + PLANT_VEGETATION_OXYGEN_INCREMENT);
                 msg = "The " + componentName + " was planted successfully.";
             }
-            case "fertilizeSoil" -> {
+            case FERTILIZE_SOIL -> {
+                Soil soil = currentSection.mutableSoil();
                 soil.setOrganicMatter(soil.getOrganicMatter() + FERTILIZE_SOIL_INCREMENT);
                 msg = "The soil was successfully fertilized using " + componentName;
             }
-            case "increaseHumidity" -> {
+            case INCREASE_HUMIDITY -> {
+                Air air = currentSection.mutableAir();
                 air.setHumidity(air.getHumidity() + HUMIDITY_INCREASE_INCREMENT);
                 msg = "The humidity was successfully increased using " + componentName;
             }
-            case "increaseMoisture" -> {
+            case INCREASE_MOISTURE -> {
+                Soil soil = currentSection.mutableSoil();
                 soil.setWaterRetention(soil.getWaterRetention() + MOISTURE_INCREASE_INCREMENT);
                 msg = "The moisture was successfully increased using " + componentName;
             }
@@ -603,82 +1279,93 @@ public class Simulation {
                 node.put("message", msg);
                 output.add(node);
 
-                return;
+                return false;
             }
         }
 
+        Position position = terraBot.getPosition();
+        territory.invalidateMovementCost(position.getX(), position.getY());
+
         terraBot.setEnergyPoints(terraBot.getEnergyPoints() - IMPROVEMENT_ENERGY_COST);
         terraBot.getScannedObjects().remove(componentName);
 
         node.put("message", msg);
         output.add(node);
+        return true;
     }
 
     /**
      * Changes the weather conditions in the environment.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void changeWeatherConditions(final CommandInput command,
-                                        final ArrayNode output,
-                                        final ObjectNode node) {
-        Section[][] sections = territory.getSections();
-        String msg = "";
-        for (int i = 0; i < territory.getHeight(); i++) {
-            for (int j = 0; j < territory.getWidth(); j++) {
-                Air air = sections[i][j].getAir();
-                if (air.changeWeather(command)) {
-                    msg = "The weather has changed.";
-                    changeWeather = command.getTimestamp() + WEATHER_COOLDOWN_INTERVAL;
-                }
-            }
-        }
-        if (msg.isEmpty()) {
+    public boolean changeWeatherConditions(final CompiledCommand command,
+                                           final OutputSink output,
+                                           final ObjectNode node) {
+        String msg;
+        WeatherChange change = command.getWeatherChange();
+
+        // Movement costs stay valid: the air toxicity used by them is always computed
+        // from the air fields, which a weather change does not touch
+        boolean changed = territory.changeWeather(change);
+        if (changed) {
+            msg = "The weather has changed.";
+            changeWeather = command.getTimestamp() + WEATHER_COOLDOWN_INTERVAL;
+        } else {
             msg = "ERROR: The weather change does not affect the environment."
                     + " Cannot perform action";
         }
 
         node.put("message", msg);
         output.add(node);
+        return changed;
     }
 
     /**
      * Recharges the robot's battery.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void rechargeBattery(final CommandInput command,
-                                final ArrayNode output,
-                                final ObjectNode node) {
+    public boolean rechargeBattery(final CompiledCommand command,
+                                   final OutputSink output,
+                                   final ObjectNode node) {
         charging = command.getTimestamp() + command.getTimeToCharge();
         terraBot.setEnergyPoints(terraBot.getEnergyPoints() + command.getTimeToCharge());
 
         node.put("message", "Robot battery is charging.");
         output.add(node);
+        return true;
     }
 
     /**
      * Reports the current energy status of the robot.
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void getEnergyStatus(final ArrayNode output,
-                                final ObjectNode node) {
+    public boolean getEnergyStatus(final OutputSink output,
+                                   final ObjectNode node) {
         node.put("message", "TerraBot has " + terraBot.getEnergyPoints() + " energy points left.");
         output.add(node);
+        return true;
     }
 
     /**
      * Prints the robot's knowledge base
+     *
+     * @return true if the command succeeded, false if it was rejected
      */
-    public void printKnowledgeBase(final ArrayNode output,
-                                   final ObjectMapper mapper,
-                                   final ObjectNode node) {
+    public boolean printKnowledgeBase(final OutputSink output,
+                                      final ObjectMapper mapper,
+                                      final ObjectNode node) {
         KnowledgeBase kb = terraBot.getKnowledgeBase();
         ArrayNode outputArray = mapper.createArrayNode();
 
-        ArrayList<String> allTopics = kb.getTopics();
-        for (String topic : allTopics) {
+        for (String topic : kb.getTopics()) {
             ObjectNode topicNode = mapper.createObjectNode();
             topicNode.put("topic", topic);
 
             ArrayNode factsArray = mapper.createArrayNode();
-            ArrayList<String> facts = kb.getFacts(topic);
-            for (String fact : facts) {
+            for (String fact : kb.getFacts(topic)) {
                 factsArray.add(fact);
             }
             topicNode.set("facts", factsArray);
@@ -687,5 +1374,17 @@ public class Simulation {
 
         node.set("output", outputArray);
         output.add(node);
+        return true;
+    }
+
+    /**
+     * Work done by a tick. Sections may be updated concurrently, so every count is
+     * atomic.
+     */
+    private static final class TickCounters {
+        private final AtomicInteger cellsScanned = new AtomicInteger();
+        private final AtomicInteger activeEntities = new AtomicInteger();
+        private final AtomicInteger animalsMoved = new AtomicInteger();
+        private final AtomicInteger plantsDied = new AtomicInteger();
     }
 }
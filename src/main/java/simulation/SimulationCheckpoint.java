@@ -0,0 +1,694 @@
+package simulation;
+
+import model.entities.Animal;
+import model.entities.Plant;
+import model.entities.Water;
+import model.entities.air.Air;
+import model.entities.air.AirFactory;
+import model.entities.soil.Soil;
+import model.entities.soil.SoilFactory;
+import model.environment.Section;
+import model.environment.Territory;
+import model.environment.TerritoryBackend;
+import model.position.Position;
+import model.robot.KnowledgeBase;
+import model.robot.TerraBot;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves the full state of a {@link Simulation} to a compact binary file and loads it
+ * back. The file is written through a {@link FileChannel} and read through a
+ * memory-mapped buffer, so resuming a simulation skips both the JSON input and the
+ * replay of its commands.
+ *
+ * <p>Layout, all values big-endian: a header (magic, format version, file length,
+ * territory size, number of commands run, simulation timestamps, robot position and
+ * energy), a table of every distinct string,
+ * the scanned objects with their counts, the knowledge base, the scheduled sections,
+ * a table of every distinct soil and air and finally one record per section. Strings,
+ * soils and airs are written once and referenced by their index in the tables, so the
+ * soils and airs shared by several sections stay shared after loading.</p>
+ */
+public final class SimulationCheckpoint {
+
+    /**
+     * "TBCP", marks the file as a TerraBot checkpoint
+     */
+    private static final int MAGIC = 0x54424350;
+
+    /**
+     * Version of the layout, increased whenever the layout changes
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    /**
+     * Position of the file length, right after the magic and the version
+     */
+    private static final int LENGTH_OFFSET = 2 * Integer.BYTES;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int NONE = -1;
+
+    // Section record flags
+    private static final int HAS_SECTION = 1;
+    private static final int HAS_SOIL = 1 << 1;
+    private static final int HAS_AIR = 1 << 2;
+    private static final int HAS_PLANT = 1 << 3;
+    private static final int HAS_ANIMAL = 1 << 4;
+    private static final int HAS_WATER = 1 << 5;
+
+    // Entity flags
+    private static final int SHARED = 1;
+    private static final int DESERT_STORM = 1 << 1;
+    private static final int ACTIVE = 1;
+    private static final int FROZEN = 1 << 1;
+    private static final int ATE_PLANT = 1 << 1;
+    private static final int DRANK_WATER = 1 << 2;
+    private static final int ATE_ANIMAL = 1 << 3;
+    private static final int SICK = 1 << 4;
+    private static final int PRODUCED_ORGANIC_MATTER = 1 << 5;
+
+    /**
+     * Private constructor to prevent instantiation of utility class
+     */
+    private SimulationCheckpoint() {
+        // Utility class
+    }
+
+    /**
+     * Writes the state of the given simulation to a file, replacing its content
+     *
+     * @param simulation the simulation to save
+     * @param file       the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(final Simulation simulation, final Path file) throws IOException {
+        Territory territory = simulation.getTerritory();
+        TerraBot terraBot = simulation.getTerraBot();
+        int cells = territory.getWidth() * territory.getHeight();
+
+        // Collect the distinct strings, soils and airs before writing anything
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> stringTable = new ArrayList<>();
+        Map<Soil, Integer> soils = new IdentityHashMap<>();
+        List<Soil> soilTable = new ArrayList<>();
+        Map<Air, Integer> airs = new IdentityHashMap<>();
+        List<Air> airTable = new ArrayList<>();
+
+        Map<String, Integer> scanned = terraBot.getScannedObjects().counts();
+        for (String object : scanned.keySet()) {
+            intern(strings, stringTable, object);
+        }
+        KnowledgeBase knowledgeBase = terraBot.getKnowledgeBase();
+        for (String topic : knowledgeBase.getTopics()) {
+            intern(strings, stringTable, topic);
+            for (String fact : knowledgeBase.getFacts(topic)) {
+                intern(strings, stringTable, fact);
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            Section section = sectionAt(territory, cell);
+            if (section == null) {
+                continue;
+            }
+            Soil soil = section.getSoil();
+            if (soil != null && soils.putIfAbsent(soil, soilTable.size()) == null) {
+                soilTable.add(soil);
+                internNames(strings, stringTable, soil.getType(), soil.getName());
+            }
+            Air air = section.getAir();
+            if (air != null && airs.putIfAbsent(air, airTable.size()) == null) {
+                airTable.add(air);
+                internNames(strings, stringTable, air.getType(), air.getName());
+            }
+            Plant plant = section.getPlant();
+            if (plant != null) {
+                internNames(strings, stringTable, plant.getType(), plant.getName());
+            }
+            Animal animal = section.getAnimal();
+            if (animal != null) {
+                internNames(strings, stringTable, animal.getType(), animal.getName());
+            }
+            Water water = section.getWater();
+            if (water != null) {
+                internNames(strings, stringTable, water.getType(), water.getName());
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChannelOutput out = new ChannelOutput(channel);
+
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+            // Filled in once the length is known
+            out.putLong(0);
+            out.putInt(territory.getWidth());
+            out.putInt(territory.getHeight());
+            out.putInt(simulation.getCommandCount());
+            out.putInt(simulation.getCharging());
+            out.putInt(simulation.getChangeWeather());
+            out.putInt(simulation.getLastUpdatedTimestamp());
+            out.putInt(terraBot.getPosition().getX());
+            out.putInt(terraBot.getPosition().getY());
+            out.putInt(terraBot.getEnergyPoints());
+
+            out.putInt(stringTable.size());
+            for (String string : stringTable) {
+                out.putString(string);
+            }
+
+            out.putInt(scanned.size());
+            for (Map.Entry<String, Integer> object : scanned.entrySet()) {
+                out.putInt(ref(strings, object.getKey()));
+                out.putInt(object.getValue());
+            }
+
+            out.putInt(knowledgeBase.getTopics().size());
+            for (String topic : knowledgeBase.getTopics()) {
+                List<String> facts = knowledgeBase.getFacts(topic);
+                out.putInt(ref(strings, topic));
+                out.putInt(facts.size());
+                for (String fact : facts) {
+                    out.putInt(ref(strings, fact));
+                }
+            }
+
+            int[] scheduled = simulation.getScheduler().scheduledSections();
+            out.putInt(scheduled.length);
+            for (int index : scheduled) {
+                out.putInt(index);
+            }
+
+            out.putInt(soilTable.size());
+            for (Soil soil : soilTable) {
+                writeSoil(out, strings, soil);
+            }
+            out.putInt(airTable.size());
+            for (Air air : airTable) {
+                writeAir(out, strings, air);
+            }
+
+            for (int cell = 0; cell < cells; cell++) {
+                writeSection(out, strings, soils, airs, sectionAt(territory, cell));
+            }
+            out.flush();
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, channel.size()),
+                    LENGTH_OFFSET);
+        } finally {
+            territory.release();
+        }
+    }
+
+    /**
+     * Loads a simulation from a checkpoint file, using the territory backend and the
+     * tick mode selected through the system properties
+     *
+     * @param file the checkpoint file
+     * @return the restored simulation
+     * @throws IOException if the file cannot be read or is not a valid checkpoint
+     */
+    public static Simulation load(final Path file) throws IOException {
+        return load(file, TerritoryBackend.fromSystemProperty(), TickMode.fromSystemProperty());
+    }
+
+    /**
+     * Loads a simulation from a checkpoint file
+     *
+     * @param file             the checkpoint file
+     * @param territoryBackend storage backend for the restored territory
+     * @param tickMode         tick mode of the restored simulation
+     * @return the restored simulation
+     * @throws IOException if the file cannot be read or is not a valid checkpoint
+     */
+    public static Simulation load(final Path file, final TerritoryBackend territoryBackend,
+                                  final TickMode tickMode) throws IOException {
+        return load(file, territoryBackend, tickMode, MetricsRegistry.DISABLED,
+                TraceRecorder.DISABLED);
+    }
+
+    /**
+     * Loads a simulation from a checkpoint file. The restored simulation records its
+     * work in the given registry and recorder.
+     *
+     * @param file             the checkpoint file
+     * @param territoryBackend storage backend for the restored territory
+     * @param tickMode         tick mode of the restored simulation
+     * @param metrics          registry receiving the metrics of the simulation
+     * @param trace            recorder receiving the spans of the simulation
+     * @return the restored simulation
+     * @throws IOException if the file cannot be read, is truncated or is not a valid
+     *                     checkpoint
+     */
+    public static Simulation load(final Path file, final TerritoryBackend territoryBackend,
+                                  final TickMode tickMode, final MetricsRegistry metrics,
+                                  final TraceRecorder trace) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (in.remaining() < LENGTH_OFFSET || in.getInt() != MAGIC) {
+            throw new IOException("Not a simulation checkpoint: " + file);
+        }
+        int version = in.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version + ": " + file);
+        }
+        if (in.remaining() < Long.BYTES || in.getLong() != in.capacity()) {
+            throw new IOException("Truncated checkpoint: " + file);
+        }
+
+        // The length matches, so a value out of place means the content is corrupt
+        try {
+            return read(in, territoryBackend, tickMode, metrics, trace);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                 | NegativeArraySizeException | IllegalArgumentException e) {
+            throw new IOException("Corrupt checkpoint: " + file, e);
+        }
+    }
+
+    /**
+     * Reads the part of a checkpoint following its header
+     */
+    private static Simulation read(final ByteBuffer in, final TerritoryBackend territoryBackend,
+                                   final TickMode tickMode, final MetricsRegistry metrics,
+                                   final TraceRecorder trace) {
+        int width = in.getInt();
+        int height = in.getInt();
+        // Every section takes at least one byte
+        if (width <= 0 || height <= 0 || (long) width * height > in.remaining()) {
+            throw new IllegalArgumentException("Invalid territory size");
+        }
+        int commandCount = in.getInt();
+        int charging = in.getInt();
+        int changeWeather = in.getInt();
+        int lastUpdatedTimestamp = in.getInt();
+        Position position = new Position(in.getInt(), in.getInt());
+        TerraBot terraBot = new TerraBot(position, in.getInt());
+
+        String[] strings = new String[count(in, Integer.BYTES)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[count(in, Byte.BYTES)];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int scannedCount = count(in, 2 * Integer.BYTES);
+        for (int i = 0; i < scannedCount; i++) {
+            String object = string(strings, in.getInt());
+            terraBot.getScannedObjects().add(object, in.getInt());
+        }
+
+        int topicCount = count(in, 2 * Integer.BYTES);
+        for (int i = 0; i < topicCount; i++) {
+            String topic = string(strings, in.getInt());
+            int factCount = count(in, Integer.BYTES);
+            for (int j = 0; j < factCount; j++) {
+                terraBot.getKnowledgeBase().addFact(topic, string(strings, in.getInt()));
+            }
+        }
+
+        int[] scheduled = new int[count(in, Integer.BYTES)];
+        for (int i = 0; i < scheduled.length; i++) {
+            scheduled[i] = in.getInt();
+            if (scheduled[i] < 0 || scheduled[i] >= width * height) {
+                throw new IllegalArgumentException("Invalid section " + scheduled[i]);
+            }
+        }
+
+        boolean sharing = territoryBackend.sharesEntities();
+        Soil[] soils = new Soil[count(in, Byte.BYTES)];
+        for (int i = 0; i < soils.length; i++) {
+            soils[i] = readSoil(in, strings, sharing);
+        }
+        Air[] airs = new Air[count(in, Byte.BYTES)];
+        for (int i = 0; i < airs.length; i++) {
+            airs[i] = readAir(in, strings, sharing);
+        }
+
+        Territory territory = new Territory(width, height,
+                territoryBackend.createStore(width, height));
+        try {
+            populate(in, territory, soils, airs, strings);
+
+            Simulation simulation = new Simulation(territory, terraBot, tickMode, metrics,
+                    trace);
+            simulation.setCommandCount(commandCount);
+            simulation.setCharging(charging);
+            simulation.setChangeWeather(changeWeather);
+            simulation.setLastUpdatedTimestamp(lastUpdatedTimestamp);
+            for (int index : scheduled) {
+                simulation.getScheduler().schedule(index / width, index % width);
+            }
+            return simulation;
+        } catch (RuntimeException e) {
+            territory.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the section records into the given territory
+     */
+    private static void populate(final ByteBuffer in, final Territory territory,
+                                 final Soil[] soils, final Air[] airs,
+                                 final String[] strings) {
+        int width = territory.getWidth();
+        boolean[] usedSoils = new boolean[soils.length];
+        boolean[] usedAirs = new boolean[airs.length];
+        for (int cell = 0; cell < width * territory.getHeight(); cell++) {
+            int flags = in.get();
+            if ((flags & HAS_SECTION) == 0) {
+                continue;
+            }
+            Section section = territory.ensureSection(cell / width, cell % width);
+            if ((flags & HAS_SOIL) != 0) {
+                int ref = in.getInt();
+                // A soil that cannot stay shared is copied for every other section
+                Soil soil = soils[ref];
+                section.setSoil(usedSoils[ref] && !soil.isShared() ? soil.copy() : soil);
+                usedSoils[ref] = true;
+            }
+            if ((flags & HAS_AIR) != 0) {
+                int ref = in.getInt();
+                Air air = airs[ref];
+                section.setAir(usedAirs[ref] && !air.isShared() ? air.copy() : air);
+                usedAirs[ref] = true;
+            }
+            if ((flags & HAS_PLANT) != 0) {
+                section.setPlant(readPlant(in, strings));
+            }
+            if ((flags & HAS_ANIMAL) != 0) {
+                section.setAnimal(readAnimal(in, strings));
+            }
+            if ((flags & HAS_WATER) != 0) {
+                section.setWater(readWater(in, strings));
+            }
+        }
+
+    }
+
+    /**
+     * Reads the number of elements of a table, checking that the rest of the file can
+     * hold them
+     *
+     * @param in           the checkpoint content
+     * @param elementBytes smallest size of one element
+     * @return the number of elements
+     */
+    private static int count(final ByteBuffer in, final int elementBytes) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / elementBytes) {
+            throw new IllegalArgumentException("Invalid table size " + count);
+        }
+        return count;
+    }
+
+    private static Section sectionAt(final Territory territory, final int cell) {
+        return territory.getSection(cell / territory.getWidth(), cell % territory.getWidth());
+    }
+
+    private static void intern(final Map<String, Integer> strings, final List<String> table,
+                               final String string) {
+        if (string != null && strings.putIfAbsent(string, table.size()) == null) {
+            table.add(string);
+        }
+    }
+
+    private static void internNames(final Map<String, Integer> strings,
+                                    final List<String> table,
+                                    final String type, final String name) {
+        intern(strings, table, type);
+        intern(strings, table, name);
+    }
+
+    private static int ref(final Map<String, Integer> strings, final String string) {
+        return string != null ? strings.get(string) : NONE;
+    }
+
+    private static String string(final String[] strings, final int ref) {
+        return ref != NONE ? strings[ref] : null;
+    }
+
+    private static int flag(final boolean value, final int flag) {
+        return value ? flag : 0;
+    }
+
+    private static void writeSection(final ChannelOutput out, final Map<String, Integer> strings,
+                                     final Map<Soil, Integer> soils, final Map<Air, Integer> airs,
+                                     final Section section) throws IOException {
+        if (section == null) {
+            out.putByte(0);
+            return;
+        }
+        Soil soil = section.getSoil();
+        Air air = section.getAir();
+        Plant plant = section.getPlant();
+        Animal animal = section.getAnimal();
+        Water water = section.getWater();
+
+        out.putByte(HAS_SECTION | flag(soil != null, HAS_SOIL) | flag(air != null, HAS_AIR)
+                | flag(plant != null, HAS_PLANT) | flag(animal != null, HAS_ANIMAL)
+                | flag(water != null, HAS_WATER));
+        if (soil != null) {
+            out.putInt(soils.get(soil));
+        }
+        if (air != null) {
+            out.putInt(airs.get(air));
+        }
+        if (plant != null) {
+            out.putInt(ref(strings, plant.getType()));
+            out.putInt(ref(strings, plant.getName()));
+            out.putDouble(plant.getMass());
+            out.putDouble(plant.getGrowth());
+            out.putDouble(plant.getAgeSurplus());
+            out.putInt(plant.getLastIteration());
+            out.putByte(flag(plant.isActive(), ACTIVE));
+        }
+        if (animal != null) {
+            out.putInt(ref(strings, animal.getType()));
+            out.putInt(ref(strings, animal.getName()));
+            out.putDouble(animal.getMass());
+            out.putInt(animal.getLastMoveTimestamp());
+            out.putByte(flag(animal.isActive(), ACTIVE) | flag(animal.isAtePlant(), ATE_PLANT)
+                    | flag(animal.isDrankWater(), DRANK_WATER)
+                    | flag(animal.isAteAnimal(), ATE_ANIMAL) | flag(animal.isSick(), SICK)
+                    | flag(animal.isProducedOrganicMatter(), PRODUCED_ORGANIC_MATTER));
+        }
+        if (water != null) {
+            out.putInt(ref(strings, water.getType()));
+            out.putInt(ref(strings, water.getName()));
+            out.putDouble(water.getMass());
+            out.putDouble(water.getPurity());
+            out.putDouble(water.getSalinity());
+            out.putDouble(water.getTurbidity());
+            out.putDouble(water.getContaminantIndex());
+            out.putDouble(water.getPH());
+            out.putInt(water.getLastIterTimestamp());
+            out.putByte(flag(water.isActive(), ACTIVE) | flag(water.isFrozen(), FROZEN));
+        }
+    }
+
+    private static void writeSoil(final ChannelOutput out, final Map<String, Integer> strings,
+                                  final Soil soil) throws IOException {
+        out.putInt(ref(strings, soil.getType()));
+        out.putInt(ref(strings, soil.getName()));
+        out.putDouble(soil.getMass());
+        out.putDouble(soil.getNitrogen());
+        out.putDouble(soil.getWaterRetention());
+        out.putDouble(soil.getSoilpH());
+        out.putDouble(soil.getOrganicMatter());
+        out.putDouble(soil.getLeafLitter());
+        out.putDouble(soil.getWaterLogging());
+        out.putDouble(soil.getPermafrostDepth());
+        out.putDouble(soil.getRootDensity());
+        out.putDouble(soil.getSalinity());
+        out.putDouble(soil.getSoilQuality());
+        out.putByte(flag(soil.isShared(), SHARED));
+    }
+
+    private static Soil readSoil(final ByteBuffer in, final String[] strings,
+                                 final boolean sharing) {
+        String type = string(strings, in.getInt());
+        Soil soil = SoilFactory.createSoil(type);
+        soil.setType(type);
+        soil.setName(string(strings, in.getInt()));
+        soil.setMass(in.getDouble());
+        soil.setNitrogen(in.getDouble());
+        soil.setWaterRetention(in.getDouble());
+        soil.setSoilpH(in.getDouble());
+        soil.setOrganicMatter(in.getDouble());
+        soil.setLeafLitter(in.getDouble());
+        soil.setWaterLogging(in.getDouble());
+        soil.setPermafrostDepth(in.getDouble());
+        soil.setRootDensity(in.getDouble());
+        soil.setSalinity(in.getDouble());
+        soil.setSoilQuality(in.getDouble());
+        if ((in.get() & SHARED) != 0 && sharing) {
+            soil.share();
+        }
+        return soil;
+    }
+
+    private static void writeAir(final ChannelOutput out, final Map<String, Integer> strings,
+                                 final Air air) throws IOException {
+        out.putInt(ref(strings, air.getType()));
+        out.putInt(ref(strings, air.getName()));
+        out.putDouble(air.getMass());
+        out.putDouble(air.getHumidity());
+        out.putDouble(air.getTemperature());
+        out.putDouble(air.getOxygenLevel());
+        out.putDouble(air.getAltitude());
+        out.putDouble(air.getPollenLevel());
+        out.putDouble(air.getCo2Level());
+        out.putDouble(air.getIceCrystalConcentration());
+        out.putDouble(air.getDustParticles());
+        out.putDouble(air.getAirQuality());
+        out.putDouble(air.getChangedAirQuality());
+        out.putByte(flag(air.isShared(), SHARED) | flag(air.isDesertStorm(), DESERT_STORM));
+    }
+
+    private static Air readAir(final ByteBuffer in, final String[] strings,
+                               final boolean sharing) {
+        String type = string(strings, in.getInt());
+        Air air = AirFactory.createAir(type);
+        air.setType(type);
+        air.setName(string(strings, in.getInt()));
+        air.setMass(in.getDouble());
+        air.setHumidity(in.getDouble());
+        air.setTemperature(in.getDouble());
+        air.setOxygenLevel(in.getDouble());
+        air.setAltitude(in.getDouble());
+        air.setPollenLevel(in.getDouble());
+        air.setCo2Level(in.getDouble());
+        air.setIceCrystalConcentration(in.getDouble());
+        air.setDustParticles(in.getDouble());
+        air.setAirQuality(in.getDouble());
+        air.setChangedAirQuality(in.getDouble());
+        int flags = in.get();
+        air.setDesertStorm((flags & DESERT_STORM) != 0);
+        if ((flags & SHARED) != 0 && sharing) {
+            air.share();
+        }
+        return air;
+    }
+
+    private static Plant readPlant(final ByteBuffer in, final String[] strings) {
+        Plant plant = new Plant();
+        plant.setType(string(strings, in.getInt()));
+        plant.setName(string(strings, in.getInt()));
+        plant.setMass(in.getDouble());
+        plant.setGrowth(in.getDouble());
+        plant.setAgeSurplus(in.getDouble());
+        plant.setLastIteration(in.getInt());
+        plant.setActive((in.get() & ACTIVE) != 0);
+        return plant;
+    }
+
+    private static Animal readAnimal(final ByteBuffer in, final String[] strings) {
+        Animal animal = new Animal();
+        animal.setType(string(strings, in.getInt()));
+        animal.setName(string(strings, in.getInt()));
+        animal.setMass(in.getDouble());
+        animal.setLastMoveTimestamp(in.getInt());
+        int flags = in.get();
+        animal.setActive((flags & ACTIVE) != 0);
+        animal.setAtePlant((flags & ATE_PLANT) != 0);
+        animal.setDrankWater((flags & DRANK_WATER) != 0);
+        animal.setAteAnimal((flags & ATE_ANIMAL) != 0);
+        animal.setSick((flags & SICK) != 0);
+        animal.setProducedOrganicMatter((flags & PRODUCED_ORGANIC_MATTER) != 0);
+        return animal;
+    }
+
+    private static Water readWater(final ByteBuffer in, final String[] strings) {
+        Water water = new Water();
+        water.setType(string(strings, in.getInt()));
+        water.setName(string(strings, in.getInt()));
+        water.setMass(in.getDouble());
+        water.setPurity(in.getDouble());
+        water.setSalinity(in.getDouble());
+        water.setTurbidity(in.getDouble());
+        water.setContaminantIndex(in.getDouble());
+        water.setPH(in.getDouble());
+        water.setLastIterTimestamp(in.getInt());
+        int flags = in.get();
+        water.setActive((flags & ACTIVE) != 0);
+        water.setFrozen((flags & FROZEN) != 0);
+        return water;
+    }
+
+    /**
+     * Buffers the values written to a channel, writing them out in large blocks
+     */
+    private static final class ChannelOutput {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        ChannelOutput(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putByte(final int value) throws IOException {
+            ensure(Byte.BYTES);
+            buffer.put((byte) value);
+        }
+
+        void putInt(final int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(final long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putDouble(final double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void putString(final String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        /**
+         * Makes room for the given number of bytes, writing out the buffer if needed
+         */
+        private void ensure(final int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -2,7 +2,7 @@ package simulation;
 
 import fileio.AirInput;
 import fileio.AnimalInput;
-import fileio.PairInput;
+import fileio.PlacedInput;
 import fileio.PlantInput;
 import fileio.SimulationInput;
 import fileio.SoilInput;
@@ -15,11 +15,14 @@ import model.entities.Plant;
 import model.entities.soil.Soil;
 import model.entities.soil.SoilFactory;
 import model.entities.Water;
-import model.environment.Section;
 import model.environment.Territory;
+import model.environment.TerritoryBackend;
 import model.position.Position;
 import model.robot.TerraBot;
+import simulation.events.BuildEvent;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -27,6 +30,90 @@ import java.util.List;
  */
 public class SimulationFactory {
 
+    /**
+     * Storage backend used for the territories of the built simulations
+     */
+    private final TerritoryBackend territoryBackend;
+
+    /**
+     * Tick mode of the built simulations
+     */
+    private final TickMode tickMode;
+
+    /**
+     * Registry receiving the build times and the metrics of the built simulations
+     */
+    private final MetricsRegistry metrics;
+
+    /**
+     * Recorder receiving the builds and the spans of the built simulations
+     */
+    private final TraceRecorder trace;
+
+    /**
+     * Creates a factory using the territory backend and the tick mode selected
+     * through the {@link TerritoryBackend#PROPERTY} and {@link TickMode#PROPERTY}
+     * system properties
+     */
+    public SimulationFactory() {
+        this(TerritoryBackend.fromSystemProperty(), TickMode.fromSystemProperty());
+    }
+
+    /**
+     * Creates a factory using the given territory backend and tick mode
+     *
+     * @param territoryBackend storage backend for the territories
+     * @param tickMode         tick mode of the built simulations
+     */
+    public SimulationFactory(final TerritoryBackend territoryBackend,
+                             final TickMode tickMode) {
+        this(territoryBackend, tickMode, MetricsRegistry.DISABLED);
+    }
+
+    /**
+     * Creates a factory using the given territory backend and tick mode, whose
+     * simulations record their metrics in the given registry
+     *
+     * @param territoryBackend storage backend for the territories
+     * @param tickMode         tick mode of the built simulations
+     * @param metrics          registry receiving the metrics
+     */
+    public SimulationFactory(final TerritoryBackend territoryBackend,
+                             final TickMode tickMode, final MetricsRegistry metrics) {
+        this(territoryBackend, tickMode, metrics, TraceRecorder.DISABLED);
+    }
+
+    /**
+     * Creates a factory using the given territory backend and tick mode, whose
+     * simulations record their metrics in the given registry and their spans in the
+     * given recorder
+     *
+     * @param territoryBackend storage backend for the territories
+     * @param tickMode         tick mode of the built simulations
+     * @param metrics          registry receiving the metrics
+     * @param trace            recorder receiving the spans
+     */
+    public SimulationFactory(final TerritoryBackend territoryBackend,
+                             final TickMode tickMode, final MetricsRegistry metrics,
+                             final TraceRecorder trace) {
+        this.territoryBackend = territoryBackend;
+        this.tickMode = tickMode;
+        this.metrics = metrics;
+        this.trace = trace;
+    }
+
+    /**
+     * Restores a {@link Simulation} saved by {@link SimulationCheckpoint#save}, using
+     * the territory backend and the tick mode of this factory
+     *
+     * @param file the checkpoint file
+     * @return the restored simulation
+     * @throws IOException if the checkpoint cannot be read or is not valid
+     */
+    public Simulation resume(final Path file) throws IOException {
+        return SimulationCheckpoint.load(file, territoryBackend, tickMode, metrics, trace);
+    }
+
     /**
      * Creates a {@link Simulation} instance based on the given input parameters
      *
@@ -38,12 +125,60 @@ public class SimulationFactory {
             throw new IllegalArgumentException("SimulationInput must not be null");
         }
 
+        BuildEvent event = new BuildEvent();
+        event.begin();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        long traceStart = trace.start();
+        Simulation simulation = buildSimulation(input);
+        if (metrics.isEnabled()) {
+            metrics.recordBuild(System.nanoTime() - start);
+        }
+        trace.record("build", "setup", traceStart,
+                "width", simulation.getTerritory().getWidth(),
+                "height", simulation.getTerritory().getHeight());
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setWidth(simulation.getTerritory().getWidth());
+            event.setHeight(simulation.getTerritory().getHeight());
+            event.setBackend(territoryBackend.name());
+            event.setCellsPopulated(countPlacements(input.getTerritorySectionParams()));
+            event.commit();
+        }
+        return simulation;
+    }
+
+    /**
+     * Counts the entities placed on sections by the given parameters
+     */
+    private static long countPlacements(final TerritorySectionParamsInput params) {
+        if (params == null) {
+            return 0;
+        }
+        long count = 0;
+        for (List<? extends PlacedInput> inputs : List.of(nullToEmpty(params.getSoil()),
+                nullToEmpty(params.getPlants()), nullToEmpty(params.getAnimals()),
+                nullToEmpty(params.getWater()), nullToEmpty(params.getAir()))) {
+            for (PlacedInput placed : inputs) {
+                count += placed.countSections();
+            }
+        }
+        return count;
+    }
+
+    private static <T> List<T> nullToEmpty(final List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private Simulation buildSimulation(final SimulationInput input) {
+
         // Parse territory dimensions
         String[] dimTokens = input.getTerritoryDim().split("x");
         int width = Integer.parseInt(dimTokens[0]);
         int height = Integer.parseInt(dimTokens[1]);
 
-        Territory territory = new Territory(width, height);
+        Territory territory = new Territory(width, height,
+                territoryBackend.createStore(width, height));
 
         // The robot starts at position (0, 0)
         Position startingPosition = new Position(0, 0);
@@ -59,7 +194,7 @@ public class SimulationFactory {
             populateAir(territory, params.getAir());
         }
 
-        return new Simulation(territory, terraBot);
+        return new Simulation(territory, terraBot, tickMode, metrics, trace);
     }
 
     private void populateSoil(final Territory territory,
@@ -68,11 +203,15 @@ public class SimulationFactory {
             return;
         }
         for (SoilInput soilInput : soils) {
-            for (PairInput sectionPos : soilInput.getSections()) {
-                Section section = ensureSection(territory, sectionPos);
-                Soil soil = SoilFactory.createSoilFromInput(soilInput);
-                section.setSoil(soil);
+            // Identical soils are shared until one of them changes
+            Soil shared = canShare(soilInput) ? SoilFactory.createSoilFromInput(soilInput) : null;
+            if (shared != null) {
+                shared.share();
             }
+            soilInput.forEachSection(territory.getWidth(), territory.getHeight(), (x, y) -> {
+                Soil soil = shared != null ? shared : SoilFactory.createSoilFromInput(soilInput);
+                territory.ensureSection(x, y).setSoil(soil);
+            });
         }
     }
 
@@ -82,14 +221,13 @@ public class SimulationFactory {
             return;
         }
         for (PlantInput plantInput : plants) {
-            for (PairInput sectionPos : plantInput.getSections()) {
-                Section section = ensureSection(territory, sectionPos);
+            plantInput.forEachSection(territory.getWidth(), territory.getHeight(), (x, y) -> {
                 Plant plant = new Plant();
                 plant.setType(plantInput.getType());
                 plant.setName(plantInput.getName());
                 plant.setMass(plantInput.getMass());
-                section.setPlant(plant);
-            }
+                territory.ensureSection(x, y).setPlant(plant);
+            });
         }
     }
 
@@ -99,14 +237,13 @@ public class SimulationFactory {
             return;
         }
         for (AnimalInput animalInput : animals) {
-            for (PairInput sectionPos : animalInput.getSections()) {
-                Section section = ensureSection(territory, sectionPos);
+            animalInput.forEachSection(territory.getWidth(), territory.getHeight(), (x, y) -> {
                 Animal animal = new Animal();
                 animal.setType(animalInput.getType());
                 animal.setName(animalInput.getName());
                 animal.setMass(animalInput.getMass());
-                section.setAnimal(animal);
-            }
+                territory.ensureSection(x, y).setAnimal(animal);
+            });
         }
     }
 
@@ -116,8 +253,7 @@ public class SimulationFactory {
             return;
         }
         for (WaterInput waterInput : waters) {
-            for (PairInput sectionPos : waterInput.getSections()) {
-                Section section = ensureSection(territory, sectionPos);
+            waterInput.forEachSection(territory.getWidth(), territory.getHeight(), (x, y) -> {
                 Water water = new Water();
                 water.setType(waterInput.getType());
                 water.setName(waterInput.getName());
@@ -128,8 +264,8 @@ public class SimulationFactory {
                 water.setContaminantIndex(waterInput.getContaminantIndex());
                 water.setPH(waterInput.getPH());
                 water.setFrozen(waterInput.isFrozen());
-                section.setWater(water);
-            }
+                territory.ensureSection(x, y).setWater(water);
+            });
         }
     }
 
@@ -139,25 +275,22 @@ public class SimulationFactory {
             return;
         }
         for (AirInput airInput : airs) {
-            for (PairInput sectionPos : airInput.getSections()) {
-                Section section = ensureSection(territory, sectionPos);
-                Air air = AirFactory.createAirFromInput(airInput);
-                section.setAir(air);
+            // Identical airs are shared until one of them changes
+            Air shared = canShare(airInput) ? AirFactory.createAirFromInput(airInput) : null;
+            if (shared != null) {
+                shared.share();
             }
+            airInput.forEachSection(territory.getWidth(), territory.getHeight(), (x, y) -> {
+                Air air = shared != null ? shared : AirFactory.createAirFromInput(airInput);
+                territory.ensureSection(x, y).setAir(air);
+            });
         }
     }
 
     /**
-     * Ensures that a {@link Section} exists at the given position
-     * in the territory, creating it if necessary
+     * Tells whether a definition placed on the given sections is worth sharing
      */
-    private Section ensureSection(final Territory territory, final PairInput pos) {
-        Section[][] grid = territory.getSections();
-        Section section = grid[pos.getX()][pos.getY()];
-        if (section == null) {
-            section = new Section();
-            grid[pos.getX()][pos.getY()] = section;
-        }
-        return section;
+    private boolean canShare(final PlacedInput input) {
+        return territoryBackend.sharesEntities() && input.countSections() > 1;
     }
 }
@@ -1,27 +1,78 @@
 package simulation;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.CommandInput;
+import fileio.OutputSink;
 import fileio.SimulationInput;
+import model.environment.TerritoryBackend;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Coordinates multiple simulations and command execution
  */
 public class SimulationManager {
 
+    /**
+     * System property setting how many simulations may run at the same time
+     */
+    public static final String PARALLELISM_PROPERTY = "terrabot.simulations.parallelism";
+
+    /**
+     * System property naming the directory in which every running simulation is saved,
+     * as one {@link SimulationCheckpoint} per simulation, every
+     * {@link #CHECKPOINT_INTERVAL_PROPERTY} commands
+     */
+    public static final String CHECKPOINT_DIR_PROPERTY = "terrabot.checkpoint.dir";
+
+    /**
+     * System property setting how many commands a simulation runs between two
+     * checkpoints
+     */
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = "terrabot.checkpoint.interval";
+
+    /**
+     * System property naming a directory of checkpoints to resume the simulations from.
+     * A simulation with a checkpoint skips the commands run before it was saved, along
+     * with their output; the other simulations start from their input.
+     */
+    public static final String RESUME_DIR_PROPERTY = "terrabot.resume.dir";
+
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
+    /**
+     * Number of commands read ahead of the simulation running them
+     */
+    private static final int SEGMENT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Number of results a segment buffers while waiting for the segments before it
+     */
+    private static final int SEGMENT_BUFFER_LIMIT = 4096;
+
     /**
      * All simulations described in the input file
      */
     private final List<SimulationInput> simulations;
 
     /**
-     * Global command list that drives all simulations
+     * Global command stream that drives all simulations
      */
-    private final List<CommandInput> commands;
+    private final Iterable<CommandInput> commands;
 
     /**
      * Jackson mapper used to construct JSON output nodes
@@ -34,68 +85,350 @@ public class SimulationManager {
      */
     private final SimulationFactory simulationFactory;
 
+    /**
+     * Decodes the commands before they are run
+     */
+    private final CommandCompiler commandCompiler = new CommandCompiler();
+
+    /**
+     * Number of simulations run at the same time
+     */
+    private final int parallelism;
+
+    /**
+     * Registry receiving the run time of every simulation
+     */
+    private final MetricsRegistry metrics;
+
+    /**
+     * Recorder receiving the reading, running and writing of the simulations as spans
+     */
+    private final TraceRecorder trace;
+
+    /**
+     * Directory receiving the checkpoints of the simulations, null to save none
+     */
+    private final Path checkpointDirectory;
+
+    /**
+     * Number of commands a simulation runs between two checkpoints
+     */
+    private final int checkpointInterval;
+
+    /**
+     * Directory holding the checkpoints to resume from, null to start every simulation
+     * from its input
+     */
+    private final Path resumeDirectory;
+
     /**
      * Constructs a manager for all simulations defined in the input
      *
      * @param simulations the simulation parameter list
-     * @param commands    the global command list
+     * @param commands    the global command stream, iterated once
      * @param mapper      the Jackson mapper used to build JSON output
      */
     public SimulationManager(final List<SimulationInput> simulations,
-                             final List<CommandInput> commands,
+                             final Iterable<CommandInput> commands,
                              final ObjectMapper mapper) {
+        this(simulations, commands, mapper, MetricsRegistry.DISABLED);
+    }
+
+    /**
+     * Constructs a manager for all simulations defined in the input, recording the
+     * metrics of the run in the given registry
+     *
+     * @param simulations the simulation parameter list
+     * @param commands    the global command stream, iterated once
+     * @param mapper      the Jackson mapper used to build JSON output
+     * @param metrics     the registry receiving the metrics
+     */
+    public SimulationManager(final List<SimulationInput> simulations,
+                             final Iterable<CommandInput> commands,
+                             final ObjectMapper mapper,
+                             final MetricsRegistry metrics) {
+        this(simulations, commands, mapper, metrics, TraceRecorder.DISABLED);
+    }
+
+    /**
+     * Constructs a manager for all simulations defined in the input, recording the
+     * metrics of the run in the given registry and its phases in the given recorder
+     *
+     * @param simulations the simulation parameter list
+     * @param commands    the global command stream, iterated once
+     * @param mapper      the Jackson mapper used to build JSON output
+     * @param metrics     the registry receiving the metrics
+     * @param trace       the recorder receiving the spans
+     */
+    public SimulationManager(final List<SimulationInput> simulations,
+                             final Iterable<CommandInput> commands,
+                             final ObjectMapper mapper,
+                             final MetricsRegistry metrics,
+                             final TraceRecorder trace) {
+        this(simulations, commands, mapper, metrics, trace, defaultParallelism());
+    }
+
+    /**
+     * Constructs a manager for all simulations defined in the input, running the given
+     * number of simulations at the same time, recording the metrics of the run in the
+     * given registry and its phases in the given recorder
+     *
+     * @param simulations the simulation parameter list
+     * @param commands    the global command stream, iterated once
+     * @param mapper      the Jackson mapper used to build JSON output
+     * @param metrics     the registry receiving the metrics
+     * @param trace       the recorder receiving the spans
+     * @param parallelism the number of simulations run at the same time
+     */
+    public SimulationManager(final List<SimulationInput> simulations,
+                             final Iterable<CommandInput> commands,
+                             final ObjectMapper mapper,
+                             final MetricsRegistry metrics,
+                             final TraceRecorder trace,
+                             final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
         this.simulations = simulations;
         this.commands = commands;
         this.mapper = mapper;
-        this.simulationFactory = new SimulationFactory();
+        this.metrics = metrics;
+        this.trace = trace;
+        this.simulationFactory = new SimulationFactory(TerritoryBackend.fromSystemProperty(),
+                TickMode.fromSystemProperty(), metrics, trace);
+        this.parallelism = parallelism;
+        this.checkpointDirectory = pathProperty(CHECKPOINT_DIR_PROPERTY);
+        this.checkpointInterval = Integer.getInteger(CHECKPOINT_INTERVAL_PROPERTY,
+                DEFAULT_CHECKPOINT_INTERVAL);
+        this.resumeDirectory = pathProperty(RESUME_DIR_PROPERTY);
     }
 
     /**
-     * Runs all simulations and returns the aggregated JSON output
+     * Returns the number of simulations run at the same time when none is given
      *
-     * @return an ArrayNode representing the checker output
+     * @return the value of {@link #PARALLELISM_PROPERTY}, the number of available
+     *         processors if it is not set
      */
-    public ArrayNode runAll() {
-        ArrayNode output = mapper.createArrayNode();
-        executeAllCommands(output);
-        return output;
+    public static int defaultParallelism() {
+        return Integer.getInteger(PARALLELISM_PROPERTY,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    private static Path pathProperty(final String property) {
+        String value = System.getProperty(property);
+        return value != null ? Path.of(value) : null;
     }
 
     /**
-     * Executes all commands for all simulations and fills the provided output node
+     * Runs all simulations, writing the checker output as a JSON array to the given
+     * generator while the commands are executed
      *
-     * @param output the output array node to be populated
+     * @param generator the generator receiving the output
+     * @throws IOException if the output cannot be written
      */
-    private void executeAllCommands(final ArrayNode output) {
-        Simulation currentSimulation = null;
+    public void runAll(final JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        try {
+            executeAllCommands(generator);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Executes all commands for all simulations and fills the provided output node.
+     * Every command is compiled as it is read, then the command stream is split into
+     * segments, one per started simulation, which are run concurrently: a simulation is
+     * started as soon as its startSimulation command is read and is handed its commands
+     * while the rest of the input is read. The oldest running segment writes its output
+     * straight to the generator, the others buffer theirs until their turn comes.
+     *
+     * @param output the generator receiving the output
+     */
+    private void executeAllCommands(final JsonGenerator output) {
+        Deque<Future<?>> pending = new ArrayDeque<>();
+        OrderedOutput ordered = new OrderedOutput(output, mapper,
+                SEGMENT_BUFFER_LIMIT, trace);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        CommandQueue segment = null;
+        int segmentSize = 0;
         int currentSimulationIndex = 0;
+        long segmentStart = 0;
 
-        for (CommandInput cmd : commands) {
-            String name  = cmd.getCommand();
+        try {
+            for (CommandInput input : commands) {
+                CompiledCommand cmd = commandCompiler.compile(input);
+                if (segment != null) {
+                    segment.put(cmd);
+                    segmentSize++;
+                    if (cmd.getType() == CommandType.END_SIMULATION) {
+                        trace.record("readCommands", "input", segmentStart,
+                                "commands", segmentSize);
+                        segment.close();
+                        segment = null;
+                    }
+                } else if (cmd.getType() == CommandType.START_SIMULATION) {
+                    segmentStart = trace.start();
+                    SimulationInput segmentInput;
+                    try {
+                        segmentInput = simulations.get(currentSimulationIndex++);
+                    } catch (RuntimeException e) {
+                        pending.add(CompletableFuture.failedFuture(e));
+                        break;
+                    }
+                    trace.record("parseSimulation", "input", segmentStart,
+                            "index", currentSimulationIndex - 1);
+                    segment = new CommandQueue(SEGMENT_QUEUE_CAPACITY);
+                    segment.put(cmd);
+                    segmentSize = 1;
+                    pending.add(submitSegment(executor, currentSimulationIndex - 1,
+                            segmentInput, segment, ordered.open()));
+                } else {
+                    OrderedOutput.Part part = ordered.open();
+                    executeCommand(null, cmd, part);
+                    part.finish();
+                }
+
+                // Keep a bounded number of segments in flight
+                while (pending.size() > 2 * parallelism) {
+                    await(pending.poll());
+                }
+            }
+
+            if (segment != null) {
+                segment.close();
+            }
+            while (!pending.isEmpty()) {
+                await(pending.poll());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            switch (name) {
-                case "startSimulation" -> {
-                    if (currentSimulation != null) {
-                        ObjectNode error = mapper.createObjectNode();
-                        error.put("command", name);
-                        error.put("message",
-                                "ERROR: Simulation already started. Cannot perform action");
-                        error.put("timestamp", cmd.getTimestamp());
+    private Future<?> submitSegment(final ExecutorService executor, final int index,
+                                    final SimulationInput input,
+                                    final CommandQueue segment,
+                                    final OrderedOutput.Part output) {
+        return executor.submit(() -> {
+            try {
+                runSegment(index, input, segment, output);
+            } finally {
+                segment.abandon();
+            }
+            return null;
+        });
+    }
 
-                        output.add(error);
-                        continue;
+    /**
+     * Runs the commands of a single simulation, from its startSimulation command up to
+     * its endSimulation command, as they are read. A simulation resumed from a
+     * checkpoint skips the commands it had run before being saved.
+     *
+     * @param index   index of the simulation in the input
+     * @param input   parameters of the simulation
+     * @param segment queue receiving the commands of the simulation
+     * @param output  output of the segment, finished once the simulation has ended
+     * @throws InterruptedException if the run is cancelled while waiting for commands
+     * @throws IOException          if a checkpoint cannot be read or written
+     */
+    private void runSegment(final int index, final SimulationInput input,
+                            final CommandQueue segment, final OrderedOutput.Part output)
+            throws InterruptedException, IOException {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        long traceStart = trace.start();
+        Path resumeFile = resumeDirectory != null
+                ? resumeDirectory.resolve(checkpointName(index)) : null;
+        Simulation simulation = resumeFile != null && Files.exists(resumeFile)
+                ? simulationFactory.resume(resumeFile) : simulationFactory.build(input);
+        int skipped = simulation.getCommandCount();
+        int count = 0;
+        try {
+            for (CompiledCommand cmd = segment.take(); cmd != null; cmd = segment.take()) {
+                boolean repeatedStart = count++ > 0
+                        && cmd.getType() == CommandType.START_SIMULATION;
+                if (skipped > 0) {
+                    if (!repeatedStart) {
+                        skipped--;
                     }
-                    SimulationInput simInput = simulations.get(currentSimulationIndex++);
-                    currentSimulation = simulationFactory.build(simInput);
+                    continue;
+                }
+                if (repeatedStart) {
+                    ObjectNode error = mapper.createObjectNode();
+                    error.put("command", cmd.getCommand());
+                    error.put("message",
+                            "ERROR: Simulation already started. Cannot perform action");
+                    error.put("timestamp", cmd.getTimestamp());
 
-                    executeCommand(currentSimulation, cmd, output);
+                    output.add(error);
+                    continue;
                 }
-                case "endSimulation" -> {
-                    executeCommand(currentSimulation, cmd, output);
-                    currentSimulation = null;
+                executeCommand(simulation, cmd, output);
+                if (checkpointDirectory != null
+                        && simulation.getCommandCount() % checkpointInterval == 0) {
+                    saveCheckpoint(index, simulation);
                 }
-                default -> executeCommand(currentSimulation, cmd, output);
             }
+        } finally {
+            simulation.close();
+        }
+        output.finish();
+
+        if (metrics.isEnabled()) {
+            metrics.recordSimulation(System.nanoTime() - start);
+        }
+        trace.record("simulation", "simulation", traceStart, "commands", count);
+    }
+
+    /**
+     * Saves a simulation to the checkpoint directory. The checkpoint is written next to
+     * the previous one and then moved over it, so a failed save keeps the previous one.
+     */
+    private void saveCheckpoint(final int index, final Simulation simulation)
+            throws IOException {
+        long start = trace.start();
+        Path file = checkpointDirectory.resolve(checkpointName(index));
+        Path partFile = checkpointDirectory.resolve(checkpointName(index) + ".part");
+        try {
+            SimulationCheckpoint.save(simulation, partFile);
+            Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partFile);
+        }
+        trace.record("checkpoint", "simulation", start, "index", index);
+    }
+
+    private static String checkpointName(final int index) {
+        return "simulation-" + index + ".tbcp";
+    }
+
+    /**
+     * Waits for a segment to run, rethrowing the exception that stopped it
+     *
+     * @param part the pending segment
+     */
+    private void await(final Future<?> part) {
+        try {
+            part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException(cause);
+            }
+            throw new IllegalStateException(e.getCause());
         }
     }
 
@@ -104,11 +437,11 @@ public class SimulationManager {
      *
      * @param simulation current simulation instance
      * @param command    command to execute
-     * @param output     output array to add result nodes to
+     * @param output     sink receiving the result of the command
      */
     private void executeCommand(final Simulation simulation,
-                                final CommandInput command,
-                                final ArrayNode output) {
+                                final CompiledCommand command,
+                                final OutputSink output) {
         if (simulation == null) {
             ObjectNode error = mapper.createObjectNode();
             error.put("command", command.getCommand());
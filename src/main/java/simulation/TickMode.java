@@ -0,0 +1,41 @@
+package simulation;
+
+/**
+ * Ways in which a simulation can advance its active entities between commands
+ */
+public enum TickMode {
+    /**
+     * Every scheduled section is updated in turn on the calling thread
+     */
+    SEQUENTIAL,
+
+    /**
+     * Sections that no active animal can reach during a tick are split into tiles
+     * updated concurrently; the neighborhoods of active animals are then updated in
+     * the sequential order, so the results match {@link #SEQUENTIAL} exactly
+     */
+    PARALLEL,
+
+    /**
+     * Order-independent semantics: every tick reads the state at its start and writes
+     * the next state into a back buffer, swapped in at the end of the tick. Sections
+     * update their own entities, possibly concurrently, and conflicting moves are
+     * resolved by a rule that does not depend on the order of the sections. Results
+     * differ from {@link #SEQUENTIAL}, which stays the reference behavior
+     */
+    DOUBLE_BUFFERED;
+
+    /**
+     * System property selecting the tick mode of new simulations
+     */
+    public static final String PROPERTY = "terrabot.ticks";
+
+    /**
+     * Returns the tick mode selected through the {@link #PROPERTY} system property
+     *
+     * @return the configured tick mode, {@link #SEQUENTIAL} if none is set
+     */
+    public static TickMode fromSystemProperty() {
+        return valueOf(System.getProperty(PROPERTY, SEQUENTIAL.name()));
+    }
+}
@@ -0,0 +1,284 @@
+package simulation;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the phases of a run as spans and writes them in the Chrome trace-event
+ * format, to be opened in chrome://tracing or Perfetto. Spans can be recorded from
+ * any thread; each thread gets its own track, named after the thread. The
+ * {@link #DISABLED} recorder records nothing, and the instrumented code skips reading
+ * the clock for it.
+ *
+ * <p>Spans are kept in a ring buffer of {@value #DEFAULT_CAPACITY} spans by default,
+ * about 20 MB, which can be changed with the {@link #CAPACITY_PROPERTY} system
+ * property. Once it is full, every new span replaces the oldest one, so a long run
+ * keeps its last spans and the trace tells how many were dropped.</p>
+ */
+public final class TraceRecorder {
+
+    /**
+     * System property holding the path of the trace written at the end of a run; spans
+     * are only recorded when it is set
+     */
+    public static final String PROPERTY = "terrabot.trace";
+
+    /**
+     * Recorder that ignores every span
+     */
+    public static final TraceRecorder DISABLED = new TraceRecorder(false, 1);
+
+    /**
+     * System property holding the number of spans kept by the recorder of a run
+     */
+    public static final String CAPACITY_PROPERTY = "terrabot.trace.capacity";
+
+    /**
+     * Number of spans kept when {@link #CAPACITY_PROPERTY} is not set
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final boolean enabled;
+
+    /**
+     * Clock reading that trace timestamps are relative to
+     */
+    private final long origin = System.nanoTime();
+
+    /**
+     * Ring buffer of the last recorded spans, the span number n being kept in the slot
+     * n modulo the capacity
+     */
+    private final AtomicReferenceArray<Span> spans;
+
+    /**
+     * Number of spans recorded so far, including the dropped ones
+     */
+    private final AtomicLong recorded = new AtomicLong();
+    private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty recorder keeping the last {@value #DEFAULT_CAPACITY} spans
+     */
+    public TraceRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty recorder keeping the last spans
+     *
+     * @param capacity the number of spans kept
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public TraceRecorder(final int capacity) {
+        this(true, capacity);
+    }
+
+    private TraceRecorder(final boolean enabled, final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid trace capacity: " + capacity);
+        }
+        this.enabled = enabled;
+        this.spans = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Returns a new recorder if the {@link #PROPERTY} system property is set,
+     * {@link #DISABLED} otherwise
+     *
+     * @return the recorder of a run
+     */
+    public static TraceRecorder fromSystemProperty() {
+        return System.getProperty(PROPERTY) != null
+                ? new TraceRecorder(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY))
+                : DISABLED;
+    }
+
+    /**
+     * Tells whether spans are kept
+     *
+     * @return false for the {@link #DISABLED} recorder
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reads the clock at the start of a span
+     *
+     * @return the start of the span, 0 if the recorder is disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a span that started at the given clock reading and ends now
+     *
+     * @param name     the name of the span
+     * @param category the category of the span
+     * @param start    the value returned by {@link #start()}
+     */
+    public void record(final String name, final String category, final long start) {
+        record(name, category, start, null, 0, null, 0);
+    }
+
+    /**
+     * Records a span with one argument
+     *
+     * @param name     the name of the span
+     * @param category the category of the span
+     * @param start    the value returned by {@link #start()}
+     * @param arg      the name of the argument
+     * @param value    the value of the argument
+     */
+    public void record(final String name, final String category, final long start,
+                       final String arg, final long value) {
+        record(name, category, start, arg, value, null, 0);
+    }
+
+    /**
+     * Records a span with two arguments
+     *
+     * @param name     the name of the span
+     * @param category the category of the span
+     * @param start    the value returned by {@link #start()}
+     * @param arg1     the name of the first argument
+     * @param value1   the value of the first argument
+     * @param arg2     the name of the second argument
+     * @param value2   the value of the second argument
+     */
+    public void record(final String name, final String category, final long start,
+                       final String arg1, final long value1,
+                       final String arg2, final long value2) {
+        if (!enabled) {
+            return;
+        }
+        long end = System.nanoTime();
+        Thread thread = Thread.currentThread();
+        long threadId = thread.threadId();
+        threadNames.computeIfAbsent(threadId, id -> thread.getName());
+        long number = recorded.getAndIncrement();
+        spans.set((int) (number % spans.length()), new Span(name, category, threadId, start,
+                end - start, arg1, value1, arg2, value2));
+    }
+
+    /**
+     * Returns the number of spans recorded so far that were replaced by newer ones
+     *
+     * @return the number of dropped spans
+     */
+    public long getDroppedSpans() {
+        return Math.max(0, recorded.get() - spans.length());
+    }
+
+    /**
+     * Writes the spans recorded so far to the given file
+     *
+     * @param file the file receiving the trace
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTrace(final File file) throws IOException {
+        try (JsonGenerator generator = new JsonFactory().createGenerator(file,
+                JsonEncoding.UTF8)) {
+            writeTrace(generator);
+        }
+    }
+
+    /**
+     * Writes the spans kept so far as a trace-event JSON object, oldest first
+     *
+     * @param generator the generator receiving the trace
+     * @throws IOException if the trace cannot be written
+     */
+    public void writeTrace(final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("displayTimeUnit", "ms");
+        generator.writeObjectFieldStart("otherData");
+        generator.writeNumberField("recordedSpans", recorded.get());
+        generator.writeNumberField("droppedSpans", getDroppedSpans());
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("traceEvents");
+
+        for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+            generator.writeStartObject();
+            generator.writeStringField("name", "thread_name");
+            generator.writeStringField("ph", "M");
+            generator.writeNumberField("pid", 1);
+            generator.writeNumberField("tid", thread.getKey());
+            generator.writeObjectFieldStart("args");
+            generator.writeStringField("name", thread.getValue());
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+
+        long end = recorded.get();
+        int capacity = spans.length();
+        for (long number = Math.max(0, end - capacity); number < end; number++) {
+            Span span = spans.get((int) (number % capacity));
+            if (span == null) {
+                // Claimed by a thread that has not stored it yet
+                continue;
+            }
+            generator.writeStartObject();
+            generator.writeStringField("name", span.name);
+            generator.writeStringField("cat", span.category);
+            generator.writeStringField("ph", "X");
+            generator.writeNumberField("ts", (span.start - origin) / NANOS_PER_MICRO);
+            generator.writeNumberField("dur", span.duration / NANOS_PER_MICRO);
+            generator.writeNumberField("pid", 1);
+            generator.writeNumberField("tid", span.threadId);
+            if (span.arg1 != null) {
+                generator.writeObjectFieldStart("args");
+                generator.writeNumberField(span.arg1, span.value1);
+                if (span.arg2 != null) {
+                    generator.writeNumberField(span.arg2, span.value2);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * A completed span, with up to two numeric arguments
+     */
+    private static final class Span {
+        private final String name;
+        private final String category;
+        private final long threadId;
+        private final long start;
+        private final long duration;
+        private final String arg1;
+        private final long value1;
+        private final String arg2;
+        private final long value2;
+
+        Span(final String name, final String category, final long threadId,
+             final long start, final long duration, final String arg1, final long value1,
+             final String arg2, final long value2) {
+            this.name = name;
+            this.category = category;
+            this.threadId = threadId;
+            this.start = start;
+            this.duration = duration;
+            this.arg1 = arg1;
+            this.value1 = value1;
+            this.arg2 = arg2;
+            this.value2 = value2;
+        }
+    }
+}
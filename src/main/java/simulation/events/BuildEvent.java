@@ -0,0 +1,30 @@
+package simulation.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * Building of a simulation from its input parameters
+ */
+@Name("terrabot.Build")
+@Label("Simulation Build")
+@Category("TerraBot")
+@Setter
+public final class BuildEvent extends Event {
+    @Label("Territory Width")
+    private int width;
+
+    @Label("Territory Height")
+    private int height;
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Cells Populated")
+    @Description("Entities placed on sections, counting every entity separately")
+    private long cellsPopulated;
+}
@@ -0,0 +1,34 @@
+package simulation.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+/**
+ * Execution of a command by a simulation, including the updates of the entities up
+ * to its timestamp. Commands shorter than 20 us are not recorded by default; the
+ * threshold can be changed in the recording settings, down to zero to record every
+ * command, such as {@code -XX:StartFlightRecording:terrabot.Command#threshold=0ms}.
+ */
+@Name("terrabot.Command")
+@Label("Command")
+@Category("TerraBot")
+@Description("Execution of a command, including the entity updates it triggered")
+@Threshold("20 us")
+@Setter
+public final class CommandEvent extends Event {
+    @Label("Command")
+    private String command;
+
+    @Label("Timestamp")
+    @Description("Simulation timestamp of the command")
+    private int timestamp;
+
+    @Label("Error")
+    @Description("Whether the command was rejected or failed")
+    private boolean error;
+}
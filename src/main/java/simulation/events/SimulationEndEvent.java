@@ -0,0 +1,25 @@
+package simulation.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * End of a simulation, at its endSimulation command
+ */
+@Name("terrabot.SimulationEnd")
+@Label("Simulation End")
+@Category("TerraBot")
+@Setter
+public final class SimulationEndEvent extends Event {
+    @Label("Timestamp")
+    private int timestamp;
+
+    @Label("Energy Points")
+    private int energyPoints;
+
+    @Label("Active Sections")
+    private int activeSections;
+}
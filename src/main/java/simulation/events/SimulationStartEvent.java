@@ -0,0 +1,25 @@
+package simulation.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * Start of a simulation, at its startSimulation command
+ */
+@Name("terrabot.SimulationStart")
+@Label("Simulation Start")
+@Category("TerraBot")
+@Setter
+public final class SimulationStartEvent extends Event {
+    @Label("Timestamp")
+    private int timestamp;
+
+    @Label("Territory Width")
+    private int width;
+
+    @Label("Territory Height")
+    private int height;
+}
@@ -0,0 +1,45 @@
+package simulation.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+/**
+ * Update of the active entities of a simulation. While no animal is active, the
+ * sections are fast-forwarded through several timestamps at once and a single event
+ * covers all of them. Updates shorter than 20 us are not recorded by default; the
+ * threshold can be changed in the recording settings, down to zero to record every
+ * update, such as {@code -XX:StartFlightRecording:terrabot.Tick#threshold=0ms}.
+ */
+@Name("terrabot.Tick")
+@Label("Tick")
+@Category("TerraBot")
+@Description("Update of the active entities through one or more timestamps")
+@Threshold("20 us")
+@Setter
+public final class TickEvent extends Event {
+    @Label("Timestamp")
+    @Description("Last simulation timestamp reached by the update")
+    private int timestamp;
+
+    @Label("Ticks")
+    @Description("Number of timestamps covered by the update")
+    private int ticks;
+
+    @Label("Cells Scanned")
+    private int cellsScanned;
+
+    @Label("Active Entities")
+    @Description("Active entities updated, counted once for every section update")
+    private int activeEntities;
+
+    @Label("Animals Moved")
+    private int animalsMoved;
+
+    @Label("Plants Died")
+    private int plantsDied;
+}
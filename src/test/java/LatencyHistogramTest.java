@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+import simulation.LatencyHistogram;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class LatencyHistogramTest {
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.getMax()).isZero();
+        assertThat(histogram.valueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.getMean()).isEqualTo(50.5);
+        assertThat(histogram.getMax()).isEqualTo(100);
+        assertThat(histogram.valueAtPercentile(50)).isEqualTo(50);
+        assertThat(histogram.valueAtPercentile(90)).isEqualTo(90);
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(100);
+    }
+
+    @Test
+    public void largeValuesStayWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(percentile / 100 * 10_000) * 1_000;
+            assertThat(histogram.valueAtPercentile(percentile))
+                    .isBetween(exact, exact + exact / 100);
+        }
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(10_000_000);
+    }
+
+    @Test
+    public void percentileNeverExceedsMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+        assertThat(histogram.valueAtPercentile(50)).isEqualTo(1_000_001);
+    }
+
+    @Test
+    public void negativeDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(4);
+        assertThat(histogram.getCount()).isEqualTo(2);
+        assertThat(histogram.getMean()).isEqualTo(2);
+        assertThat(histogram.valueAtPercentile(50)).isZero();
+    }
+
+    @Test
+    public void recordsFromManyThreads() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(histogram.getCount()).isEqualTo(40_000);
+        assertThat(histogram.getMax()).isEqualTo(9_999);
+    }
+}
@@ -0,0 +1,94 @@
+import fileio.PairInput;
+import fileio.SectionRangeInput;
+import fileio.SectionRunInput;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SectionPlacementTest {
+    private static final int WIDTH = 4;
+    private static final int HEIGHT = 3;
+
+    @Test
+    public void rangeVisitsRowsFromEitherCorner() {
+        List<String> visited = new ArrayList<>();
+        range(2, 3, 1, 2).forEach(WIDTH, HEIGHT, (x, y) -> visited.add(x + "," + y));
+        assertThat(visited).containsExactly("1,2", "1,3", "2,2", "2,3");
+        assertThat(range(1, 2, 2, 3).size()).isEqualTo(4);
+    }
+
+    @Test
+    public void rangeSizeDoesNotOverflow() {
+        SectionRangeInput range = range(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertThat(range.size()).isEqualTo((long) Integer.MAX_VALUE * Integer.MAX_VALUE
+                + 2L * Integer.MAX_VALUE + 1);
+    }
+
+    @Test
+    public void rejectsRangeOutsideTerritory() {
+        assertThatThrownBy(() -> range(0, 0, 2, WIDTH).forEach(WIDTH, HEIGHT, (x, y) -> { }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("(2, 4)");
+        assertThatThrownBy(() -> range(-1, 0, 0, 0).forEach(WIDTH, HEIGHT, (x, y) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void runWrapsToNextRow() {
+        List<String> visited = new ArrayList<>();
+        run(0, 2, 4).forEach(WIDTH, HEIGHT, (x, y) -> visited.add(x + "," + y));
+        assertThat(visited).containsExactly("0,2", "0,3", "1,0", "1,1");
+    }
+
+    @Test
+    public void runMayEndOnLastSection() {
+        List<String> visited = new ArrayList<>();
+        run(2, 2, 2).forEach(WIDTH, HEIGHT, (x, y) -> visited.add(x + "," + y));
+        assertThat(visited).containsExactly("2,2", "2,3");
+    }
+
+    @Test
+    public void rejectsRunPastLastSection() {
+        assertThatThrownBy(() -> run(2, 2, 3).forEach(WIDTH, HEIGHT, (x, y) -> { }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not fit");
+        assertThatThrownBy(() -> run(0, 0, Integer.MAX_VALUE)
+                .forEach(WIDTH, HEIGHT, (x, y) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> run(0, 0, -1).forEach(WIDTH, HEIGHT, (x, y) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void rejectsRunStartingOutsideTerritory() {
+        assertThatThrownBy(() -> run(0, WIDTH, 1).forEach(WIDTH, HEIGHT, (x, y) -> { }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("outside the 4x3 territory");
+    }
+
+    private static SectionRangeInput range(final int fromX, final int fromY,
+                                           final int toX, final int toY) {
+        SectionRangeInput range = new SectionRangeInput();
+        range.setFrom(pair(fromX, fromY));
+        range.setTo(pair(toX, toY));
+        return range;
+    }
+
+    private static PairInput pair(final int x, final int y) {
+        PairInput pair = new PairInput();
+        pair.setX(x);
+        pair.setY(y);
+        return pair;
+    }
+
+    private static SectionRunInput run(final int x, final int y, final int length) {
+        SectionRunInput run = new SectionRunInput();
+        run.setX(x);
+        run.setY(y);
+        run.setLength(length);
+        return run;
+    }
+}
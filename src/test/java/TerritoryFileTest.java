@@ -0,0 +1,66 @@
+import model.entities.Plant;
+import model.entities.Water;
+import model.environment.Territory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TerritoryFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void reopensClosedTerritory() throws IOException {
+        Path file = directory.resolve("territory.bin");
+        Territory territory = Territory.create(file, 4, 3);
+        Plant plant = new Plant();
+        plant.setType("FloweringPlants");
+        plant.setName("Rose");
+        plant.setMass(2.5);
+        territory.ensureSection(2, 3).setPlant(plant);
+        Water water = new Water();
+        water.setType("lake");
+        water.setName("Blue");
+        water.setMass(7);
+        territory.ensureSection(0, 1).setWater(water);
+        territory.close();
+
+        Territory reopened = Territory.open(file);
+        try {
+            assertThat(reopened.getWidth()).isEqualTo(4);
+            assertThat(reopened.getHeight()).isEqualTo(3);
+            assertThat(reopened.getSection(2, 3).getPlant()).isEqualTo(plant);
+            assertThat(reopened.getSection(0, 1).getWater()).isEqualTo(water);
+            assertThat(reopened.countObjects(1, 1)).isZero();
+        } finally {
+            reopened.close();
+        }
+        assertThat(file).exists();
+    }
+
+    @Test
+    public void rejectsTerritoryStillOpen() throws IOException {
+        Path file = directory.resolve("territory.bin");
+        Territory territory = Territory.create(file, 2, 2);
+        try {
+            assertThatThrownBy(() -> Territory.open(file))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("not closed");
+        } finally {
+            territory.close();
+        }
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        Path file = Files.write(directory.resolve("other.bin"), new byte[64]);
+        assertThatThrownBy(() -> Territory.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a territory file");
+    }
+}
@@ -9,6 +9,10 @@ import com.puppycrawl.tools.checkstyle.PropertiesExpander;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import main.Main;
+import model.environment.TerritoryBackend;
+import simulation.SimulationCheckpoint;
+import simulation.SimulationManager;
+import simulation.TickMode;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -23,8 +27,11 @@ import org.xml.sax.InputSource;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -104,6 +111,160 @@ public class TestRunner {
 
     }
 
+    /**
+     * Every golden input, graded or not, as input, output and reference paths. The
+     * ungraded ones place their entities with section ranges and runs and expect the
+     * output of the inputs they were converted from.
+     */
+    public static Stream<Arguments> goldenData() {
+        return Stream.concat(
+                data().map(arguments -> Arguments.of(arguments.get()[1], arguments.get()[2],
+                        arguments.get()[3])),
+                Stream.of(
+                        Arguments.of("input/test22_section_ranges.json", "out/out_test22_section_ranges.json", "ref/ref_test22_section_ranges.json"),
+                        Arguments.of("input/test23_section_runs.json", "out/out_test23_section_runs.json", "ref/ref_test23_section_runs.json")
+                )
+        );
+    }
+
+    public static Stream<Arguments> tickModeData() {
+        return goldenData().flatMap(arguments -> Stream.of(TickMode.values())
+                .map(mode -> Arguments.of(arguments.get()[0], arguments.get()[1],
+                        arguments.get()[2], mode)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("tickModeData")
+    public void runInEveryTickMode(
+            final String inputPath,
+            final String outputPath,
+            final String refPath,
+            final TickMode tickMode
+    ) throws IOException {
+        runWithProperty(TickMode.PROPERTY, tickMode.name(), inputPath,
+                outputPath.replace(".json", "_" + tickMode + ".json"), refPath);
+    }
+
+    public static Stream<Arguments> backendData() {
+        return goldenData().flatMap(arguments -> Stream.of(TerritoryBackend.values())
+                .map(backend -> Arguments.of(arguments.get()[0], arguments.get()[1],
+                        arguments.get()[2], backend)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("backendData")
+    public void runOnEveryBackend(
+            final String inputPath,
+            final String outputPath,
+            final String refPath,
+            final TerritoryBackend backend
+    ) throws IOException {
+        Path territories = Files.createTempDirectory("territories");
+        try {
+            System.setProperty(TerritoryBackend.DIRECTORY_PROPERTY, territories.toString());
+            runWithProperty(TerritoryBackend.PROPERTY, backend.name(), inputPath,
+                    outputPath.replace(".json", "_" + backend + ".json"), refPath);
+
+            // Every file mapped for a territory is deleted once its simulation ends
+            try (Stream<Path> files = Files.list(territories)) {
+                assertThat(files).isEmpty();
+            }
+        } finally {
+            System.clearProperty(TerritoryBackend.DIRECTORY_PROPERTY);
+            Files.delete(territories);
+        }
+    }
+
+    /**
+     * Runs an input with a system property set and checks its output against the
+     * reference
+     */
+    private void runWithProperty(
+            final String property,
+            final String value,
+            final String inputPath,
+            final String outputPath,
+            final String refPath
+    ) throws IOException {
+        try {
+            System.setProperty(property, value);
+            Main.action(inputPath, outputPath);
+        } finally {
+            System.clearProperty(property);
+        }
+
+        assertThatJson(objectMapper.readTree(new File(outputPath)))
+                .isEqualTo(objectMapper.readTree(new File(refPath)));
+    }
+
+    /**
+     * Single-simulation inputs running from their startSimulation command to their
+     * endSimulation command, one result per command
+     */
+    private static final List<String> CHECKPOINT_TESTS = List.of(
+            "test06", "test08", "test09", "test10", "test11", "test13", "test14", "test16"
+    );
+
+    public static Stream<Arguments> checkpointData() {
+        // Left without points, so that the runs are not graded a second time
+        return data().filter(arguments -> CHECKPOINT_TESTS.contains(arguments.get()[0]))
+                .map(arguments -> Arguments.of(arguments.get()[1], arguments.get()[2],
+                        arguments.get()[3]));
+    }
+
+    @ParameterizedTest
+    @MethodSource("checkpointData")
+    public void resumeFromCheckpoint(
+            final String inputPath,
+            final String outputPath,
+            final String refPath
+    ) throws IOException {
+        JsonNode refJson = objectMapper.readTree(new File(refPath));
+        // Past the middle of the run, so that a single checkpoint is saved
+        int interval = refJson.size() / 2 + 1;
+        String resumedPath = outputPath.replace(".json", "_resumed.json");
+        Path checkpoints = Files.createTempDirectory("checkpoints");
+
+        try {
+            System.setProperty(SimulationManager.CHECKPOINT_DIR_PROPERTY, checkpoints.toString());
+            System.setProperty(SimulationManager.CHECKPOINT_INTERVAL_PROPERTY,
+                    String.valueOf(interval));
+            Main.action(inputPath, outputPath);
+            System.clearProperty(SimulationManager.CHECKPOINT_DIR_PROPERTY);
+
+            System.setProperty(SimulationManager.RESUME_DIR_PROPERTY, checkpoints.toString());
+            Main.action(inputPath, resumedPath);
+
+            // A checkpoint cut short is rejected before anything is read from it
+            Path saved;
+            try (Stream<Path> files = Files.list(checkpoints)) {
+                saved = files.findFirst().orElseThrow();
+            }
+            byte[] bytes = Files.readAllBytes(saved);
+            Path truncated = checkpoints.resolve("truncated.tbcp");
+            Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+            assertThatThrownBy(() -> SimulationCheckpoint.load(truncated))
+                    .isInstanceOf(IOException.class);
+        } finally {
+            System.clearProperty(SimulationManager.CHECKPOINT_DIR_PROPERTY);
+            System.clearProperty(SimulationManager.CHECKPOINT_INTERVAL_PROPERTY);
+            System.clearProperty(SimulationManager.RESUME_DIR_PROPERTY);
+            try (Stream<Path> files = Files.list(checkpoints)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(checkpoints);
+        }
+
+        // Saving leaves the output untouched, resuming skips what ran before the save
+        assertThatJson(objectMapper.readTree(new File(outputPath))).isEqualTo(refJson);
+        List<JsonNode> rest = new ArrayList<>();
+        refJson.elements().forEachRemaining(rest::add);
+        assertThatJson(objectMapper.readTree(new File(resumedPath)))
+                .isEqualTo(objectMapper.valueToTree(rest.subList(interval, rest.size())));
+    }
+
     @Test
     public void testCheckstyle() throws CheckstyleException, IOException {
         File configFile = new File("src/test/resources/checkstyle/checkstyle.xml");
@@ -0,0 +1,89 @@
+import fileio.WorkloadEstimate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class WorkloadEstimateTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void readsAreaCommandsAndSpan() throws IOException {
+        WorkloadEstimate estimate = estimate(input(new String[] {"4x3", "2x2"}, 5, 10, 3));
+        assertThat(estimate.getArea()).isEqualTo(16);
+        assertThat(estimate.getCommandCount()).isEqualTo(3);
+        assertThat(estimate.getFirstTimestamp()).isEqualTo(5);
+        assertThat(estimate.getLastTimestamp()).isEqualTo(25);
+        assertThat(estimate.getCost()).isEqualTo(16.0 * 21 * 3);
+    }
+
+    @Test
+    public void ordersByAreaSpanAndCommands() throws IOException {
+        double base = estimate(input(new String[] {"10x10"}, 1, 1, 10)).getCost();
+        double larger = estimate(input(new String[] {"20x10"}, 1, 1, 10)).getCost();
+        double longer = estimate(input(new String[] {"10x10"}, 1, 5, 10)).getCost();
+        double busier = estimate(input(new String[] {"10x10"}, 1, 1, 20)).getCost();
+
+        assertThat(larger).isGreaterThan(base);
+        assertThat(longer).isGreaterThan(base);
+        assertThat(busier).isGreaterThan(base);
+    }
+
+    @Test
+    public void fileWithoutCommandsCostsNothing() throws IOException {
+        assertThat(estimate(input(new String[] {"100x100"}, 0, 1, 0)).getCost()).isZero();
+    }
+
+    @Test
+    public void skipsUnknownFields() throws IOException {
+        Path file = Files.writeString(directory.resolve("extra.json"), """
+                {"note": {"territoryDim": "99x99"},
+                 "simulationParams": [{"energyPoints": 5, "territoryDim": "3x3",
+                                       "territorySectionParams": {"soil": []}}],
+                 "commands": [{"command": "startSimulation", "timestamp": 2,
+                               "extra": [1, 2, {"timestamp": 50}]}]}
+                """);
+        WorkloadEstimate estimate = new WorkloadEstimate(file.toFile());
+        assertThat(estimate.getArea()).isEqualTo(9);
+        assertThat(estimate.getCommandCount()).isEqualTo(1);
+        assertThat(estimate.getLastTimestamp()).isEqualTo(2);
+    }
+
+    @Test
+    public void rejectsFilesThatAreNotObjects() throws IOException {
+        Path file = Files.writeString(directory.resolve("array.json"), "[]");
+        assertThatThrownBy(() -> new WorkloadEstimate(file.toFile()))
+                .isInstanceOf(IOException.class);
+    }
+
+    private WorkloadEstimate estimate(final File file) throws IOException {
+        return new WorkloadEstimate(file);
+    }
+
+    /**
+     * Writes an input with the given territories and evenly spaced commands
+     */
+    private File input(final String[] territories, final int firstTimestamp, final int step,
+                       final int commands) throws IOException {
+        StringBuilder json = new StringBuilder("{\"simulationParams\": [");
+        for (int i = 0; i < territories.length; i++) {
+            json.append(i > 0 ? ", " : "")
+                    .append("{\"territoryDim\": \"").append(territories[i]).append("\"}");
+        }
+        json.append("], \"commands\": [");
+        for (int i = 0; i < commands; i++) {
+            json.append(i > 0 ? ", " : "")
+                    .append("{\"command\": \"getEnergyStatus\", \"timestamp\": ")
+                    .append(firstTimestamp + i * step).append("}");
+        }
+        json.append("]}");
+        return Files.writeString(Files.createTempFile(directory, "input", ".json"), json)
+                .toFile();
+    }
+}
@@ -0,0 +1,137 @@
+import fileio.CommandInput;
+import fileio.InputLoader;
+import fileio.PlacedInput;
+import fileio.SimulationInput;
+import fileio.TerritorySectionParamsInput;
+import fileio.WorkloadGenerator;
+import fileio.WorkloadSpec;
+import main.Main;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class WorkloadGeneratorTest {
+    private static final int WIDTH = 7;
+    private static final int HEIGHT = 5;
+    private static final int SIMULATIONS = 2;
+    private static final int COMMANDS = 40;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void sameSeedWritesSameFile() throws IOException {
+        assertThat(generate(spec(3))).isEqualTo(generate(spec(3)));
+        assertThat(generate(spec(3))).isNotEqualTo(generate(spec(4)));
+    }
+
+    @Test
+    public void placesOneSoilAndOneAirOnEverySection() throws IOException {
+        Path file = directory.resolve("input.json");
+        new WorkloadGenerator(spec(5)).write(file);
+
+        try (InputLoader loader = new InputLoader(file.toString())) {
+            List<SimulationInput> simulations = loader.getSimulations();
+            assertThat(simulations).hasSize(SIMULATIONS);
+            for (SimulationInput simulation : simulations) {
+                assertThat(simulation.getTerritoryDim()).isEqualTo(WIDTH + "x" + HEIGHT);
+                TerritorySectionParamsInput params = simulation.getTerritorySectionParams();
+                assertThat(coverage(params.getSoil())).containsOnly(1);
+                assertThat(coverage(params.getAir())).containsOnly(1);
+                assertThat(mostOnSection(params.getPlants())).isLessThanOrEqualTo(1);
+                assertThat(mostOnSection(params.getAnimals())).isLessThanOrEqualTo(1);
+                assertThat(mostOnSection(params.getWater())).isLessThanOrEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    public void writesIncreasingTimestampsFromStartToEnd() throws IOException {
+        Path file = directory.resolve("input.json");
+        new WorkloadGenerator(spec(6)).write(file);
+
+        int count = 0;
+        int lastTimestamp = Integer.MIN_VALUE;
+        try (InputLoader loader = new InputLoader(file.toString())) {
+            for (CommandInput command : loader.getCommands()) {
+                if (count % (COMMANDS + 2) == 0) {
+                    assertThat(command.getCommand()).isEqualTo("startSimulation");
+                } else if (count % (COMMANDS + 2) == COMMANDS + 1) {
+                    assertThat(command.getCommand()).isEqualTo("endSimulation");
+                }
+                assertThat(command.getTimestamp()).isGreaterThan(lastTimestamp);
+                lastTimestamp = command.getTimestamp();
+                count++;
+            }
+        }
+        assertThat(count).isEqualTo(SIMULATIONS * (COMMANDS + 2));
+    }
+
+    @Test
+    public void generatedFileRuns() throws IOException {
+        Path file = directory.resolve("input.json");
+        Path output = directory.resolve("out").resolve("output.json");
+        new WorkloadGenerator(spec(7)).write(file);
+
+        Main.action(file.toString(), output.toString());
+        assertThat(output).isNotEmptyFile();
+    }
+
+    @Test
+    public void rejectsInvalidSpecs() {
+        WorkloadSpec empty = spec(1);
+        empty.apply("territoryDim=0x5");
+        assertThatThrownBy(() -> new WorkloadGenerator(empty))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        WorkloadSpec crowded = spec(1);
+        crowded.apply("water.lake=0.9");
+        assertThatThrownBy(() -> new WorkloadGenerator(crowded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("densities");
+
+        WorkloadSpec bare = spec(1);
+        bare.getSoilWeights().replaceAll((type, weight) -> 0.0);
+        assertThatThrownBy(() -> new WorkloadGenerator(bare))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static WorkloadSpec spec(final long seed) {
+        WorkloadSpec spec = new WorkloadSpec();
+        spec.setSeed(seed);
+        spec.setWidth(WIDTH);
+        spec.setHeight(HEIGHT);
+        spec.setPatch(2);
+        spec.setSimulations(SIMULATIONS);
+        spec.setCommandsPerSimulation(COMMANDS);
+        return spec;
+    }
+
+    private static byte[] generate(final WorkloadSpec spec) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new WorkloadGenerator(spec).write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Counts how many of the given entities are placed on every section
+     */
+    private static int[] coverage(final List<? extends PlacedInput> entities) {
+        int[] counts = new int[WIDTH * HEIGHT];
+        for (PlacedInput entity : entities) {
+            entity.forEachSection(WIDTH, HEIGHT, (x, y) -> counts[x * WIDTH + y]++);
+        }
+        return counts;
+    }
+
+    private static int mostOnSection(final List<? extends PlacedInput> entities) {
+        return Arrays.stream(coverage(entities)).max().orElse(0);
+    }
+}
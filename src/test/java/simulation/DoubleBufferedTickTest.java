@@ -0,0 +1,111 @@
+package simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.CommandInput;
+import model.entities.Animal;
+import model.entities.Plant;
+import model.entities.air.AirFactory;
+import model.entities.soil.SoilFactory;
+import model.environment.Section;
+import model.environment.Territory;
+import model.position.Position;
+import model.robot.TerraBot;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class DoubleBufferedTickTest {
+    private static final int SIZE = 3;
+
+    @Test
+    public void heaviestClaimantWinsInEitherOrder() {
+        // The same contest with the sides swapped, so that the claimants are visited
+        // in the opposite order
+        Territory territory = contest(2, 6, 0);
+        assertThat(territory.getSection(0, 1).getAnimal().getName()).isEqualTo("Heavy");
+        assertThat(territory.getSection(0, 0).getAnimal().getName()).isEqualTo("Light");
+        assertThat(territory.getSection(0, 2).getAnimal()).isNull();
+
+        Territory mirrored = contest(6, 2, 0);
+        assertThat(mirrored.getSection(0, 1).getAnimal().getName()).isEqualTo("Heavy");
+        assertThat(mirrored.getSection(0, 2).getAnimal().getName()).isEqualTo("Light");
+        assertThat(mirrored.getSection(0, 0).getAnimal()).isNull();
+
+        assertThat(mirrored.getSection(0, 1).getAnimal())
+                .isEqualTo(territory.getSection(0, 1).getAnimal());
+    }
+
+    @Test
+    public void tiedClaimantsStayInEitherOrder() {
+        Territory territory = contest(4, 4, 0);
+        assertThat(territory.getSection(0, 1).getAnimal()).isNull();
+        assertThat(territory.getSection(0, 0).getAnimal().getLastMoveTimestamp()).isEqualTo(2);
+        assertThat(territory.getSection(0, 2).getAnimal().getLastMoveTimestamp()).isEqualTo(2);
+    }
+
+    @Test
+    public void winnerFeedsOnClaimedSection() {
+        Territory territory = contest(2, 6, 1);
+        Animal heavy = territory.getSection(0, 1).getAnimal();
+        assertThat(heavy.isAtePlant()).isTrue();
+        assertThat(heavy.getMass()).isEqualTo(7);
+        assertThat(territory.getSection(0, 1).getPlant()).isNull();
+        assertThat(territory.getSection(0, 0).getAnimal().getMass()).isEqualTo(2);
+    }
+
+    /**
+     * Runs one tick of a territory where two herbivores, on the left and on the right
+     * of the first row, both move to the plant between them
+     *
+     * @param leftMass  mass of the left animal, named Heavy if it is the heavier one
+     * @param rightMass mass of the right animal
+     * @param plantMass mass of the contested plant
+     * @return the territory after the tick
+     */
+    private static Territory contest(final double leftMass, final double rightMass,
+                                     final double plantMass) {
+        Territory territory = new Territory(SIZE, SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                Section section = territory.ensureSection(i, j);
+                section.setSoil(SoilFactory.createSoil("GrasslandSoil"));
+                section.setAir(AirFactory.createAir("TemperateAir"));
+            }
+        }
+
+        Simulation simulation = new Simulation(territory,
+                new TerraBot(new Position(SIZE - 1, SIZE - 1), 100), TickMode.DOUBLE_BUFFERED);
+        EntityScheduler scheduler = simulation.getScheduler();
+
+        Plant plant = new Plant();
+        plant.setType("FloweringPlants");
+        plant.setName("Rose");
+        plant.setMass(plantMass);
+        plant.setActive(true);
+        territory.getSection(0, 1).setPlant(plant);
+        scheduler.schedule(0, 1);
+
+        territory.getSection(0, 0).setAnimal(
+                animal(leftMass > rightMass ? "Heavy" : "Light", leftMass));
+        territory.getSection(0, 2).setAnimal(
+                animal(rightMass > leftMass ? "Heavy" : "Light", rightMass));
+        scheduler.schedule(0, 0);
+        scheduler.schedule(0, 2);
+
+        CommandInput input = new CommandInput();
+        input.setCommand("getEnergyStatus");
+        input.setTimestamp(2);
+        simulation.executeCommand(new CompiledCommand(input, name -> name),
+                result -> { }, new ObjectMapper());
+        return territory;
+    }
+
+    private static Animal animal(final String name, final double mass) {
+        Animal animal = new Animal();
+        animal.setType("Herbivores");
+        animal.setName(name);
+        animal.setMass(mass);
+        animal.setActive(true);
+        return animal;
+    }
+}